@@ -19,6 +19,14 @@ public interface AutomaticBuilder {
 
     void runPit(CtType<?>... testClasses);
 
+    /**
+     * Runs PIT on the mutants of the given classes only, instead of every class that matches the filter.
+     *
+     * @param targetClasses the classes to be mutated, separated by commas, as given to the option targetClasses of PIT
+     * @param testClasses the test classes to be run against the mutants
+     */
+    void runPit(String targetClasses, CtType<?>... testClasses);
+
     void runPit();
 
     String getOutputDirectoryPit();
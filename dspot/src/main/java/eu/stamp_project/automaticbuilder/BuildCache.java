@@ -0,0 +1,236 @@
+package eu.stamp_project.automaticbuilder;
+
+import eu.stamp_project.utils.AmplificationHelper;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of the results of the automatic builder, stored in target/dspot/build.cache.
+ *
+ * The classpath of the dependencies is stored with a hash of the inputs of the build, i.e. the build files of the project
+ * and of its parents, and the settings of the build tool. It is reused as long as the hash does not change.
+ *
+ * The compilation is stored with a fingerprint of the project, taken right after the compilation, i.e. the path and the content of:
+ * <ul>
+ *     <li>the sources and the binaries of the project. The dates of last modification are not used:
+ *     a file that is written again with the same content, e.g. by a checkout, does not change the fingerprint</li>
+ *     <li>the resolved dependencies, i.e. the entries of the cached classpath, so a snapshot dependency that is updated
+ *     with the same version changes the fingerprint</li>
+ * </ul>
+ * The project is not compiled again as long as this fingerprint does not change.
+ * Since DSpot overwrites the binaries of the tests with the amplified ones, the project is compiled again after each run that did so.
+ */
+public class BuildCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuildCache.class);
+
+    private static final String PATH_TO_CACHE = "target/dspot/build.cache";
+
+    private static final String BUILD_KEY = "build.key";
+
+    private static final String CLASSPATH = "classpath";
+
+    private static final String COMPILATION_KEY = "compilation.key";
+
+    private final File cacheFile;
+
+    private final String buildKey;
+
+    private final Properties entries;
+
+    /**
+     * @param buildFileNames the names of the build files, looked for in the root of the project and in its parents
+     * @param settings the settings of the build tool, e.g. ~/.m2/settings.xml
+     * @param options the options of DSpot that change the result of the build
+     */
+    public BuildCache(List<String> buildFileNames, List<File> settings, String... options) {
+        final File projectRoot = new File(InputConfiguration.get().getAbsolutePathToProjectRoot());
+        this.cacheFile = new File(projectRoot, PATH_TO_CACHE);
+        final List<File> buildInputs = new ArrayList<>(settings);
+        // the parents, e.g. for a module of a multi-module project, are walked as long as they contain a build file
+        File directory = projectRoot.getAbsoluteFile();
+        while (directory != null && containsBuildFile(directory, buildFileNames)) {
+            for (String buildFileName : buildFileNames) {
+                buildInputs.add(new File(directory, buildFileName));
+            }
+            directory = directory.getParentFile();
+        }
+        this.buildKey = hashOfBuildInputs(buildInputs, options);
+        this.entries = load(this.cacheFile);
+    }
+
+    private static boolean containsBuildFile(File directory, List<String> buildFileNames) {
+        return buildFileNames.stream().anyMatch(buildFileName -> new File(directory, buildFileName).exists());
+    }
+
+    /**
+     * @return the cached classpath, or null if the inputs of the build changed or if an entry of the classpath does not exist anymore
+     */
+    public String getClasspath() {
+        if (!this.buildKey.equals(this.entries.getProperty(BUILD_KEY)) || !this.entries.containsKey(CLASSPATH)) {
+            return null;
+        }
+        final String classpath = this.entries.getProperty(CLASSPATH);
+        final boolean isStillValid = Arrays.stream(classpath.split(AmplificationHelper.PATH_SEPARATOR))
+                .filter(path -> !path.isEmpty())
+                .allMatch(path -> new File(path).exists());
+        if (!isStillValid) {
+            LOGGER.info("An entry of the cached classpath does not exist anymore.");
+            return null;
+        }
+        return classpath;
+    }
+
+    public void putClasspath(String classpath) {
+        if (!this.buildKey.equals(this.entries.getProperty(BUILD_KEY))) {
+            this.entries.clear();
+        }
+        this.entries.setProperty(BUILD_KEY, this.buildKey);
+        this.entries.setProperty(CLASSPATH, classpath);
+        this.save();
+    }
+
+    /**
+     * @return true if neither the inputs of the build, nor the sources, nor the binaries, nor the dependencies changed since the last compilation
+     */
+    public boolean isCompilationUpToDate() {
+        return this.buildKey.equals(this.entries.getProperty(BUILD_KEY)) &&
+                this.fingerprintOfProject().equals(this.entries.getProperty(COMPILATION_KEY));
+    }
+
+    /**
+     * Stores the fingerprint of the sources, binaries and dependencies of the project,
+     * must be called right after the compilation, once the classpath has been stored.
+     */
+    public void compilationDone() {
+        if (!this.buildKey.equals(this.entries.getProperty(BUILD_KEY))) {
+            this.entries.clear();
+        }
+        this.entries.setProperty(BUILD_KEY, this.buildKey);
+        this.entries.setProperty(COMPILATION_KEY, this.fingerprintOfProject());
+        this.save();
+    }
+
+    private String fingerprintOfProject() {
+        final InputConfiguration configuration = InputConfiguration.get();
+        final MessageDigest digest = newDigest();
+        digest.update(this.buildKey.getBytes(StandardCharsets.UTF_8));
+        Stream.of(configuration.getAbsolutePathToSourceCode(),
+                configuration.getAbsolutePathToTestSourceCode(),
+                configuration.getAbsolutePathToClasses(),
+                configuration.getAbsolutePathToTestClasses()
+        ).forEach(directory -> updateWithFilesOf(digest, new File(directory)));
+        final String classpath = this.entries.getProperty(CLASSPATH, "");
+        Arrays.stream(classpath.split(AmplificationHelper.PATH_SEPARATOR))
+                .filter(path -> !path.isEmpty())
+                .forEach(path -> updateWithFilesOf(digest, new File(path)));
+        return toHexString(digest.digest());
+    }
+
+    // updates the digest with the path and the content of the given file, or of every file of the given directory
+    private static void updateWithFilesOf(MessageDigest digest, File fileOrDirectory) {
+        digest.update(fileOrDirectory.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        if (!fileOrDirectory.exists()) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(fileOrDirectory.toPath())) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                if (Files.isRegularFile(file)) {
+                    digest.update(file.toString().getBytes(StandardCharsets.UTF_8));
+                    updateWithContentOf(digest, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void updateWithContentOf(MessageDigest digest, Path file) throws IOException {
+        final byte[] buffer = new byte[8192];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static String hashOfBuildInputs(List<File> buildInputs, String... options) {
+        final MessageDigest digest = newDigest();
+        digest.update(System.getProperty("java.version").getBytes(StandardCharsets.UTF_8));
+        for (String option : options) {
+            digest.update(option.getBytes(StandardCharsets.UTF_8));
+        }
+        for (File buildInput : buildInputs) {
+            digest.update(buildInput.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+            if (buildInput.isFile()) {
+                try {
+                    digest.update(Files.readAllBytes(buildInput.toPath()));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        return toHexString(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHexString(byte[] bytes) {
+        final StringBuilder hexString = new StringBuilder();
+        for (byte b : bytes) {
+            hexString.append(String.format("%02x", b));
+        }
+        return hexString.toString();
+    }
+
+    private static Properties load(File cacheFile) {
+        final Properties entries = new Properties();
+        if (cacheFile.exists()) {
+            try (InputStream input = new FileInputStream(cacheFile)) {
+                entries.load(input);
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the build cache {}, ignoring it.", cacheFile.getPath());
+                entries.clear();
+            }
+        }
+        return entries;
+    }
+
+    private void save() {
+        try {
+            FileUtils.forceMkdir(this.cacheFile.getParentFile());
+            try (OutputStream output = new FileOutputStream(this.cacheFile)) {
+                this.entries.store(output, "Cache of the automatic builder of DSpot");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write the build cache {}: {}", this.cacheFile.getPath(), e.getMessage());
+        }
+    }
+}
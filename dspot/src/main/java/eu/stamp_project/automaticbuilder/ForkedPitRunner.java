@@ -0,0 +1,286 @@
+package eu.stamp_project.automaticbuilder;
+
+import eu.stamp_project.automaticbuilder.maven.DSpotPOMCreator;
+import eu.stamp_project.utils.AmplificationHelper;
+import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.NodeList;
+import spoon.reflect.declaration.CtType;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs PIT through its command line entry point, in a new JVM that uses the classpath already computed by DSpot.
+ * This avoids the startup of the build tool, the resolution of its plugins and the building of the model of the project,
+ * that are paid by each mutation analysis run through the automatic builder.
+ *
+ * The jars of PIT, of Descartes and of the JUnit5 plugin of PIT are taken from the local Maven repository,
+ * as configured by the property maven.repo.local, by the .mvn/maven.config of the project, or by the settings of Maven.
+ * If one of them is missing, or if PIT fails, the automatic builder must be used instead.
+ */
+public class ForkedPitRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForkedPitRunner.class);
+
+    private static final String MAIN_CLASS_PIT = "org.pitest.mutationtest.commandline.MutationCoverageReport";
+
+    private static final String PATH_TO_PIT_LOG = "target/dspot/pit.log";
+
+    private static final String GREGOR_MUTATORS = "ALL";
+
+    private static final String OUTPUT_FORMATS = "CSV,XML";
+
+    private static final String PROPERTY_LOCAL_REPOSITORY = "maven.repo.local";
+
+    private static final Pattern ENV_VARIABLE = Pattern.compile("\\$\\{env\\.([^}]+)\\}");
+
+    /**
+     * Runs PIT in a new JVM.
+     *
+     * @param reportDirectory the directory in which PIT writes its results, relative to the root of the project
+     * @param dependencies the classpath of the dependencies of the project, as computed by the automatic builder
+     * @param targetClasses the classes to be mutated, separated by commas. If it is empty, the filter of DSpot is used.
+     * @param testClasses the test classes to be run against the mutants. If it is empty, PIT uses its default.
+     * @return true if PIT has been run successfully, false if the automatic builder must be used instead
+     */
+    public static boolean runPit(String reportDirectory, String dependencies, String targetClasses, CtType<?>... testClasses) {
+        final InputConfiguration configuration = InputConfiguration.get();
+        final List<String> jarsOfPit = getJarsOfPit();
+        if (jarsOfPit == null) {
+            return false;
+        }
+        final File absoluteReportDirectory = new File(configuration.getAbsolutePathToProjectRoot() + reportDirectory);
+        try {
+            FileUtils.deleteDirectory(absoluteReportDirectory);
+            final List<String> command = buildCommand(jarsOfPit, dependencies, absoluteReportDirectory,
+                    targetClasses.isEmpty() ? AutomaticBuilderHelper.getFilter() : targetClasses,
+                    testClasses
+            );
+            final ProcessBuilder processBuilder = new ProcessBuilder(command)
+                    .directory(new File(configuration.getAbsolutePathToProjectRoot()))
+                    .redirectErrorStream(true);
+            if (configuration.isVerbose()) {
+                processBuilder.inheritIO();
+            } else {
+                final File log = new File(configuration.getAbsolutePathToProjectRoot() + PATH_TO_PIT_LOG);
+                FileUtils.forceMkdir(log.getParentFile());
+                processBuilder.redirectOutput(ProcessBuilder.Redirect.appendTo(log));
+            }
+            LOGGER.info("Run PIT in a new JVM on {}", targetClasses.isEmpty() ? configuration.getFilter() : targetClasses);
+            final int exitCode = processBuilder.start().waitFor();
+            if (exitCode != 0) {
+                LOGGER.warn("PIT exited with code {}, see {} for more information.", exitCode, PATH_TO_PIT_LOG);
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (Exception e) {
+            LOGGER.warn("Could not run PIT in a new JVM: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    static List<String> buildCommand(List<String> jarsOfPit,
+                                     String dependencies,
+                                     File reportDirectory,
+                                     String targetClasses,
+                                     CtType<?>... testClasses) {
+        final InputConfiguration configuration = InputConfiguration.get();
+        final List<String> classpath = new ArrayList<>(jarsOfPit);
+        classpath.add(configuration.getClasspathClassesProject());
+        classpath.add(dependencies);
+        classpath.add(DSpotUtils.getAbsolutePathToDSpotDependencies());
+        if (!configuration.getAdditionalClasspathElements().isEmpty()) {
+            classpath.add(configuration.getProcessedAddtionalClasspathElements());
+        }
+
+        final List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(classpath.stream()
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.joining(AmplificationHelper.PATH_SEPARATOR))
+        );
+        command.add(MAIN_CLASS_PIT);
+        command.add("--reportDir=" + reportDirectory.getAbsolutePath());
+        command.add("--targetClasses=" + targetClasses);
+        if (testClasses != null && testClasses.length > 0) {
+            command.add("--targetTests=" + Arrays.stream(testClasses)
+                    .map(DSpotUtils::ctTypeToFullQualifiedName)
+                    .collect(Collectors.joining(","))
+            );
+        }
+        command.add("--sourceDirs=" + configuration.getAbsolutePathToSourceCode() + "," + configuration.getAbsolutePathToTestSourceCode());
+        command.add("--mutableCodePaths=" + configuration.getAbsolutePathToClasses());
+        command.add("--outputFormats=" + OUTPUT_FORMATS);
+        command.add("--timestampedReports=false");
+        command.add("--timeoutConst=" + configuration.getTimeOutInMs());
+        if (configuration.isDescartesMode()) {
+            command.add("--mutationEngine=descartes");
+            if (!configuration.getDescartesMutators().isEmpty()) {
+                command.add("--mutators=" + configuration.getDescartesMutators());
+            }
+        } else {
+            command.add("--mutators=" + GREGOR_MUTATORS);
+        }
+        if (!configuration.getJVMArgs().isEmpty()) {
+            command.add("--jvmArgs=" + configuration.getJVMArgs());
+        }
+        if (!configuration.getExcludedClasses().isEmpty()) {
+            command.add("--excludedTestClasses=" + configuration.getExcludedClasses());
+        }
+        if (configuration.isVerbose()) {
+            command.add("--verbose");
+        }
+        return command;
+    }
+
+    /*
+        Returns the jars needed to run PIT, or null if one of them is missing from the local Maven repository
+     */
+    private static List<String> getJarsOfPit() {
+        final InputConfiguration configuration = InputConfiguration.get();
+        final File localRepository = getLocalRepository();
+        final List<String> jars = new ArrayList<>();
+        final String pitVersion = configuration.getPitVersion();
+        if (!addJar(localRepository, jars, "org/pitest", "pitest", pitVersion, true) ||
+                !addJar(localRepository, jars, "org/pitest", "pitest-command-line", pitVersion, true)) {
+            return null;
+        }
+        // pitest-entry only exists since PIT 1.2.1
+        addJar(localRepository, jars, "org/pitest", "pitest-entry", pitVersion, false);
+        if (configuration.isDescartesMode() &&
+                !addJar(localRepository, jars, "eu/stamp-project", "descartes", configuration.getDescartesVersion(), true)) {
+            return null;
+        }
+        if (configuration.isJUnit5() &&
+                !addJar(localRepository, jars, "org/pitest", "pitest-junit5-plugin", DSpotPOMCreator.JUNIT5_PIT_PLUGIN_VERSION, true)) {
+            return null;
+        }
+        return jars;
+    }
+
+    private static boolean addJar(File localRepository, List<String> jars, String groupPath, String artifactId, String version, boolean required) {
+        final File jar = new File(localRepository,
+                groupPath + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".jar"
+        );
+        if (jar.exists()) {
+            jars.add(jar.getAbsolutePath());
+            return true;
+        }
+        if (required) {
+            LOGGER.warn("{} could not be found in the local repository {}, DSpot will use the automatic builder to run PIT.",
+                    jar.getPath(), localRepository.getPath());
+            LOGGER.warn("You can download it with: mvn dependency:get -Dartifact={}:{}:{}",
+                    groupPath.replace('/', '.'), artifactId, version);
+        }
+        return false;
+    }
+
+    private static File getLocalRepository() {
+        final InputConfiguration configuration = InputConfiguration.get();
+        final List<File> settings = new ArrayList<>();
+        settings.add(new File(System.getProperty("user.home"), ".m2/settings.xml"));
+        String mavenHome = configuration.getMavenHome();
+        if (mavenHome == null || mavenHome.isEmpty()) {
+            mavenHome = System.getenv("MAVEN_HOME") != null ? System.getenv("MAVEN_HOME") : System.getenv("M2_HOME");
+        }
+        if (mavenHome != null && !mavenHome.isEmpty()) {
+            settings.add(new File(mavenHome, "conf/settings.xml"));
+        }
+        return getLocalRepository(System.getProperty(PROPERTY_LOCAL_REPOSITORY),
+                new File(configuration.getAbsolutePathToProjectRoot(), ".mvn/maven.config"),
+                settings
+        );
+    }
+
+    /**
+     * Computes the local repository as Maven does: the given property, then the property given in the configuration
+     * of Maven of the project, then the local repository of the first settings that defines one, and finally ~/.m2/repository.
+     *
+     * @param localRepositoryProperty the value of the property maven.repo.local, if any
+     * @param mavenConfig the file .mvn/maven.config of the project
+     * @param settings the settings of Maven, from the most to the less specific, i.e. the settings of the user then the global settings
+     * @return the local Maven repository
+     */
+    static File getLocalRepository(String localRepositoryProperty, File mavenConfig, List<File> settings) {
+        if (localRepositoryProperty != null && !localRepositoryProperty.isEmpty()) {
+            return new File(localRepositoryProperty);
+        }
+        final String localRepositoryOfMavenConfig = readLocalRepositoryFromMavenConfig(mavenConfig);
+        if (localRepositoryOfMavenConfig != null) {
+            return new File(localRepositoryOfMavenConfig);
+        }
+        for (File setting : settings) {
+            final String localRepositoryOfSettings = readLocalRepositoryFromSettings(setting);
+            if (localRepositoryOfSettings != null) {
+                return new File(localRepositoryOfSettings);
+            }
+        }
+        return new File(System.getProperty("user.home"), ".m2/repository");
+    }
+
+    private static String readLocalRepositoryFromMavenConfig(File mavenConfig) {
+        if (!mavenConfig.isFile()) {
+            return null;
+        }
+        try {
+            final String prefix = "-D" + PROPERTY_LOCAL_REPOSITORY + "=";
+            return Arrays.stream(FileUtils.readFileToString(mavenConfig, StandardCharsets.UTF_8).split("\\s+"))
+                    .filter(argument -> argument.startsWith(prefix))
+                    .map(argument -> argument.substring(prefix.length()))
+                    .filter(localRepository -> !localRepository.isEmpty())
+                    .map(ForkedPitRunner::interpolate)
+                    .reduce((first, second) -> second)
+                    .orElse(null);
+        } catch (Exception e) {
+            LOGGER.warn("Could not read the local repository from {}: {}", mavenConfig.getPath(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readLocalRepositoryFromSettings(File settings) {
+        if (!settings.isFile()) {
+            return null;
+        }
+        try {
+            final NodeList localRepositories = DocumentBuilderFactory.newInstance()
+                    .newDocumentBuilder()
+                    .parse(settings)
+                    .getDocumentElement()
+                    .getElementsByTagName("localRepository");
+            if (localRepositories.getLength() == 0) {
+                return null;
+            }
+            final String localRepository = localRepositories.item(0).getTextContent().trim();
+            return localRepository.isEmpty() ? null : interpolate(localRepository);
+        } catch (Exception e) {
+            LOGGER.warn("Could not read the local repository from {}: {}", settings.getPath(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String interpolate(String value) {
+        final Matcher matcher = ENV_VARIABLE.matcher(value.replace("${user.home}", System.getProperty("user.home")));
+        final StringBuffer interpolated = new StringBuffer();
+        while (matcher.find()) {
+            final String variable = System.getenv(matcher.group(1));
+            matcher.appendReplacement(interpolated, Matcher.quoteReplacement(variable == null ? matcher.group() : variable));
+        }
+        matcher.appendTail(interpolated);
+        return interpolated.toString();
+    }
+}
@@ -1,6 +1,9 @@
 package eu.stamp_project.automaticbuilder.gradle;
 
 import eu.stamp_project.automaticbuilder.AutomaticBuilder;
+import eu.stamp_project.automaticbuilder.BuildCache;
+import eu.stamp_project.automaticbuilder.ForkedPitRunner;
+import eu.stamp_project.utils.DSpotUtils;
 import eu.stamp_project.utils.program.InputConfiguration;
 import org.gradle.tooling.BuildLauncher;
 import org.gradle.tooling.GradleConnector;
@@ -12,11 +15,19 @@ import spoon.reflect.declaration.CtType;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static eu.stamp_project.automaticbuilder.gradle.GradlePitTaskAndOptions.ARGUMENTS_SKIP_COMPILE_TEST;
 import static eu.stamp_project.automaticbuilder.gradle.GradlePitTaskAndOptions.CMD_PIT_MUTATION_COVERAGE;
+import static eu.stamp_project.automaticbuilder.gradle.GradlePitTaskAndOptions.PROPERTY_TARGET_CLASSES;
+import static eu.stamp_project.automaticbuilder.gradle.GradlePitTaskAndOptions.PROPERTY_TARGET_TESTS;
 
 /**
  * Created by Daniele Gagliardi
@@ -31,6 +42,14 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
 
     private GradleInjector gradleInjector;
 
+    private String classpath = null;
+
+    private BuildCache buildCache = null;
+
+    private final Map<String, ProjectConnection> connections = new HashMap<>();
+
+    private String rootOfProjectWithPitTask = null;
+
     public GradleAutomaticBuilder() {
         this.gradleInjector = new GradleInjector(
                 InputConfiguration.get().getAbsolutePathToProjectRoot()
@@ -40,8 +59,17 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
 
     @Override
     public String compileAndBuildClasspath() {
+        final BuildCache buildCache = this.getBuildCache();
+        final String cachedClasspath = buildCache.getClasspath();
+        if (cachedClasspath != null && buildCache.isCompilationUpToDate()) {
+            LOGGER.info("The project did not change since its last build, reusing its binaries and its classpath.");
+            this.classpath = cachedClasspath;
+            return this.classpath;
+        }
         this.compile();
-        return this.buildClasspath();
+        final String classpath = this.buildClasspath();
+        buildCache.compilationDone();
+        return classpath;
     }
 
     @Override
@@ -51,10 +79,18 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
 
     @Override
     public String buildClasspath() {
+        if (this.classpath != null) {
+            return this.classpath;
+        }
+        this.classpath = this.getBuildCache().getClasspath();
+        if (this.classpath != null) {
+            return this.classpath;
+        }
         try {
             final File classpathFile = new File(InputConfiguration.get().getAbsolutePathToProjectRoot() + File.separator + "build/classpath.txt");
             if (!classpathFile.exists()) {
                 LOGGER.info("Classpath file for Gradle project doesn't exist, starting to build it...");
+                this.restoreBuildFileWithoutPitTask();
                 LOGGER.info("Injecting  Gradle task to print project classpath on stdout...");
                 this.gradleInjector.injectPrintClasspathTask(InputConfiguration.get().getAbsolutePathToProjectRoot());
                 LOGGER.info("Retrieving project classpath...");
@@ -66,18 +102,31 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
                 final String collect = buffer
                         .lines()
                         .collect(Collectors.joining());
-                return Arrays.stream(collect.split(":"))
+                this.classpath = Arrays.stream(collect.split(":"))
                         .filter(path -> new File(path).exists() && new File(path).isAbsolute())
                         .collect(Collectors.joining(":"));
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        this.getBuildCache().putClasspath(this.classpath);
+        return this.classpath;
+    }
+
+    private BuildCache getBuildCache() {
+        if (this.buildCache == null) {
+            this.buildCache = new BuildCache(
+                    Arrays.asList(GradleInjector.GRADLE_BUILD_FILE, "settings.gradle", "gradle.properties"),
+                    Collections.singletonList(new File(System.getProperty("user.home"), ".gradle/gradle.properties"))
+            );
+        }
+        return this.buildCache;
     }
 
     @Override
     public void reset() {
-        //TODO Maybe we should change one time the the gradle and reset it at the end of the process
+        // the connections to gradle stay open for the whole session, they are closed at shutdown
+        this.restoreBuildFileWithoutPitTask();
     }
 
     @Override
@@ -87,27 +136,59 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
 
     @Override
     public void runPit(CtType<?>... testClasses) {
+        runPit("", testClasses);
+    }
+
+    @Override
+    public void runPit(String targetClasses, CtType<?>... testClasses) {
+        if (InputConfiguration.get().shouldRunPitInForkedJVM() &&
+                ForkedPitRunner.runPit(this.getOutputDirectoryPit(), this.buildClasspath(), targetClasses, testClasses)) {
+            return;
+        }
+        final String pathToRootOfProject = InputConfiguration.get().getAbsolutePathToProjectRoot();
         try {
-            LOGGER.info("Injecting  Gradle task to run Pit...");
-            this.gradleInjector.injectPitTask(InputConfiguration.get().getAbsolutePathToProjectRoot(), testClasses);
+            // the pit task is injected once, then each run gives its classes and tests as project properties
+            if (!pathToRootOfProject.equals(this.rootOfProjectWithPitTask)) {
+                this.restoreBuildFileWithoutPitTask();
+                LOGGER.info("Injecting  Gradle task to run Pit...");
+                this.gradleInjector.injectParameterizedPitTask(pathToRootOfProject);
+                this.rootOfProjectWithPitTask = pathToRootOfProject;
+            }
+            final List<String> arguments = new ArrayList<>(Arrays.asList(ARGUMENTS_SKIP_COMPILE_TEST));
+            if (!targetClasses.isEmpty()) {
+                arguments.add("-P" + PROPERTY_TARGET_CLASSES + "=" + targetClasses);
+            }
+            if (testClasses != null && testClasses.length > 0) {
+                arguments.add("-P" + PROPERTY_TARGET_TESTS + "=" + Arrays.stream(testClasses)
+                        .map(DSpotUtils::ctTypeToFullQualifiedName)
+                        .collect(Collectors.joining(","))
+                );
+            }
             LOGGER.info("Running Pit...");
-            runTasks(true, CMD_PIT_MUTATION_COVERAGE);
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            this.gradleInjector.resetOriginalGradleBuildFile(InputConfiguration.get().getAbsolutePathToProjectRoot());
+            runTasks(arguments, CMD_PIT_MUTATION_COVERAGE);
+        } catch (IOException e) {
+            // e.g. the backup of the build file could not be made: pit has not been run, the selection must not go on without it
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void restoreBuildFileWithoutPitTask() {
+        if (this.rootOfProjectWithPitTask != null) {
+            this.gradleInjector.resetOriginalGradleBuildFile(this.rootOfProjectWithPitTask);
+            this.rootOfProjectWithPitTask = null;
         }
     }
 
     protected void runTasks(boolean skipTest, String... tasks) {
-        ProjectConnection connection = GradleConnector.newConnector().forProjectDirectory(new File(InputConfiguration.get().getAbsolutePathToProjectRoot())).connect();
-        LOGGER.info("Run gradle tasks: {}", String.join(" ", tasks));
+        runTasks(skipTest ? Arrays.asList(ARGUMENTS_SKIP_COMPILE_TEST) : Collections.emptyList(), tasks);
+    }
+
+    protected void runTasks(List<String> arguments, String... tasks) {
+        LOGGER.info("Run gradle tasks: {} {}", String.join(" ", tasks), String.join(" ", arguments));
         try {
-            final BuildLauncher buildLauncher = connection.newBuild()
-                    .forTasks(tasks);
-            if (skipTest) {
-                buildLauncher.withArguments(ARGUMENTS_SKIP_COMPILE_TEST);
-            }
+            final BuildLauncher buildLauncher = this.getConnection().newBuild()
+                    .forTasks(tasks)
+                    .withArguments(arguments);
             if (InputConfiguration.get().isVerbose()) {
                 buildLauncher.setStandardError(System.err);
                 buildLauncher.setStandardOutput(System.out);
@@ -115,11 +196,30 @@ public class GradleAutomaticBuilder implements AutomaticBuilder {
             buildLauncher.run();
         } catch (Exception e) {
             throw new RuntimeException(e);
-        } finally {
-            connection.close();
         }
     }
 
+    /*
+        The connection to the daemon of gradle is opened once for each project, e.g. the second version of the program
+        used by the ChangeDetectorSelector, and kept open until the end of the session.
+     */
+    private synchronized ProjectConnection getConnection() {
+        if (this.connections.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        }
+        return this.connections.computeIfAbsent(InputConfiguration.get().getAbsolutePathToProjectRoot(),
+                pathToRootOfProject -> GradleConnector.newConnector()
+                        .forProjectDirectory(new File(pathToRootOfProject))
+                        .connect()
+        );
+    }
+
+    private synchronized void close() {
+        this.restoreBuildFileWithoutPitTask();
+        this.connections.values().forEach(ProjectConnection::close);
+        this.connections.clear();
+    }
+
     @Override
     public String getOutputDirectoryPit() {
         return GradlePitTaskAndOptions.OUTPUT_DIRECTORY_PIT;
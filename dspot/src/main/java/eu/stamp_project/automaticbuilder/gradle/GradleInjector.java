@@ -15,6 +15,8 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static eu.stamp_project.automaticbuilder.gradle.GradlePitTaskAndOptions.*;
@@ -38,6 +40,9 @@ public class GradleInjector {
 
     private File originalGradleBuildFile;
 
+    // the backups made by this injector, the only ones that can be restored over the build files
+    private final Set<Path> backups = new HashSet<>();
+
     public GradleInjector(String absolutePathToOriginalGradleBuildFile) {
         this.originalGradleBuildFile = new File(absolutePathToOriginalGradleBuildFile);
         if (!this.originalGradleBuildFile.exists()) {
@@ -62,10 +67,35 @@ public class GradleInjector {
     }
 
     void injectPitTask(String pathToRootOfProject, CtType<?>... testClasses) throws IOException {
+        injectPitTask(pathToRootOfProject, "", testClasses);
+    }
+
+    void injectPitTask(String pathToRootOfProject, String targetClasses, CtType<?>... testClasses) throws IOException {
         String originalGradleBuildFilename = pathToRootOfProject + File.separator + GRADLE_BUILD_FILE;
         File gradleBuildFile = new File(originalGradleBuildFilename);
         makeBackup(gradleBuildFile);
-        String pitTask = getPitTask(testClasses);
+        String pitTask = getPitTask(targetClasses, testClasses);
+        Files.write(Paths.get(originalGradleBuildFilename), pitTask.getBytes(), StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Injects a pit task whose classes to be mutated and tests to be run are given as project properties, i.e.
+     * -P{@value GradlePitTaskAndOptions#PROPERTY_TARGET_CLASSES}=... and -P{@value GradlePitTaskAndOptions#PROPERTY_TARGET_TESTS}=...
+     * The task is injected once, and the build file stays the same from one run of pit to the other,
+     * so the daemon of Gradle can reuse its configuration.
+     */
+    void injectParameterizedPitTask(String pathToRootOfProject) throws IOException {
+        String originalGradleBuildFilename = pathToRootOfProject + File.separator + GRADLE_BUILD_FILE;
+        File gradleBuildFile = new File(originalGradleBuildFilename);
+        makeBackup(gradleBuildFile);
+        String pitTask = getPitTask(
+                "project.hasProperty('" + PROPERTY_TARGET_CLASSES + "') ? " +
+                        "(project.property('" + PROPERTY_TARGET_CLASSES + "').split(',') as List) : " +
+                        "['" + AutomaticBuilderHelper.getFilter() + "']",
+                "    if (project.hasProperty('" + PROPERTY_TARGET_TESTS + "')) {" + AmplificationHelper.LINE_SEPARATOR +
+                        "        " + OPT_TARGET_TESTS + "project.property('" + PROPERTY_TARGET_TESTS + "').split(',') as List" + AmplificationHelper.LINE_SEPARATOR +
+                        "    }" + AmplificationHelper.LINE_SEPARATOR
+        );
         Files.write(Paths.get(originalGradleBuildFilename), pitTask.getBytes(), StandardOpenOption.WRITE);
     }
 
@@ -86,7 +116,18 @@ public class GradleInjector {
                 StandardCopyOption.REPLACE_EXISTING,
                 StandardCopyOption.COPY_ATTRIBUTES
         };
+        if (to.toFile().exists()) {
+            if (!this.backups.contains(to.toAbsolutePath().normalize())) {
+                // the backup has been left by a previous run: the build file might have been modified since, by the user
+                LOGGER.warn("{} already exists, and it has not been made by this run of DSpot.", backedUpGradleBuildFilename);
+                LOGGER.warn("Please check {}, restore it from the backup if needed, and remove the backup.", originalGradleBuildFilename);
+                throw new IOException(backedUpGradleBuildFilename + " already exists, DSpot will not modify " + originalGradleBuildFilename);
+            }
+            // a task is still injected, e.g. the parameterized pit task: we start again from the original build file
+            Files.copy(to, from, options);
+        }
         Files.copy(from, to, options);
+        this.backups.add(to.toAbsolutePath().normalize());
         LOGGER.info("Original Gradle build file backed-up as " + backedUpGradleBuildFilename + ".");
     }
 
@@ -95,6 +136,12 @@ public class GradleInjector {
         String modifiedGradleBuildFilename = pathToRootOfProject + File.separator + GRADLE_BUILD_FILE;
         String originalGradleBuildFilename = modifiedGradleBuildFilename + GRADLE_BUILD_FILE_BACK_SUFFIX;
         File originalGradleBuildFile = new File(originalGradleBuildFilename);
+        if (!this.backups.contains(originalGradleBuildFile.toPath().toAbsolutePath().normalize())) {
+            if (originalGradleBuildFile.exists()) {
+                LOGGER.warn("{} has not been made by this run of DSpot, it is not restored.", originalGradleBuildFilename);
+            }
+            return;
+        }
         if (originalGradleBuildFile.exists()) {
             File modifiedGradleBuildFile = new File(modifiedGradleBuildFilename);
             LOGGER.info("Deleting modified (with injected task) Gradle build file...");
@@ -102,6 +149,7 @@ public class GradleInjector {
             LOGGER.info("Renaming original Gradle build file from " + originalGradleBuildFilename + " to " + modifiedGradleBuildFilename + "...");
             originalGradleBuildFile.renameTo(new File(pathToRootOfProject + File.separator + GRADLE_BUILD_FILE));
         }
+        this.backups.remove(originalGradleBuildFile.toPath().toAbsolutePath().normalize());
     }
 
     /*
@@ -129,6 +177,23 @@ public class GradleInjector {
 
 
     public String getPitTask(CtType<?>... testClasses) {
+        return getPitTask("", testClasses);
+    }
+
+    /**
+     * @param targetClasses the classes to be mutated, separated by commas. If it is empty, the filter of DSpot is used.
+     */
+    public String getPitTask(String targetClasses, CtType<?>... testClasses) {
+        if (InputConfiguration.get().getFilter() == null || InputConfiguration.get().getFilter().isEmpty()) {
+            AutomaticBuilderHelper.getFilter();
+        }
+        return getPitTask(
+                "['" + (targetClasses.isEmpty() ? InputConfiguration.get().getFilter() : targetClasses) + "']",
+                testClasses != null ? "    " + OPT_TARGET_TESTS + "['" + Arrays.stream(testClasses).map(DSpotUtils::ctTypeToFullQualifiedName).collect(Collectors.joining(",")) + "']" + AmplificationHelper.LINE_SEPARATOR : ""
+        );
+    }
+
+    private String getPitTask(String targetClassesValue, String targetTestsOption) {
         String pitTaskConfiguration = "";
         final String contentOfOriginalGradle = readContentOfOrigianlGradleFile();
         if (!contentOfOriginalGradle.contains("buildscript")) { // this means that there is no buildscript section in the original gradle build
@@ -156,7 +221,7 @@ public class GradleInjector {
         return pitTaskConfiguration +
                 AmplificationHelper.LINE_SEPARATOR + AmplificationHelper.LINE_SEPARATOR +
                 getApplyPluginPit() +
-                getPitTaskOptions(testClasses);
+                getPitTaskOptions(targetClassesValue, targetTestsOption);
     }
 
     public static String getContentOfGivenSectionFromGivenString(String sectionName, String content) {
@@ -238,12 +303,9 @@ public class GradleInjector {
         return "\'" + option + "\'";
     }
 
-    private String getPitTaskOptions(CtType<?>... testClasses) {
-        if (InputConfiguration.get().getFilter() == null || InputConfiguration.get().getFilter().isEmpty()) {
-            AutomaticBuilderHelper.getFilter();
-        }
+    private String getPitTaskOptions(String targetClassesValue, String targetTestsOption) {
         return AmplificationHelper.LINE_SEPARATOR + "pitest {" + AmplificationHelper.LINE_SEPARATOR +
-                "    " + OPT_TARGET_CLASSES + "['" + InputConfiguration.get().getFilter() + "']" + AmplificationHelper.LINE_SEPARATOR +
+                "    " + OPT_TARGET_CLASSES + targetClassesValue + AmplificationHelper.LINE_SEPARATOR +
                 "    " + OPT_WITH_HISTORY + "true" + AmplificationHelper.LINE_SEPARATOR +
                 "    " + OPT_VALUE_REPORT_DIR + AmplificationHelper.LINE_SEPARATOR +
                 "    " + OPT_VALUE_FORMAT + AmplificationHelper.LINE_SEPARATOR +
@@ -253,7 +315,7 @@ public class GradleInjector {
                         "    " + PROPERTY_VALUE_JVM_ARGS + " = [" +
                                 Arrays.stream(InputConfiguration.get().getJVMArgs().split(",")).map(this::wrapWithSingleQuote).collect(Collectors.joining(",")) + "]"
                                 + AmplificationHelper.LINE_SEPARATOR : "") +
-                (testClasses != null ? "    " + OPT_TARGET_TESTS + "['" + Arrays.stream(testClasses).map(DSpotUtils::ctTypeToFullQualifiedName).collect(Collectors.joining(",")) + "']" + AmplificationHelper.LINE_SEPARATOR : "") +
+                targetTestsOption +
                 (!InputConfiguration.get().getAdditionalClasspathElements().isEmpty() ?
                         "    " + OPT_ADDITIONAL_CP_ELEMENTS + "['" + InputConfiguration.get().getAdditionalClasspathElements() + "']" + AmplificationHelper.LINE_SEPARATOR : "") +
                 "    " + (InputConfiguration.get().isDescartesMode() ? OPT_MUTATION_ENGINE : OPT_MUTATORS + VALUE_MUTATORS_ALL) + AmplificationHelper.LINE_SEPARATOR +
@@ -44,4 +44,8 @@ public class GradlePitTaskAndOptions {
     public static final String OUTPUT_DIRECTORY_PIT = "build/pit-reports/";
 
     public static final String OPT_PIT_VERSION = "pitestVersion = ";
+
+    public static final String PROPERTY_TARGET_CLASSES = "dspotTargetClasses";
+
+    public static final String PROPERTY_TARGET_TESTS = "dspotTargetTests";
 }
@@ -369,12 +369,30 @@ public class DSpotPOMCreator {
 
         id.setTextContent(PROFILE_ID);
         profile.appendChild(id);
+        final Element properties = createProperties(document);
+        profile.appendChild(properties);
         final Element build = createBuild(document);
         profile.appendChild(build);
 
         return profile;
     }
 
+    private static final String PROPERTIES = "properties";
+
+    /**
+     * The property that holds the classes to be mutated by PIT. Its default value is the filter of DSpot,
+     * and it can be overridden on the command line, e.g. to mutate only the classes covered by the amplified tests.
+     */
+    public static final String PROPERTY_TARGET_CLASSES = "dspot.pit.targetClasses";
+
+    private Element createProperties(Document document) {
+        final Element properties = document.createElement(PROPERTIES);
+        final Element targetClasses = document.createElement(PROPERTY_TARGET_CLASSES);
+        targetClasses.setTextContent(AutomaticBuilderHelper.getFilter());
+        properties.appendChild(targetClasses);
+        return properties;
+    }
+
     private static final String BUILD = "build";
 
     private static final String PLUGINS = "plugins";
@@ -465,7 +483,7 @@ public class DSpotPOMCreator {
 
     private static final String JUNIT5_PIT_PLUGIN = "pitest-junit5-plugin";
 
-    private static final String JUNIT5_PIT_PLUGIN_VERSION = "0.7";
+    public static final String JUNIT5_PIT_PLUGIN_VERSION = "0.7";
 
     private Element createDependencies(Document document) {
         final Element dependencies = document.createElement(DEPENDENCIES);
@@ -549,7 +567,7 @@ public class DSpotPOMCreator {
         configuration.appendChild(outputFormats);
 
         final Element targetClasses = document.createElement(TARGET_CLASSES);
-        targetClasses.setTextContent(AutomaticBuilderHelper.getFilter());
+        targetClasses.setTextContent("${" + PROPERTY_TARGET_CLASSES + "}");
         configuration.appendChild(targetClasses);
 
         final Element reportsDirectory = document.createElement(REPORT_DIRECTORY);
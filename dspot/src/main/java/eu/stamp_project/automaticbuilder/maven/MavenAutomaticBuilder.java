@@ -1,6 +1,8 @@
 package eu.stamp_project.automaticbuilder.maven;
 
 import eu.stamp_project.automaticbuilder.AutomaticBuilder;
+import eu.stamp_project.automaticbuilder.BuildCache;
+import eu.stamp_project.automaticbuilder.ForkedPitRunner;
 import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.utils.DSpotUtils;
 import org.apache.commons.io.FileUtils;
@@ -17,8 +19,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Function;
@@ -36,12 +40,16 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
 
     public static final String OPT_TARGET_TESTS = "-DtargetTests=";
 
+    public static final String OPT_TARGET_CLASSES = "-D" + DSpotPOMCreator.PROPERTY_TARGET_CLASSES + "=";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MavenAutomaticBuilder.class);
 
     private String classpath = null;
 
     private boolean hasGeneratePom = false;
 
+    private BuildCache buildCache = null;
+
     public MavenAutomaticBuilder() {
         delete(false);
     }
@@ -49,6 +57,13 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
     @Override
     public String compileAndBuildClasspath() {
         if (this.classpath == null) {
+            final BuildCache buildCache = this.getBuildCache();
+            final String cachedClasspath = buildCache.getClasspath();
+            if (cachedClasspath != null && buildCache.isCompilationUpToDate()) {
+                LOGGER.info("The project did not change since its last build, reusing its binaries and its classpath.");
+                this.classpath = cachedClasspath;
+                return this.classpath;
+            }
             this.computeClasspath(
                     "clean",
                     "test",
@@ -62,6 +77,8 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
+            buildCache.putClasspath(this.classpath);
+            buildCache.compilationDone();
         }
         return this.classpath;
     }
@@ -95,6 +112,10 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
     @Override
     public String buildClasspath() {
         if (this.classpath == null) {
+            this.classpath = this.getBuildCache().getClasspath();
+            if (this.classpath != null) {
+                return this.classpath;
+            }
             try {
                 final File classpathFile = new File(InputConfiguration.get().getAbsolutePathToProjectRoot() + "/target/dspot/classpath");
                 if (!classpathFile.exists()) {
@@ -109,10 +130,29 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
+            this.getBuildCache().putClasspath(this.classpath);
         }
         return this.classpath;
     }
 
+    private BuildCache getBuildCache() {
+        if (this.buildCache == null) {
+            final List<File> settings = new ArrayList<>();
+            settings.add(new File(System.getProperty("user.home"), ".m2/settings.xml"));
+            settings.add(new File(InputConfiguration.get().getAbsolutePathToProjectRoot(), ".mvn/maven.config"));
+            final String mavenHome = InputConfiguration.get().getMavenHome();
+            if (mavenHome != null && !mavenHome.isEmpty()) {
+                settings.add(new File(mavenHome, "conf/settings.xml"));
+            }
+            this.buildCache = new BuildCache(
+                    Collections.singletonList(DSpotPOMCreator.POM_FILE),
+                    settings,
+                    String.valueOf(InputConfiguration.get().shouldExecuteTestsInParallel())
+            );
+        }
+        return this.buildCache;
+    }
+
     private boolean shouldDeleteGeneratedPom() {
         return hasGeneratePom ||
                 new File(InputConfiguration.get().getAbsolutePathToProjectRoot() + "/" + DSpotPOMCreator.getPOMName()).exists();
@@ -151,6 +191,15 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
 
     @Override
     public void runPit(CtType<?>... testClasses) {
+        this.runPit("", testClasses);
+    }
+
+    @Override
+    public void runPit(String targetClasses, CtType<?>... testClasses) {
+        if (InputConfiguration.get().shouldRunPitInForkedJVM() &&
+                ForkedPitRunner.runPit(this.getOutputDirectoryPit(), this.buildClasspath(), targetClasses, testClasses)) {
+            return;
+        }
         try {
             FileUtils.deleteDirectory(new File(InputConfiguration.get().getAbsolutePathToProjectRoot() + "/target/pit-reports"));
         } catch (Exception ignored) {
@@ -163,7 +212,8 @@ public class MavenAutomaticBuilder implements AutomaticBuilder {
                             OPT_TARGET_TESTS + Arrays.stream(testClasses)
                                     .map(DSpotUtils::ctTypeToFullQualifiedName)
                                     .collect(Collectors.joining(",")) :
-                            "" //
+                            "", //
+                    targetClasses.isEmpty() ? "" : OPT_TARGET_CLASSES + targetClasses
             };
             if (this.runGoals(true, goals) != 0) {
                 throw new RuntimeException("Maven build failed! Enable verbose mode for more information (--verbose)");
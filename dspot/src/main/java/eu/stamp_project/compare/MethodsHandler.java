@@ -1,14 +1,27 @@
 package eu.stamp_project.compare;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
 
 
 public class MethodsHandler {
 
-    private Map<Class<?>, List<Method>> cache;
+    // the methods to be observed, by class. It is shared by all the instances, i.e. it survives ObjectLog.reset()
+    private static final Map<Class<?>, List<Method>> cache = new ConcurrentHashMap<>();
+
+    // the accessors of the methods to be observed, by class, in the same order as the methods
+    private static final Map<Class<?>, List<MethodHandle>> accessors = new ConcurrentHashMap<>();
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodHandle REFLECTIVE_INVOCATION;
 
     @Deprecated
     private static final List<String> forbiddenMethods;
@@ -50,10 +63,13 @@ public class MethodsHandler {
 
         forbiddenPackages = new ArrayList<>();
         forbiddenPackages.add("java.time");
-    }
 
-    public MethodsHandler() {
-        this.cache = new HashMap<>();
+        try {
+            REFLECTIVE_INVOCATION = MethodHandles.lookup().findVirtual(Method.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private boolean matchOnForbiddenPackage(String className) {
@@ -67,20 +83,47 @@ public class MethodsHandler {
         ) {
             return Collections.emptyList();
         }
-        if (!cache.containsKey(clazz)) {
-            findMethods(clazz);
+        return cache.computeIfAbsent(clazz, this::findMethods);
+    }
+
+    /**
+     * @return the accessors of the methods returned by {@link #getAllMethods(Class)}, in the same order.
+     * An accessor is a method handle of type (Object)Object, that invokes its method on the given object.
+     */
+    public List<MethodHandle> getAllAccessors(Class<?> clazz) {
+        final List<Method> methods = this.getAllMethods(clazz);
+        if (methods.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return accessors.computeIfAbsent(clazz, key ->
+                Collections.unmodifiableList(methods.stream()
+                        .map(MethodsHandler::toAccessor)
+                        .collect(Collectors.toList())
+                )
+        );
+    }
+
+    /*
+        If the method cannot be unreflected, e.g. its declaring class is not accessible,
+        the accessor invokes it through the reflection, which fails in the same way as before.
+     */
+    static MethodHandle toAccessor(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return MethodHandles.insertArguments(REFLECTIVE_INVOCATION.bindTo(method), 1, (Object) new Object[0])
+                    .asType(ACCESSOR_TYPE);
         }
-        return cache.get(clazz);
     }
 
-    private void findMethods(Class<?> clazz) {
+    private List<Method> findMethods(Class<?> clazz) {
         List<Method> methodsList = new ArrayList<Method>();
         for (Method m : clazz.getMethods()) {
             if (isValidMethod(m)) {
                 methodsList.add(m);
             }
         }
-        cache.put(clazz, methodsList);
+        return Collections.unmodifiableList(methodsList);
     }
 
     @Deprecated // since we forbid the class Object
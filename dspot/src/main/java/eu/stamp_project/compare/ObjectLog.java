@@ -5,22 +5,32 @@ import eu.stamp_project.testrunner.EntryPoint;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * User: Simon
@@ -29,174 +39,364 @@ import java.util.concurrent.TimeUnit;
  */
 public class ObjectLog {
 
-    private static ObjectLog singleton;
+    /*
+        The observations are made concurrently when the instrumented tests run in parallel:
+        each thread appends its observations to its own ObservationBuffer, without waiting for the other threads.
+        The buffers are published in a lock-free queue when they are created, and are appended to the log of observations by save().
+     */
+    private static volatile ObjectLog singleton = new ObjectLog();
 
-    private Map<String, Observation> observations;
-    private MethodsHandler methodsHandler;
-    private int maxDeep = 3;
+    private final ThreadLocal<ObservationBuffer> buffer = ThreadLocal.withInitial(this::newBuffer);
+    private final Queue<ObservationBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final MethodsHandler methodsHandler;
+    private final int maxDeep = 3;
+
+    /*
+        The trie of the observed expressions: the expressions are not built while the tests run,
+        the observations refer to the numeric id of their path instead, see ObservationPath.
+     */
+    private final Map<String, ObservationPath> roots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPathId = new AtomicInteger();
 
     private ObjectLog() {
-        this.observations = new LinkedHashMap<>();
         this.methodsHandler = new MethodsHandler();
     }
 
     private static ObjectLog getSingleton() {
-        if (singleton == null) {
-            singleton = new ObjectLog();
-        }
         return singleton;
     }
 
+    private ObservationBuffer newBuffer() {
+        final ObservationBuffer newBuffer = new ObservationBuffer(getObservationsFile());
+        this.buffers.add(newBuffer);
+        return newBuffer;
+    }
+
+    /**
+     * Resets the observations, i.e. drops the buffered observations and deletes the log of observations.
+     * The verdicts of {@link #isSerializable(Object)} are dropped too.
+     */
     public static synchronized void reset() {
         singleton = new ObjectLog();
+        SERIALIZABILITY_OF_CLASSES.clear();
+        final File observationsFile = getObservationsFile();
+        if (observationsFile.exists() && !observationsFile.delete()) {
+            throw new RuntimeException("Could not delete " + observationsFile.getAbsolutePath());
+        }
     }
 
-    public static synchronized void log(Object objectToObserve, String objectObservedAsString, String id) {
-        getSingleton()._log(
+    public static void log(Object objectToObserve, String objectObservedAsString, String id) {
+        final ObjectLog objectLog = getSingleton();
+        objectLog._log(
                 objectToObserve,
                 objectToObserve,
                 null,
-                objectObservedAsString,
+                objectLog.getRootPath(objectObservedAsString),
                 id,
-                0,
-                new ArrayList<>()
+                0
         );
     }
 
-    private synchronized void _log(Object startingObject,
+    private void _log(Object startingObject,
                       Object objectToObserve,
                       Class<?> currentObservedClass,
-                      String observedObjectAsString,
+                      ObservationPath path,
                       String id,
-                      int deep,
-                      List<Method> methodsToReachCurrentObject) {
+                      int deep) {
         if (deep <= maxDeep) {
-            final boolean primitive = Utils.isPrimitive(objectToObserve);
-            final boolean primitiveArray = Utils.isPrimitiveArray(objectToObserve);
-            final boolean primitiveCollectionOrMap = Utils.isNonEmptyPrimitiveCollectionOrMap(objectToObserve);
             if (objectToObserve == null) {
-                addObservation(id, observedObjectAsString, null);
-            } else if (isSerializable(objectToObserve) &&
-                    (primitive || primitiveArray || primitiveCollectionOrMap)) {
-                addObservation(id, observedObjectAsString, objectToObserve);
-            } else if (Utils.isCollection(objectToObserve)) { // the object is empty here
-                addObservation(id, observedObjectAsString + ".isEmpty()", ((Collection) objectToObserve).isEmpty());
+                addObservation(id, path, null);
+                return;
+            }
+            if ((Utils.isPrimitive(objectToObserve) ||
+                    Utils.isPrimitiveArray(objectToObserve) ||
+                    Utils.isNonEmptyPrimitiveCollectionOrMap(objectToObserve)) &&
+                    addObservation(id, path, objectToObserve)) {
+                return;
+            }
+            if (Utils.isCollection(objectToObserve)) { // the object is empty or not serializable here
+                addObservation(id, getIsEmptyPath(path), ((Collection) objectToObserve).isEmpty());
             } else if (Utils.isMap(objectToObserve)) {
-                addObservation(id, observedObjectAsString + ".isEmpty()", ((Map) objectToObserve).isEmpty());
+                addObservation(id, getIsEmptyPath(path), ((Map) objectToObserve).isEmpty());
             } else if (!objectToObserve.getClass().getName().toLowerCase().contains("mock")) {
                 observeNotNullObject(
                         startingObject,
+                        objectToObserve,
                         currentObservedClass == null ? objectToObserve.getClass() : currentObservedClass,
-                        observedObjectAsString,
+                        path,
                         id,
-                        deep,
-                        methodsToReachCurrentObject
+                        deep
                 );
             }
         }
     }
 
+    // the verdicts of the classes whose instances have already been serialized, see isSerializable()
+    private static final Map<Class<?>, Boolean> SERIALIZABILITY_OF_CLASSES = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if the given object can be serialized.
+     * Null, the primitives, the boxed primitives, the strings and the arrays of primitives are serializable.
+     * Other objects are serializable if they implement {@link Serializable}, and if an instance of their class has already been serialized.
+     * Otherwise, the object is serialized to check it, only once per class: both verdicts are recorded,
+     * except the failures of the collections and of the maps, that depend on their elements.
+     * Since the fields of the object might not be serializable, the value may still fail to be written in the {@link ObservationLog}.
+     */
     public static boolean isSerializable(Object candidate) {
+        if (candidate == null || Utils.isPrimitive(candidate) || Utils.isPrimitiveArray(candidate)) {
+            return true;
+        }
+        if (!(candidate instanceof Serializable)) {
+            return false;
+        }
+        final Boolean verdict = SERIALIZABILITY_OF_CLASSES.get(candidate.getClass());
+        if (verdict != null) {
+            return verdict;
+        }
+        boolean serializable;
         try {
             new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(candidate);
-            return true;
+            serializable = true;
         } catch (IOException e) {
+            serializable = false;
+        }
+        if (serializable || !(candidate instanceof Collection || candidate instanceof Map)) {
+            SERIALIZABILITY_OF_CLASSES.put(candidate.getClass(), serializable);
+        }
+        return serializable;
+    }
+
+    /*
+        Returns false if the value could not be serialized, true otherwise, even if the observation has been discarded
+     */
+    private boolean addObservation(String id, ObservationPath path, Object actualValue) {
+        if (!isSerializable(actualValue)) {
+            return false;
+        }
+        if (actualValue instanceof String &&
+                // we forbid absolute paths
+                // we allow relative paths
+                // but it can be error-prone
+                // watch out
+                new File((String)actualValue).isAbsolute()) {
+            return true;
+        }
+        try {
+            this.buffer.get().append(id, path, actualValue);
+            return true;
+        } catch (ObjectStreamException e) {
+            // the value could not be serialized, nothing has been appended
             return false;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
-    private synchronized void addObservation(String id, String observedObjectAsString, Object actualValue) {
-        if (isSerializable(actualValue)) {
-            if (actualValue instanceof String &&
-                    // we forbid absolute paths
-                    // we allow relative paths
-                    // but it can be error-prone
-                    // watch out
-                    new File((String)actualValue).isAbsolute()) {
-                return;
-            }
-            if (!observations.containsKey(id)) {
-                observations.put(id, new Observation());
-            }
-            observations.get(id).add(observedObjectAsString, actualValue);
+    private static final long TIMEOUT_IN_MS = 1000L;
+
+    // the result of a method that threw an exception or did not return in time
+    private static final Object FAIL_TO_OBSERVE = new Object();
+
+    // the result of a method that has not returned yet
+    private static final Object PENDING = new Object();
+
+    // the thread that invokes the observed methods, one per thread of the tests, shared by all the observations of this thread
+    private static final ThreadLocal<ExecutorService> watchdog = new ThreadLocal<>();
+
+    private static ExecutorService getWatchdog() {
+        ExecutorService currentWatchdog = watchdog.get();
+        if (currentWatchdog == null) {
+            currentWatchdog = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "dspot-observation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.set(currentWatchdog);
         }
+        return currentWatchdog;
     }
 
-    private synchronized Object chainInvocationOfMethods(List<Method> methodsToInvoke, Object startingObject) throws FailToObserveException {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        FutureTask task = null;
-        Object currentObject = null;
-        try {
-            try {
-                task = new FutureTask<>(() -> methodsToInvoke.get(0).invoke(startingObject));
-                executor.execute(task);
-                currentObject = task.get(1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                throw new FailToObserveException();
-            }
-            for (int i = 1; i < methodsToInvoke.size(); i++) {
-                Method method = methodsToInvoke.get(i);
+    // the threads of the abandoned watchdogs, that may still be stuck in a method that does not return
+    private static final Queue<Thread> abandonedWatchdogThreads = new ConcurrentLinkedQueue<>();
+
+    // the methods that did not return in time: they are not invoked anymore, since they would likely get another thread stuck
+    private static final Set<Method> HANGING_METHODS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    // beyond this number of stuck threads, no more methods are invoked, so the stuck threads do not pile up
+    static final int MAX_NUMBER_OF_STUCK_THREADS = 32;
+
+    /*
+        The thread of the watchdog is stuck in a method that does not return, and it cannot be stopped:
+        it is abandoned, and the next observations will use a new thread.
+     */
+    private static void abandonWatchdog(Thread stuckThread) {
+        final ExecutorService currentWatchdog = watchdog.get();
+        if (currentWatchdog != null) {
+            currentWatchdog.shutdownNow();
+            watchdog.remove();
+        }
+        if (stuckThread != null) {
+            abandonedWatchdogThreads.add(stuckThread);
+        }
+    }
+
+    private static boolean tooManyStuckThreads() {
+        abandonedWatchdogThreads.removeIf(thread -> !thread.isAlive());
+        return abandonedWatchdogThreads.size() >= MAX_NUMBER_OF_STUCK_THREADS;
+    }
+
+    /*
+        Invokes the given accessors on the given object, in a single task of the watchdog.
+        A method that does not return within TIMEOUT_IN_MS is skipped, and the task goes on with the next methods.
+        Such a method is recorded in HANGING_METHODS, and is not invoked by the next observations.
+        Once MAX_NUMBER_OF_STUCK_THREADS threads are stuck, the remaining methods are skipped without being invoked.
+        The result of a method that failed is FAIL_TO_OBSERVE.
+     */
+    private static Object[] invokeMethods(List<Method> methods, List<MethodHandle> accessors, Object objectToObserve) {
+        final int size = accessors.size();
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            results.set(i, HANGING_METHODS.contains(methods.get(i)) ? FAIL_TO_OBSERVE : PENDING);
+        }
+        int next = 0;
+        while (next < size && !tooManyStuckThreads()) {
+            final int start = next;
+            final AtomicBoolean abandoned = new AtomicBoolean(false);
+            final AtomicReference<Thread> worker = new AtomicReference<>();
+            final Future<?> task = getWatchdog().submit(() -> {
+                worker.set(Thread.currentThread());
+                for (int i = start; i < size && !abandoned.get(); i++) {
+                    if (results.get(i) != PENDING) {
+                        continue;
+                    }
+                    Object result;
+                    try {
+                        result = (Object) accessors.get(i).invokeExact(objectToObserve);
+                    } catch (Throwable e) {
+                        result = FAIL_TO_OBSERVE;
+                    }
+                    results.compareAndSet(i, PENDING, result);
+                }
+            });
+            int lastPending = start;
+            while (true) {
                 try {
-                    final Object finalCurrentObject = currentObject;
-                    task = new FutureTask<>(() -> method.invoke(finalCurrentObject));
-                    executor.execute(task);
-                    currentObject = task.get(1, TimeUnit.SECONDS);
-                } catch (Exception e) {
-                    throw new FailToObserveException();
+                    task.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+                    next = size;
+                    break;
+                } catch (TimeoutException e) {
+                    final int pending = getFirstPending(results, lastPending);
+                    if (pending == lastPending) {
+                        // the method did not return in time, it is skipped
+                        abandoned.set(true);
+                        task.cancel(true);
+                        abandonWatchdog(worker.get());
+                        HANGING_METHODS.add(methods.get(pending));
+                        results.compareAndSet(pending, PENDING, FAIL_TO_OBSERVE);
+                        next = pending + 1;
+                        break;
+                    }
+                    lastPending = pending;
+                } catch (InterruptedException e) {
+                    abandoned.set(true);
+                    task.cancel(true);
+                    Thread.currentThread().interrupt();
+                    next = size;
+                    break;
+                } catch (ExecutionException e) {
+                    next = size;
+                    break;
                 }
             }
-        } finally {
-            if (task != null) {
-                task.cancel(true);
-            }
-            executor.shutdown();
         }
-        return currentObject;
+        final Object[] invocationResults = new Object[size];
+        for (int i = 0; i < size; i++) {
+            results.compareAndSet(i, PENDING, FAIL_TO_OBSERVE);
+            invocationResults[i] = results.get(i);
+        }
+        return invocationResults;
+    }
+
+    private static int getFirstPending(AtomicReferenceArray<Object> results, int from) {
+        int index = from;
+        while (index < results.length() && results.get(index) != PENDING) {
+            index++;
+        }
+        return index;
     }
 
-    private synchronized void observeNotNullObject(Object startingObject,
+    private void observeNotNullObject(Object startingObject,
+                                      Object objectToObserve,
                                       Class<?> currentObservedClass,
-                                      String stringObject,
+                                      ObservationPath path,
                                       String id,
-                                      int deep,
-                                      List<Method> methodsToReachCurrentObject) {
+                                      int deep) {
+        if (deep + 1 > maxDeep) {
+            // the values returned by the methods would not be observed
+            return;
+        }
         try {
-            for (Method method : methodsHandler.getAllMethods(currentObservedClass)) {
-                try {
-                    final ArrayList<Method> tmpListOfMethodsToReachCurrentObject = new ArrayList<>(methodsToReachCurrentObject);
-                    tmpListOfMethodsToReachCurrentObject.add(method);
-                    final Object result = chainInvocationOfMethods(tmpListOfMethodsToReachCurrentObject, startingObject);
-                    if (startingObject.getClass().isAnonymousClass()) {
-                        _log(startingObject,
-                                result,
-                                method.getReturnType(),
-                                "(" + stringObject + ")." + method.getName() + "()",
-                                id,
-                                deep + 1,
-                                tmpListOfMethodsToReachCurrentObject
-                        );
-                    } else {
-                        String nameOfVisibleClass = getVisibleClass(currentObservedClass);
-                        _log(startingObject,
-                                result,
-                                method.getReturnType(),
-                                "(" + nameOfVisibleClass + stringObject + ")." + method.getName() + "()",
-                                id,
-                                deep + 1,
-                                tmpListOfMethodsToReachCurrentObject
-                        );
-                    }
-                    tmpListOfMethodsToReachCurrentObject.remove(method);
-                } catch (FailToObserveException ignored) {
-                    // ignored, we just do nothing...
+            final List<Method> methods = methodsHandler.getAllMethods(currentObservedClass);
+            final Object[] results = invokeMethods(methods, methodsHandler.getAllAccessors(currentObservedClass), objectToObserve);
+            for (int i = 0; i < methods.size(); i++) {
+                if (results[i] == FAIL_TO_OBSERVE) {
+                    continue;
                 }
+                final Method method = methods.get(i);
+                _log(startingObject,
+                        results[i],
+                        method.getReturnType(),
+                        getGetterPath(path, startingObject.getClass().isAnonymousClass(), currentObservedClass, method),
+                        id,
+                        deep + 1
+                );
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private synchronized String getVisibleClass(Class<?> currentObservedClass) {
+    private ObservationPath newPath(ObservationPath parent, String prefix, String suffix) {
+        return new ObservationPath(this.nextPathId.getAndIncrement(), parent, prefix, suffix);
+    }
+
+    private ObservationPath getRootPath(String observedObjectAsString) {
+        final ObservationPath root = this.roots.get(observedObjectAsString);
+        if (root != null) {
+            return root;
+        }
+        final ObservationPath newRoot = newPath(null, observedObjectAsString, "");
+        final ObservationPath existingRoot = this.roots.putIfAbsent(observedObjectAsString, newRoot);
+        return existingRoot == null ? newRoot : existingRoot;
+    }
+
+    // e.g. "o_test__3.isEmpty()"
+    private ObservationPath getIsEmptyPath(ObservationPath parent) {
+        ObservationPath isEmptyPath = parent.getIsEmptyChild();
+        if (isEmptyPath == null) {
+            // two threads may create the path concurrently: both paths are valid, they have the same expression
+            isEmptyPath = newPath(parent, "", ".isEmpty()");
+            parent.setIsEmptyChild(isEmptyPath);
+        }
+        return isEmptyPath;
+    }
+
+    // e.g. "((fr.inria.Foo)o_test__3).getBar()", or "(o_test__3).getBar()" if the starting object is an instance of an anonymous class
+    private ObservationPath getGetterPath(ObservationPath parent, boolean isAnonymous, Class<?> currentObservedClass, Method method) {
+        final Object observedClass = isAnonymous ? ObservationPath.ANONYMOUS : currentObservedClass;
+        final ObservationPath getterPath = parent.getChild(observedClass, method);
+        if (getterPath != null) {
+            return getterPath;
+        }
+        return parent.addChild(observedClass, method,
+                newPath(parent,
+                        isAnonymous ? "(" : "(" + getVisibleClass(currentObservedClass),
+                        ")." + method.getName() + "()"
+                )
+        );
+    }
+
+    private String getVisibleClass(Class<?> currentObservedClass) {
         if (currentObservedClass == null || currentObservedClass == Object.class) {
             return "";
         } else if (Modifier.isPrivate(currentObservedClass.getModifiers()) ||
@@ -207,49 +407,62 @@ public class ObjectLog {
         }
     }
 
-    public synchronized static Map<String, Observation> getObservations() {
-        if (getSingleton().observations.isEmpty()) {
-            return load();
-        } else {
-            return getSingleton().observations;
+    // merges the buffers of all the threads into the log of observations
+    private void appendBuffersToLog() {
+        for (ObservationBuffer threadBuffer : this.buffers) {
+            try {
+                threadBuffer.appendToLog();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 
-    private static final String OBSERVATIONS_PATH_FILE_NAME = "target/dspot/observations.ser";
+    /**
+     * @return the observations, by id of observation point
+     */
+    public synchronized static Map<String, Observation> getObservations() {
+        getSingleton().appendBuffersToLog();
+        return load();
+    }
 
-    public synchronized static void save() {
-        final File file = new File(OBSERVATIONS_PATH_FILE_NAME);
-        getSingleton().observations.values().forEach(Observation::purify);
-        try (FileOutputStream fout = new FileOutputStream(OBSERVATIONS_PATH_FILE_NAME)) {
-            try (ObjectOutputStream oos = new ObjectOutputStream(fout)) {
-                oos.writeObject(getSingleton().observations);
-                System.out.println(
-                        String.format("File saved to the following path: %s",
-                                file.getAbsolutePath())
-                );
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Reads the log of observations as a stream, see {@link ObservationLog#read(File)}.
+     *
+     * @return the observations, by id of observation point, by name of test method
+     */
+    public synchronized static Map<String, Map<String, Observation>> getObservationsByTestMethod() {
+        getSingleton().appendBuffersToLog();
+        try {
+            return ObservationLog.read(getObservationsFile());
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static final String OBSERVATIONS_PATH_FILE_NAME = "target/dspot/observations.log";
+
+    private static File getObservationsFile() {
+        return new File((EntryPoint.workingDirectory != null ? // in case we modified the working directory
+                EntryPoint.workingDirectory.getAbsolutePath() + "/" : "") +
+                OBSERVATIONS_PATH_FILE_NAME);
+    }
+
+    /**
+     * Appends the observations of all the threads to the log of observations. It is called at the end of the instrumented test class.
+     */
+    public synchronized static void save() {
+        getSingleton().appendBuffersToLog();
+        System.out.println(
+                String.format("File saved to the following path: %s",
+                        getObservationsFile().getAbsolutePath())
+        );
+    }
+
     public synchronized static Map<String, Observation> load() {
-        try (FileInputStream fi = new FileInputStream(new File(
-                (EntryPoint.workingDirectory != null ? // in case we modified the working directory
-                        EntryPoint.workingDirectory.getAbsolutePath() + "/" : "") +
-                        OBSERVATIONS_PATH_FILE_NAME))) {
-            try (ObjectInputStream oi = new ObjectInputStream(fi)) {
-                return (Map) oi.readObject();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        final Map<String, Observation> observations = new LinkedHashMap<>();
+        getObservationsByTestMethod().values().forEach(observations::putAll);
+        return observations;
     }
 
-}
\ No newline at end of file
+}
@@ -10,11 +10,14 @@ import java.util.*;
  */
 public class Observation implements Serializable {
 
+    private final ObservationPoint point;
+
     private Set<String> notDeterministValues;
 
     private Map<String, Object> observationValues;
 
-    public Observation() {
+    public Observation(ObservationPoint point) {
+        this.point = point;
         this.observationValues = new LinkedHashMap<>();
         this.notDeterministValues = new HashSet<>();
     }
@@ -86,20 +89,8 @@ public class Observation implements Serializable {
         }
     }
 
-    public void purify() {
-        List<String> keysToBeRemoved = new ArrayList<>();
-        for (String key : this.observationValues.keySet()) {
-            try {
-                if (!ObjectLog.isSerializable(this.observationValues.get(key))) {
-                    keysToBeRemoved.add(key);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                keysToBeRemoved.add(key);
-                continue;
-            }
-        }
-        keysToBeRemoved.forEach(this.observationValues::remove);
+    public ObservationPoint getPoint() {
+        return point;
     }
 
     public Set<String> getNotDeterministValues() {
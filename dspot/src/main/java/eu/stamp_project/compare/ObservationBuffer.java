@@ -0,0 +1,62 @@
+package eu.stamp_project.compare;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The observations made by a single thread of the instrumented tests, kept in memory as records of the {@link ObservationLog}.
+ * Each thread appends to its own buffer, so that the tests that run in parallel do not wait for each other.
+ * The buffer is appended to the log of observations when it is full, and when the observations are saved, see {@link ObjectLog#save()}.
+ * Since the records of a buffer are appended at once, the records of different threads are never interleaved.
+ * Each part of the buffer that is appended defines all the {@link ObservationPath} it uses, so that it can be read on its own.
+ */
+final class ObservationBuffer {
+
+    private static final int MAX_SIZE = 1 << 16;
+
+    // the buffers of all the threads are appended to the same log, one at a time
+    private static final Object LOG_LOCK = new Object();
+
+    private final File file;
+
+    private final ByteArrayOutputStream bytes;
+
+    private ObservationLog records;
+
+    ObservationBuffer(File file) {
+        this.file = file;
+        this.bytes = new ByteArrayOutputStream();
+        this.records = new ObservationLog(this.bytes);
+    }
+
+    /**
+     * See {@link ObservationLog#append(String, ObservationPath, Object)}.
+     * The lock is only taken by the thread that owns the buffer, except when the observations are saved.
+     */
+    synchronized void append(String id, ObservationPath path, Object value) throws IOException {
+        this.records.append(id, path, value);
+        if (this.bytes.size() >= MAX_SIZE) {
+            this.appendToLog();
+        }
+    }
+
+    /**
+     * Appends the buffered records to the log of observations, and empties the buffer.
+     */
+    synchronized void appendToLog() throws IOException {
+        this.records.flush();
+        if (this.bytes.size() == 0) {
+            return;
+        }
+        synchronized (LOG_LOCK) {
+            try (OutputStream output = ObservationLog.openForAppend(this.file)) {
+                this.bytes.writeTo(output);
+            }
+        }
+        this.bytes.reset();
+        // the paths are defined again in the next part of the buffer
+        this.records = new ObservationLog(this.bytes);
+    }
+}
@@ -0,0 +1,308 @@
+package eu.stamp_project.compare;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An append-only log of the observations, written by the instrumented test class while its tests run, and read by DSpot.
+ * Each record is prefixed by its length and by its kind. An observation is made of the id of the observation point,
+ * the observed object, the type of the observed value, and the observed value.
+ * The observed object is either an expression, or the id of an {@link ObservationPath}: the path is defined by a record of its own,
+ * written before the first observation of this path in this log, so that the expressions are only built when the log is read.
+ * The strings and the boxed primitives are written with a compact encoding, the other values with the java serialization.
+ * A truncated record at the end of the log, e.g. if the JVM of the tests has been killed, is ignored.
+ */
+public class ObservationLog {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte CHARACTER = 7;
+    private static final byte BYTE = 8;
+    private static final byte SHORT = 9;
+    private static final byte SERIALIZED = 10;
+
+    // the kinds of records
+    private static final byte OBSERVATION_OF_EXPRESSION = 0;
+    private static final byte OBSERVATION_OF_PATH = 1;
+    private static final byte PATH = 2;
+
+    private static final int NO_PARENT = -1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream output;
+
+    private final ByteArrayOutputStream recordBytes;
+
+    private final DataOutputStream record;
+
+    // the ids of the paths that have already been defined in this log
+    private final BitSet definedPaths;
+
+    public ObservationLog(File file) throws IOException {
+        this(new BufferedOutputStream(openForAppend(file), BUFFER_SIZE));
+    }
+
+    /**
+     * @param output the stream the records are appended to, e.g. an in-memory buffer that is appended to the log later
+     */
+    public ObservationLog(OutputStream output) {
+        this.output = new DataOutputStream(output);
+        this.recordBytes = new ByteArrayOutputStream();
+        this.record = new DataOutputStream(this.recordBytes);
+        this.definedPaths = new BitSet();
+    }
+
+    /**
+     * Opens the given log to append records, or bytes made of records, to it.
+     */
+    public static OutputStream openForAppend(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        return new FileOutputStream(file, true);
+    }
+
+    /**
+     * Appends a record to the log.
+     * If the value cannot be written, e.g. it is not serializable, nothing is appended and the exception is thrown.
+     */
+    public void append(String id, String observedObjectAsString, Object value) throws IOException {
+        this.recordBytes.reset();
+        this.record.writeByte(OBSERVATION_OF_EXPRESSION);
+        writeString(this.record, id);
+        writeString(this.record, observedObjectAsString);
+        writeValue(this.record, value);
+        this.writeRecord();
+    }
+
+    /**
+     * Appends a record to the log, whose observed object is the expression of the given path.
+     * The path, and its parents, are defined first if they have not been defined in this log yet.
+     * If the value cannot be written, e.g. it is not serializable, no observation is appended and the exception is thrown.
+     */
+    public void append(String id, ObservationPath path, Object value) throws IOException {
+        this.define(path);
+        this.recordBytes.reset();
+        this.record.writeByte(OBSERVATION_OF_PATH);
+        writeString(this.record, id);
+        this.record.writeInt(path.getId());
+        writeValue(this.record, value);
+        this.writeRecord();
+    }
+
+    private void define(ObservationPath path) throws IOException {
+        if (this.definedPaths.get(path.getId())) {
+            return;
+        }
+        if (path.getParent() != null) {
+            this.define(path.getParent());
+        }
+        this.recordBytes.reset();
+        this.record.writeByte(PATH);
+        this.record.writeInt(path.getId());
+        this.record.writeInt(path.getParent() == null ? NO_PARENT : path.getParent().getId());
+        writeString(this.record, path.getPrefix());
+        writeString(this.record, path.getSuffix());
+        this.writeRecord();
+        this.definedPaths.set(path.getId());
+    }
+
+    private void writeRecord() throws IOException {
+        this.record.flush();
+        this.output.writeInt(this.recordBytes.size());
+        this.recordBytes.writeTo(this.output);
+    }
+
+    public void flush() throws IOException {
+        this.output.flush();
+    }
+
+    public void close() throws IOException {
+        this.output.close();
+    }
+
+    /**
+     * Reads the given log, record after record, and rebuilds the observations in the order they have been made.
+     * The observations are grouped by test method, i.e. the prefix of the id of their observation point,
+     * and each one is given the structured form of its id, see {@link ObservationPoint}.
+     * The expression of each path is built once, when its definition is read, and is shared by all its observations.
+     * Since the logs written by different runs of the tests are appended to the same file, a path can be defined again,
+     * with another expression: the observations refer to the last definition of their path.
+     *
+     * @param file the log to be read
+     * @return the observations, by id of observation point, by name of test method.
+     * The result is empty if the file does not exist.
+     */
+    public static Map<String, Map<String, Observation>> read(File file) throws IOException {
+        final Map<String, Map<String, Observation>> observationsByTestMethod = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return observationsByTestMethod;
+        }
+        // the id of each observation point is parsed once, when it is read for the first time
+        final Map<String, Observation> observationsById = new HashMap<>();
+        final Map<Integer, String> expressionsOfPaths = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            byte[] buffer = new byte[1024];
+            while (true) {
+                final int length;
+                try {
+                    length = input.readInt();
+                    if (length < 0) {
+                        break;
+                    }
+                    if (length > buffer.length) {
+                        buffer = new byte[Math.max(length, 2 * buffer.length)];
+                    }
+                    input.readFully(buffer, 0, length);
+                } catch (EOFException endOfLog) {
+                    break;
+                }
+                final DataInputStream record = new DataInputStream(new ByteArrayInputStream(buffer, 0, length));
+                final byte kind = record.readByte();
+                if (kind == PATH) {
+                    final int pathId = record.readInt();
+                    final int parentId = record.readInt();
+                    final String prefix = readString(record);
+                    final String suffix = readString(record);
+                    final String expressionOfParent = parentId == NO_PARENT ? "" : expressionsOfPaths.get(parentId);
+                    if (expressionOfParent == null) {
+                        expressionsOfPaths.remove(pathId);
+                    } else {
+                        expressionsOfPaths.put(pathId, prefix + expressionOfParent + suffix);
+                    }
+                    continue;
+                }
+                final String id = readString(record);
+                final String observedObjectAsString = kind == OBSERVATION_OF_PATH ?
+                        expressionsOfPaths.get(record.readInt()) : readString(record);
+                if (observedObjectAsString == null) {
+                    // the path has not been defined, e.g. its definition has been truncated
+                    continue;
+                }
+                final Object value = readValue(record);
+                Observation observation = observationsById.get(id);
+                if (observation == null) {
+                    observation = new Observation(ObservationPoint.of(id));
+                    observationsById.put(id, observation);
+                    observationsByTestMethod
+                            .computeIfAbsent(observation.getPoint().getTestMethodName(), testMethodName -> new LinkedHashMap<>())
+                            .put(id, observation);
+                }
+                observation.add(observedObjectAsString, value);
+            }
+        }
+        return observationsByTestMethod;
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) value);
+        } else {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+                objectOutput.writeObject(value);
+            }
+            output.writeByte(SERIALIZED);
+            output.writeInt(bytes.size());
+            bytes.writeTo(output);
+        }
+    }
+
+    private static Object readValue(DataInputStream input) throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(input);
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case BOOLEAN:
+                return input.readBoolean();
+            case CHARACTER:
+                return input.readChar();
+            case BYTE:
+                return input.readByte();
+            case SHORT:
+                return input.readShort();
+            case SERIALIZED:
+                final byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                try (ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return objectInput.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            default:
+                throw new IOException("Unknown type of observed value: " + type);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package eu.stamp_project.compare;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A node of the trie of the observed expressions, made by {@link ObjectLog}.
+ * The expression of a node is made of a prefix, the expression of its parent and a suffix,
+ * e.g. "((fr.inria.Foo)o_test__3).getBar()" is "((fr.inria.Foo)" + "o_test__3" + ").getBar()".
+ * Each node is created once, when its expression is observed for the first time, and is given a numeric id.
+ * The observations refer to the id of their node, and the expressions are built only when the log of observations is read,
+ * see {@link ObservationLog}.
+ */
+public final class ObservationPath {
+
+    // the key of the children observed on an instance of an anonymous class, whose prefix does not depend on the observed class
+    static final Object ANONYMOUS = new Object();
+
+    private final int id;
+
+    private final ObservationPath parent;
+
+    private final String prefix;
+
+    private final String suffix;
+
+    // the children observed by a getter, by observed method, by observed class
+    private final Map<Object, Map<Method, ObservationPath>> children;
+
+    private volatile ObservationPath isEmptyChild;
+
+    ObservationPath(int id, ObservationPath parent, String prefix, String suffix) {
+        this.id = id;
+        this.parent = parent;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.children = new ConcurrentHashMap<>();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public ObservationPath getParent() {
+        return parent;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @param observedClass the class on which the method is observed, or {@link #ANONYMOUS}
+     * @return the child observed by the given method, or null if it has not been created yet
+     */
+    ObservationPath getChild(Object observedClass, Method method) {
+        final Map<Method, ObservationPath> childrenOfClass = this.children.get(observedClass);
+        return childrenOfClass == null ? null : childrenOfClass.get(method);
+    }
+
+    /**
+     * @return the given child, or the one that has been added concurrently for the same class and method
+     */
+    ObservationPath addChild(Object observedClass, Method method, ObservationPath child) {
+        Map<Method, ObservationPath> childrenOfClass = this.children.get(observedClass);
+        if (childrenOfClass == null) {
+            final Map<Method, ObservationPath> newChildrenOfClass = new ConcurrentHashMap<>();
+            childrenOfClass = this.children.putIfAbsent(observedClass, newChildrenOfClass);
+            if (childrenOfClass == null) {
+                childrenOfClass = newChildrenOfClass;
+            }
+        }
+        final ObservationPath existingChild = childrenOfClass.putIfAbsent(method, child);
+        return existingChild == null ? child : existingChild;
+    }
+
+    ObservationPath getIsEmptyChild() {
+        return isEmptyChild;
+    }
+
+    void setIsEmptyChild(ObservationPath isEmptyChild) {
+        this.isEmptyChild = isEmptyChild;
+    }
+
+    /**
+     * Builds the expression of this node. It is meant to be used for debugging only, since the expressions are built by the reader of the log.
+     */
+    @Override
+    public String toString() {
+        return this.prefix + (this.parent == null ? "" : this.parent.toString()) + this.suffix;
+    }
+}
@@ -0,0 +1,97 @@
+package eu.stamp_project.compare;
+
+import java.io.Serializable;
+
+/**
+ * The structured form of the id of an observation point, e.g. "test__3" or "test__3___end", i.e. the name of the test method,
+ * the index of the observed statement in the test method, and whether the observation is made at the end of the test method.
+ * It is built once per id, when the log of observations is read, see {@link ObservationLog#read(java.io.File)}.
+ */
+public final class ObservationPoint implements Serializable {
+
+    private static final String SEPARATOR = "__";
+
+    private static final String END_MARKER = "___end";
+
+    private final String id;
+
+    private final String testMethodName;
+
+    private final int statementIndex;
+
+    private final boolean end;
+
+    private ObservationPoint(String id, String testMethodName, int statementIndex, boolean end) {
+        this.id = id;
+        this.testMethodName = testMethodName;
+        this.statementIndex = statementIndex;
+        this.end = end;
+    }
+
+    /**
+     * @param id the id of an observation point, as given to {@link ObjectLog#log(Object, String, String)}
+     * @return the structured form of the id. If the id does not have the expected form,
+     * the test method name is the whole id and the statement index is -1
+     */
+    public static ObservationPoint of(String id) {
+        final boolean end = id.endsWith(END_MARKER);
+        final String statementId = end ? id.substring(0, id.length() - END_MARKER.length()) : id;
+        final int indexOfSeparator = statementId.lastIndexOf(SEPARATOR);
+        if (indexOfSeparator < 0) {
+            return new ObservationPoint(id, id, -1, end);
+        }
+        try {
+            return new ObservationPoint(id,
+                    statementId.substring(0, indexOfSeparator),
+                    Integer.parseInt(statementId.substring(indexOfSeparator + SEPARATOR.length())),
+                    end
+            );
+        } catch (NumberFormatException e) {
+            return new ObservationPoint(id, statementId.substring(0, indexOfSeparator), -1, end);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTestMethodName() {
+        return testMethodName;
+    }
+
+    public int getStatementIndex() {
+        return statementIndex;
+    }
+
+    public boolean isEnd() {
+        return end;
+    }
+
+    /**
+     * @return the id of the observed statement, without the end marker, e.g. "test__3"
+     */
+    public String getStatementId() {
+        return this.testMethodName + SEPARATOR + this.statementIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return this.id.equals(((ObservationPoint) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.id;
+    }
+}
@@ -11,6 +11,8 @@ public class Utils {
 
     protected static Set<Class<?>> WRAPPER_TYPES = getWrapperTypes();
 
+    protected static Set<Class<?>> PRIMITIVE_ARRAY_TYPES = getPrimitiveArrayTypes();
+
     public static boolean isNonEmptyPrimitiveCollectionOrMap(Object collectionOrMap) {
         try {
             return collectionOrMap != null &&
@@ -105,26 +107,27 @@ public class Utils {
     }
 
     public static boolean isPrimitiveArray(Object candidateArray) {
-        if (candidateArray == null) {
-            return false;
-        }
-        String type = candidateArray.getClass().getCanonicalName();
-        return type != null && isArray(candidateArray) &&
-                (type.equals("byte[]")
-                        || type.equals("short[]")
-                        || type.equals("int[]")
-                        || type.equals("long[]")
-                        || type.equals("float[]")
-                        || type.equals("double[]")
-                        || type.equals("boolean[]")
-                        || type.equals("char[]")
-                        || type.equals("java.lang.Byte[]")
-                        || type.equals("java.lang.Short[]")
-                        || type.equals("java.lang.Integer[]")
-                        || type.equals("java.lang.Long[]")
-                        || type.equals("java.lang.Float[]")
-                        || type.equals("java.lang.Double[]")
-                        || type.equals("java.lang.Boolean[]")
-                        || type.equals("java.lang.Character[]"));
+        return candidateArray != null && PRIMITIVE_ARRAY_TYPES.contains(candidateArray.getClass());
+    }
+
+    protected static Set<Class<?>> getPrimitiveArrayTypes() {
+        Set<Class<?>> ret = new HashSet<Class<?>>();
+        ret.add(byte[].class);
+        ret.add(short[].class);
+        ret.add(int[].class);
+        ret.add(long[].class);
+        ret.add(float[].class);
+        ret.add(double[].class);
+        ret.add(boolean[].class);
+        ret.add(char[].class);
+        ret.add(Byte[].class);
+        ret.add(Short[].class);
+        ret.add(Integer[].class);
+        ret.add(Long[].class);
+        ret.add(Float[].class);
+        ret.add(Double[].class);
+        ret.add(Boolean[].class);
+        ret.add(Character[].class);
+        return ret;
     }
 }
@@ -125,6 +125,7 @@ public class Amplification {
         // generate tests with input modification and associated new assertions
         LOGGER.info("Applying Input-amplification and Assertion-amplification test by test.");
         this.resetAmplifiers(classTest);
+        this.budgetizer.reset(classTest);
         for (int i = 0; i < tests.size(); i++) {
             CtMethod test = tests.get(i);
             LOGGER.info("Amplification of {}, ({}/{})", test.getSimpleName(), i + 1, tests.size());
@@ -187,6 +188,7 @@ public class Amplification {
 
             // in case no test with assertions could be generated, we go for the next iteration.
             if (testsWithAssertions.isEmpty()) {
+                this.budgetizer.notifySelection(Collections.emptyList());
                 currentTestList = inputAmplifiedTests;
                 continue;
             }
@@ -199,6 +201,7 @@ public class Amplification {
                 Main.GLOBAL_REPORT.addError(new Error(ERROR_SELECTION, e));
                 return Collections.emptyList();
             }
+            this.budgetizer.notifySelection(amplifiedTestMethodsToKeep);
             amplifiedTests.addAll(amplifiedTestMethodsToKeep);
             LOGGER.info("{} amplified test methods has been selected to be kept.", amplifiedTestMethodsToKeep.size());
 
@@ -221,8 +224,10 @@ public class Amplification {
         }
         // final check on A-amplified test, see if they all pass.
         // If they don't, we just discard them.
+        // The assertions are new source code, that did not exist when the tests and their instrumented copies have been compiled:
+        // only the tests with assertions are compiled here, without the test methods of the test class
         final List<CtMethod<?>> amplifiedPassingTests =
-                TestCompiler.compileRunAndDiscardUncompilableAndFailingTestMethods(
+                TestCompiler.compileRunAndDiscardUncompilableAndFailingAmplifiedTestMethods(
                         classTest,
                         testsWithAssertions,
                         this.compiler,
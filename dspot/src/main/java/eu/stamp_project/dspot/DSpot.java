@@ -11,6 +11,7 @@ import eu.stamp_project.test_framework.TestFramework;
 import eu.stamp_project.utils.options.BudgetizerEnum;
 import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.utils.AmplificationHelper;
+import eu.stamp_project.utils.CloneHelper;
 import eu.stamp_project.utils.Counter;
 import eu.stamp_project.utils.DSpotUtils;
 import eu.stamp_project.utils.compilation.DSpotCompiler;
@@ -276,7 +277,7 @@ public class DSpot {
         LOGGER.info("elapsedTime {}", elapsedTime);
         this.projectTimeJSON.add(new ClassTimeJSON(test.getQualifiedName(), elapsedTime));
         final CtType clone = test.clone();
-        test.getPackage().addType(clone);
+        CloneHelper.addToPackageOf(test, clone);
         final CtType<?> amplification = AmplificationHelper.createAmplifiedTest(testSelector.getAmplifiedTestCases(), clone);
         final File outputDirectory = new File(InputConfiguration.get().getOutputDirectory());
 
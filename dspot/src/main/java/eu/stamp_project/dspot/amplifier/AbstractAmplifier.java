@@ -2,12 +2,17 @@ package eu.stamp_project.dspot.amplifier;
 
 import eu.stamp_project.utils.CloneHelper;
 import eu.stamp_project.utils.Counter;
+import eu.stamp_project.utils.RandomHelper;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtMethod;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -100,4 +105,63 @@ public abstract class AbstractAmplifier<T extends CtElement> implements Amplifie
                                 .map(amplified -> this.replace(original, amplified, testMethod))
                 );
     }
+
+    @Override
+    public Stream<AmplifiedTestDelta> amplifyAsDeltas(CtMethod<?> testMethod, int iteration) {
+        List<T> originals = this.getOriginals(testMethod);
+        List<T> reducedOriginals = this.reduceAlreadyAmplifiedElements(originals);
+        return reducedOriginals.stream()
+                .filter(reducedOriginal -> !this.hasBeenAmplified(reducedOriginal))
+                .flatMap(original ->
+                        this.amplify(original, testMethod)
+                                .stream()
+                                .map(amplified -> new AmplifiedTestDelta(testMethod, original, amplified,
+                                        () -> this.replace(original, amplified, testMethod))
+                                )
+                );
+    }
+
+    /**
+     * The amplified elements of an original element are computed when the first of them is pulled,
+     * and the test method is cloned only for the pulled ones.
+     * The originals are taken in turn, in a random order, so that pulling a few amplified test methods
+     * gives amplified test methods on different elements.
+     */
+    @Override
+    public Iterator<CtMethod<?>> amplifyLazily(CtMethod<?> testMethod, int iteration) {
+        final List<T> reducedOriginals = this.reduceAlreadyAmplifiedElements(this.getOriginals(testMethod))
+                .stream()
+                .filter(reducedOriginal -> !this.hasBeenAmplified(reducedOriginal))
+                .collect(Collectors.toList());
+        Collections.shuffle(reducedOriginals, RandomHelper.getRandom());
+        return new RoundRobinIterator<>(reducedOriginals.stream()
+                .map(original -> this.amplifyLazily(original, testMethod))
+                .collect(Collectors.toList())
+        );
+    }
+
+    private Iterator<CtMethod<?>> amplifyLazily(T original, CtMethod<?> testMethod) {
+        return new Iterator<CtMethod<?>>() {
+
+            private Iterator<T> amplifiedElements;
+
+            @Override
+            public boolean hasNext() {
+                if (this.amplifiedElements == null) {
+                    final List<T> amplifiedElements = new ArrayList<>(AbstractAmplifier.this.amplify(original, testMethod));
+                    Collections.shuffle(amplifiedElements, RandomHelper.getRandom());
+                    this.amplifiedElements = amplifiedElements.iterator();
+                }
+                return this.amplifiedElements.hasNext();
+            }
+
+            @Override
+            public CtMethod<?> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return AbstractAmplifier.this.replace(original, this.amplifiedElements.next(), testMethod);
+            }
+        };
+    }
 }
@@ -4,7 +4,9 @@ import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -30,6 +32,19 @@ public class AllLiteralAmplifiers implements Amplifier {
         return this.literalAmplifiers.stream().flatMap(amplifier -> amplifier.amplify(testMethod, 0));
     }
 
+    @Override
+    public Stream<AmplifiedTestDelta> amplifyAsDeltas(CtMethod<?> testMethod, int iteration) {
+        return this.literalAmplifiers.stream().flatMap(amplifier -> amplifier.amplifyAsDeltas(testMethod, 0));
+    }
+
+    @Override
+    public Iterator<CtMethod<?>> amplifyLazily(CtMethod<?> testMethod, int iteration) {
+        return new RoundRobinIterator<>(this.literalAmplifiers.stream()
+                .map(amplifier -> amplifier.amplifyLazily(testMethod, 0))
+                .collect(Collectors.toList())
+        );
+    }
+
     @Override
     public void reset(CtType testClass) {
         this.literalAmplifiers.forEach(amplifier -> amplifier.reset(testClass));
@@ -0,0 +1,69 @@
+package eu.stamp_project.dspot.amplifier;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An amplified test method that has not been built yet: it is represented by the test method to be amplified,
+ * i.e. its parent, and by the edit that amplifies it, i.e. an element of the parent and the element that replaces it.
+ * It is materialized, i.e. the parent is cloned with the edit, only when needed, see {@link #materialize()}.
+ *
+ * An amplified test method built by an amplifier that does not support deltas is represented by itself, without edit.
+ */
+public class AmplifiedTestDelta {
+
+    private final CtMethod<?> testMethod;
+
+    private final CtElement originalElement;
+
+    private final CtElement amplifiedElement;
+
+    private final Supplier<CtMethod<?>> materializer;
+
+    AmplifiedTestDelta(CtMethod<?> parent, CtElement originalElement, CtElement amplifiedElement, Supplier<CtMethod<?>> materializer) {
+        this.testMethod = parent;
+        this.originalElement = originalElement;
+        this.amplifiedElement = amplifiedElement;
+        this.materializer = materializer;
+    }
+
+    /**
+     * @param amplifiedTestMethod an amplified test method already built
+     * @return the delta that represents the given amplified test method
+     */
+    public static AmplifiedTestDelta of(CtMethod<?> amplifiedTestMethod) {
+        return new AmplifiedTestDelta(amplifiedTestMethod, null, null, () -> amplifiedTestMethod);
+    }
+
+    /**
+     * Applies the given function on the amplified test method, without building it:
+     * the edit is applied on the parent during the call, then reverted.
+     * The function must not keep a reference to the given test method, nor to its elements.
+     */
+    public <R> R computeOnAmplifiedTestMethod(Function<CtMethod<?>, R> function) {
+        if (this.originalElement == null) {
+            return function.apply(this.testMethod);
+        }
+        // the parent is shared by all the deltas built from it
+        synchronized (this.testMethod) {
+            this.originalElement.replace(this.amplifiedElement);
+            try {
+                return function.apply(this.testMethod);
+            } finally {
+                this.amplifiedElement.replace(this.originalElement);
+            }
+        }
+    }
+
+    /**
+     * @return the amplified test method, built from the parent and the edit
+     */
+    public CtMethod<?> materialize() {
+        synchronized (this.testMethod) {
+            return this.materializer.get();
+        }
+    }
+}
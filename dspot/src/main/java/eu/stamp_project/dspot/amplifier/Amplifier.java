@@ -3,6 +3,7 @@ package eu.stamp_project.dspot.amplifier;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 /**
@@ -22,6 +23,29 @@ public interface Amplifier {
      */
     Stream<CtMethod<?>> amplify(CtMethod<?> testMethod, int iteration);
 
+    /**
+     * Input amplify the given test method lazily: each amplified test method is built, i.e. cloned,
+     * only when it is pulled from the resulting iterator.
+     * By default, this method iterates over {@link #amplify(CtMethod, int)}.
+     * @param testMethod to be amplified
+     * @param iteration of the main loop of DSpot
+     * @return an iterator over the input amplified test methods
+     */
+    default Iterator<CtMethod<?>> amplifyLazily(CtMethod<?> testMethod, int iteration) {
+        return this.amplify(testMethod, iteration).iterator();
+    }
+
+    /**
+     * Input amplify the given test method, without building the amplified test methods, see {@link AmplifiedTestDelta}.
+     * By default, this method builds the amplified test methods with {@link #amplify(CtMethod, int)}.
+     * @param testMethod to be amplified
+     * @param iteration of the main loop of DSpot
+     * @return all the input amplified test methods, as deltas from the given test method
+     */
+    default Stream<AmplifiedTestDelta> amplifyAsDeltas(CtMethod<?> testMethod, int iteration) {
+        return this.amplify(testMethod, iteration).map(AmplifiedTestDelta::of);
+    }
+
     void reset(CtType<?> testClass);
 
 }
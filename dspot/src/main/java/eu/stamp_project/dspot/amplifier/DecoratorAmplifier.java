@@ -3,6 +3,7 @@ package eu.stamp_project.dspot.amplifier;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 /**
@@ -23,6 +24,16 @@ public abstract class DecoratorAmplifier implements Amplifier {
         return this.internalAmplifier.amplify(testMethod, 0);
     }
 
+    @Override
+    public Iterator<CtMethod<?>> amplifyLazily(CtMethod<?> testMethod, int iteration) {
+        return this.internalAmplifier.amplifyLazily(testMethod, 0);
+    }
+
+    @Override
+    public Stream<AmplifiedTestDelta> amplifyAsDeltas(CtMethod<?> testMethod, int iteration) {
+        return this.internalAmplifier.amplifyAsDeltas(testMethod, 0);
+    }
+
     @Override
     public void reset(CtType testClass) {
         this.internalAmplifier.reset(testClass);
@@ -2,6 +2,8 @@ package eu.stamp_project.dspot.amplifier;
 
 import spoon.reflect.declaration.CtMethod;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 /**
@@ -33,4 +35,22 @@ public class IterationDecoratorAmplifier extends DecoratorAmplifier {
             return Stream.empty();
         }
     }
+
+    @Override
+    public Stream<AmplifiedTestDelta> amplifyAsDeltas(CtMethod<?> testMethod, int iteration) {
+        if (iteration % this.frequency == 0) {
+            return super.amplifyAsDeltas(testMethod, iteration);
+        } else {
+            return Stream.empty();
+        }
+    }
+
+    @Override
+    public Iterator<CtMethod<?>> amplifyLazily(CtMethod<?> testMethod, int iteration) {
+        if (iteration % this.frequency == 0) {
+            return super.amplifyLazily(testMethod, iteration);
+        } else {
+            return Collections.emptyIterator();
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package eu.stamp_project.dspot.amplifier;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Pulls the elements of the given iterators in turn, one element per iterator, until all of them are exhausted.
+ * An iterator is pulled only when one of its elements is requested, so that lazy iterators stay lazy.
+ */
+public class RoundRobinIterator<E> implements Iterator<E> {
+
+    private final Deque<Iterator<? extends E>> iterators;
+
+    public RoundRobinIterator(List<? extends Iterator<? extends E>> iterators) {
+        this.iterators = new ArrayDeque<>(iterators);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.iterators.isEmpty()) {
+            if (this.iterators.peekFirst().hasNext()) {
+                return true;
+            }
+            this.iterators.pollFirst();
+        }
+        return false;
+    }
+
+    @Override
+    public E next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Iterator<? extends E> iterator = this.iterators.pollFirst();
+        final E next = iterator.next();
+        this.iterators.addLast(iterator);
+        return next;
+    }
+}
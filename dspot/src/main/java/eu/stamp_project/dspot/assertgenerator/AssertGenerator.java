@@ -1,5 +1,7 @@
 package eu.stamp_project.dspot.assertgenerator;
 
+import eu.stamp_project.compare.ObjectLog;
+import eu.stamp_project.compare.Observation;
 import eu.stamp_project.dspot.AmplificationException;
 import eu.stamp_project.testrunner.listener.TestResult;
 import eu.stamp_project.utils.CloneHelper;
@@ -14,7 +16,10 @@ import spoon.reflect.declaration.CtType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -35,8 +40,6 @@ public class AssertGenerator {
 
     private TryCatchFailGenerator tryCatchFailGenerator;
 
-    private MethodsAssertGenerator methodsAssertGenerator;
-
     public AssertGenerator(InputConfiguration configuration, DSpotCompiler compiler) {
         this.configuration = configuration;
         this.compiler = compiler;
@@ -59,6 +62,8 @@ public class AssertGenerator {
         }
         CtType cloneClass = testClass.clone();
         cloneClass.setParent(testClass.getParent());
+        // the test methods of the test class are not run, they are neither compiled again
+        CloneHelper.removeTestMethodsOf(testClass, cloneClass);
 
         // remove existing assertions from cloned test methods
         List<CtMethod<?>> testsWithoutAssertions = tests.stream()
@@ -67,14 +72,14 @@ public class AssertGenerator {
         testsWithoutAssertions.forEach(cloneClass::addMethod);
 
         // set up methodsAssertGenerator for use in innerAssertionAmplification
-        this.methodsAssertGenerator = new MethodsAssertGenerator(
+        final MethodsAssertGenerator methodsAssertGenerator = new MethodsAssertGenerator(
                 testClass,
                 this.configuration,
                 compiler,
                 this.assertionRemover.getVariableAssertedPerTestMethod()
         );
         final List<CtMethod<?>> amplifiedTestsWithAssertions =
-                this.innerAssertionAmplification(cloneClass, testsWithoutAssertions);
+                this.innerAssertionAmplification(methodsAssertGenerator, testClass, cloneClass, testsWithoutAssertions);
         if (amplifiedTestsWithAssertions.isEmpty()) {
             LOGGER.info("Could not generate any test with assertions");
         } else {
@@ -93,19 +98,32 @@ public class AssertGenerator {
      * <p>Assertion Amplification process.
      * <ol>
      * <li>Instrumentation to collect the state of the program after execution (but before assertions).</li>
-     * <li>Collection of actual values by running the tests.</li>
+     * <li>Collection of actual values by running the instrumented copies of the passing tests.</li>
      * <li>Generation of new assertions in place of observation points.
      * Generation of catch blocks if a test raises an exception.</li>
      * </ol>
-     * The details of the first two points are in {@link MethodsAssertGenerator#addAssertions(CtType, List)}.
+     * The details of the first point are in {@link MethodsAssertGenerator#addInstrumentedTests(CtType, List)}.
+     * The tests and their instrumented copies are compiled once, in the same test class.
+     * The tests are run first, then the instrumented copies of the passing tests are run in another launch of the test runner,
+     * so that the values observed do not depend on the state left by the tests,
+     * see {@link #runInstrumentedTests(MethodsAssertGenerator, CtType, List, List)}.
+     * If the test class cannot be compiled and run with the instrumented copies,
+     * the tests are compiled and run without them, see {@link #runTestsThenInstrumentedTests(MethodsAssertGenerator, CtType, List)}.
      *
-     * @param testClass Test class
-     * @param tests     Test methods
+     * @param methodsAssertGenerator Generator of the assertions of the given test methods
+     * @param originalTestClass Test class to be amplified
+     * @param testClass         Clone of the test class, that contains the given test methods
+     * @param tests             Test methods
      * @return New tests with new assertions
      */
-    private List<CtMethod<?>> innerAssertionAmplification(CtType testClass, List<CtMethod<?>> tests) {
+    private List<CtMethod<?>> innerAssertionAmplification(MethodsAssertGenerator methodsAssertGenerator,
+                                                          CtType<?> originalTestClass,
+                                                          CtType testClass,
+                                                          List<CtMethod<?>> tests) {
 
-        // check if input amplified tests throw new exceptions
+        // check if input amplified tests throw new exceptions.
+        // The instrumented copies of the tests are compiled along with the tests, but they are not run yet
+        final List<CtMethod<?>> instrumentedTests = methodsAssertGenerator.addInstrumentedTests(testClass, tests);
         LOGGER.info("Run tests. ({})", tests.size());
         final TestResult testResult;
         try {
@@ -113,7 +131,92 @@ public class AssertGenerator {
             CloneHelper.addParallelExecutionAnnotation(testClass, tests);
             testResult = TestCompiler.compileAndRun(testClass,
                     this.compiler,
-                    tests,
+                    new ArrayList<>(tests),
+                    this.configuration
+            );
+        } catch (AmplificationException e) {
+            LOGGER.warn("Error when executing tests compiled along with their instrumented copies, the tests will be compiled alone:");
+            e.printStackTrace();
+            return this.runTestsThenInstrumentedTests(methodsAssertGenerator, originalTestClass, tests);
+        }
+        return this.generateTestsWithAssertions(tests, testResult,
+                passingTestMethods -> this.runInstrumentedTests(methodsAssertGenerator, testClass, instrumentedTests, passingTestMethods)
+        );
+    }
+
+    /**
+     * Runs the instrumented copies of the given passing tests, in the test class as it has been compiled along with the tests,
+     * then builds the tests with assertions from their observations.
+     * <p>
+     * <p>The instrumented copies are run in a launch of the test runner of their own, i.e. in a new JVM, or in a JVM of the
+     * {@link eu.stamp_project.utils.execution.pool.RunnerPool} if it is enabled, that does not share the state of the program
+     * with the run of the tests.
+     *
+     * @param methodsAssertGenerator Generator of the assertions, that added the instrumented copies to the test class
+     * @param testClass              Test class, already compiled, that contains the tests and their instrumented copies
+     * @param instrumentedTests      Instrumented copies of the tests, in the test class
+     * @param passingTests           Passing test methods
+     * @return New tests with new assertions generated from observation points values
+     */
+    private List<CtMethod<?>> runInstrumentedTests(MethodsAssertGenerator methodsAssertGenerator,
+                                                   CtType<?> testClass,
+                                                   List<CtMethod<?>> instrumentedTests,
+                                                   List<CtMethod<?>> passingTests) {
+        final Set<String> namesOfInstrumentedTestsToRun = passingTests.stream()
+                .map(passingTest -> passingTest.getSimpleName() + AssertGeneratorHelper.SUFFIX_OF_TEST_WITH_LOG)
+                .collect(Collectors.toSet());
+        final List<CtMethod<?>> instrumentedTestsToRun = instrumentedTests.stream()
+                .filter(instrumentedTest -> namesOfInstrumentedTestsToRun.contains(instrumentedTest.getSimpleName()))
+                // the instrumented copies that could not be compiled have been removed from the test class
+                .filter(instrumentedTest -> !testClass.getMethodsByName(instrumentedTest.getSimpleName()).isEmpty())
+                .collect(Collectors.toList());
+        if (instrumentedTestsToRun.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LOGGER.info("Run instrumented tests. ({})", instrumentedTestsToRun.size());
+        // the observations saved at the end of the run of the tests, that are not instrumented, are discarded
+        ObjectLog.reset();
+        try {
+            final TestResult result = TestCompiler.run(testClass,
+                    this.compiler,
+                    instrumentedTestsToRun,
+                    this.configuration
+            );
+            if (!result.getFailingTests().isEmpty()) {
+                LOGGER.warn("Some instrumented test failed!");
+            }
+        } catch (AmplificationException e) {
+            LOGGER.warn("Error when executing instrumented tests, no assertion will be generated:");
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+        final Map<String, Map<String, Observation>> observations =
+                methodsAssertGenerator.readObservations(testClass, instrumentedTestsToRun);
+        return methodsAssertGenerator.buildTestsWithAssert(passingTests, observations);
+    }
+
+    /*
+        Compiles and runs the tests in a clone of the test class that contains neither their instrumented copies,
+        nor the method that saves the observations, as DSpot did before compiling them along with their instrumented copies.
+        The failing tests are still surrounded with try/catch/fail blocks.
+        The instrumented copies of the passing tests are then compiled and run on their own.
+     */
+    List<CtMethod<?>> runTestsThenInstrumentedTests(MethodsAssertGenerator methodsAssertGenerator,
+                                                    CtType<?> originalTestClass,
+                                                    List<CtMethod<?>> tests) {
+        // the tests are cloned, since they stay in the test class that contains their instrumented copies
+        final List<CtMethod<?>> testsToRun = tests.stream()
+                .map(CloneHelper::cloneMethod)
+                .collect(Collectors.toList());
+        final CtType<?> testClass = CloneHelper.cloneTestClassAndAddOnlyGivenTest(originalTestClass, testsToRun);
+        LOGGER.info("Run tests. ({})", testsToRun.size());
+        final TestResult testResult;
+        try {
+            //Add parallel test execution support (JUnit4, JUnit5) for execution method (CMD, Maven)
+            CloneHelper.addParallelExecutionAnnotation(testClass, testsToRun);
+            testResult = TestCompiler.compileAndRun(testClass,
+                    this.compiler,
+                    testsToRun,
                     this.configuration
             );
         } catch (AmplificationException e) {
@@ -121,6 +224,17 @@ public class AssertGenerator {
             e.printStackTrace();
             return Collections.emptyList();
         }
+        return this.generateTestsWithAssertions(tests, testResult,
+                passingTestMethods -> methodsAssertGenerator.addAssertions(originalTestClass, passingTestMethods)
+        );
+    }
+
+    /*
+        Adds assertions on the passing tests with the given function, and try/catch/fail blocks in the failing tests
+     */
+    private List<CtMethod<?>> generateTestsWithAssertions(List<CtMethod<?>> tests,
+                                                          TestResult testResult,
+                                                          Function<List<CtMethod<?>>, List<CtMethod<?>>> addAssertions) {
         final List<String> failuresMethodName = testResult.getFailingTests()
                 .stream()
                 .map(failure -> failure.testCaseName)
@@ -136,8 +250,7 @@ public class AssertGenerator {
                             passingTestsName.stream()
                                     .anyMatch(passingTestName -> checkMethodName(ctMethod.getSimpleName(), passingTestName))
                     ).collect(Collectors.toList());
-            List<CtMethod<?>> passingTests = this.methodsAssertGenerator.addAssertions(testClass,
-                    passingTestMethods)
+            List<CtMethod<?>> passingTests = addAssertions.apply(passingTestMethods)
                     .stream()
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
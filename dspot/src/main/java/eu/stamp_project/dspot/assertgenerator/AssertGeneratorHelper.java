@@ -29,6 +29,8 @@ import java.util.regex.Pattern;
  */
 public class AssertGeneratorHelper {
 
+    static final String SUFFIX_OF_TEST_WITH_LOG = "_withlog";
+
     public static boolean canGenerateAnAssertionFor(String candidate) {
         return !AssertGeneratorHelper.containsObjectReferences(candidate) &&
                 (InputConfiguration.get().shouldAllowPathInAssertion() || !AssertGeneratorHelper.containsAPath(candidate));
@@ -80,7 +82,7 @@ public class AssertGeneratorHelper {
     static CtMethod<?> createTestWithLog(CtMethod test, final String filter,
                                          List<CtLocalVariable<?>> ctVariableReads) {
         CtMethod clone = CloneHelper.cloneTestMethodNoAmp(test);
-        clone.setSimpleName(test.getSimpleName() + "_withlog");
+        clone.setSimpleName(test.getSimpleName() + SUFFIX_OF_TEST_WITH_LOG);
         final List<CtStatement> allStatement = clone.getElements(new TypeFilter<>(CtStatement.class));
         allStatement.stream()
                 .filter(statement -> isStmtToLog(filter, statement) || ctVariableReads.contains(statement))
@@ -0,0 +1,122 @@
+package eu.stamp_project.dspot.assertgenerator;
+
+import eu.stamp_project.compare.Observation;
+import eu.stamp_project.compare.Utils;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tells if the values observed by a single run of an instrumented test can be used as they are to generate assertions.
+ * A value is known as deterministic if its type is, i.e. a primitive, a string or an enum constant, or an array, a collection
+ * or a map of such values, and if it does not look like a hash code, a timestamp, an identity string or a random identifier.
+ * The instrumented tests that observed a value that is not known as deterministic are run again,
+ * see {@link MethodsAssertGenerator#readObservations(spoon.reflect.declaration.CtType, java.util.List)}.
+ */
+final class DeterministicValues {
+
+    // the names of the observed methods that likely return a value that changes from a run to another
+    private static final String[] SUSPECT_NAMES = {"hashcode", "time", "date", "millis", "nanos", "random", "uuid"};
+
+    // the names of the observed methods that likely return a generated identifier
+    private static final String[] IDENTIFIER_NAMES = {"getid", "id"};
+
+    // an observed method, e.g. ".getSize()" in "((fr.inria.Foo)o_test__3).getSize()"
+    private static final Pattern OBSERVED_METHOD = Pattern.compile("\\.(\\w+)\\(\\)");
+
+    // the longs above are likely timestamps in milliseconds or in nanoseconds, i.e. after 1973
+    private static final long MIN_TIMESTAMP = 100_000_000_000L;
+
+    private static final Pattern IDENTITY_STRING = Pattern.compile("\\w@[a-f0-9]{4,}");
+
+    private static final Pattern DATE_OR_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}|\\d{2}:\\d{2}:\\d{2}");
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private DeterministicValues() {
+        // utility class
+    }
+
+    /**
+     * @param observations the observations of a test method, by id of observation point
+     * @return true if all the observed values are known as deterministic
+     */
+    static boolean areKnownAsDeterministic(Map<String, Observation> observations) {
+        return observations.values().stream()
+                .allMatch(observation -> observation.getObservationValues().entrySet().stream()
+                        .allMatch(value -> isKnownAsDeterministic(value.getKey(), value.getValue()))
+                );
+    }
+
+    /**
+     * @param observedObjectAsString the observed object, e.g. "o_test__3.getSize()"
+     * @param value                  the observed value
+     * @return true if the value is known as deterministic
+     */
+    static boolean isKnownAsDeterministic(String observedObjectAsString, Object value) {
+        // only the names of the observed methods are matched: the names of the local variables and of the casted types,
+        // e.g. "o_testTimeout__3", do not tell anything about the observed value
+        final Matcher observedMethods = OBSERVED_METHOD.matcher(observedObjectAsString);
+        while (observedMethods.find()) {
+            if (isSuspect(observedMethods.group(1).toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return isKnownAsDeterministic(value);
+    }
+
+    private static boolean isSuspect(String observedMethodName) {
+        for (String suspectName : SUSPECT_NAMES) {
+            if (observedMethodName.contains(suspectName)) {
+                return true;
+            }
+        }
+        for (String identifierName : IDENTIFIER_NAMES) {
+            if (observedMethodName.equals(identifierName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isKnownAsDeterministic(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return true;
+        }
+        if (value instanceof Long) {
+            final long longValue = (Long) value;
+            return longValue == Long.MAX_VALUE || longValue == Long.MIN_VALUE || Math.abs(longValue) < MIN_TIMESTAMP;
+        }
+        if (Utils.isWrapperType(value.getClass())) {
+            return true;
+        }
+        if (value instanceof String) {
+            final String string = (String) value;
+            return !IDENTITY_STRING.matcher(string).find() &&
+                    !DATE_OR_TIME.matcher(string).find() &&
+                    !UUID.matcher(string).find();
+        }
+        if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (!isKnownAsDeterministic(Array.get(value, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().allMatch(DeterministicValues::isKnownAsDeterministic);
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).entrySet().stream()
+                    .allMatch(entry -> isKnownAsDeterministic(entry.getKey()) && isKnownAsDeterministic(entry.getValue()));
+        }
+        // the equality of other objects might be their identity
+        return false;
+    }
+}
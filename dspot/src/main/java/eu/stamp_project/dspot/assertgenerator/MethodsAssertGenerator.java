@@ -2,6 +2,7 @@ package eu.stamp_project.dspot.assertgenerator;
 
 import eu.stamp_project.compare.ObjectLog;
 import eu.stamp_project.compare.Observation;
+import eu.stamp_project.compare.ObservationPoint;
 import eu.stamp_project.dspot.AmplificationException;
 import eu.stamp_project.test_framework.TestFramework;
 import eu.stamp_project.testrunner.listener.TestResult;
@@ -25,12 +26,10 @@ import spoon.reflect.factory.Factory;
 import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.filter.TypeFilter;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * Created by Benjamin DANGLOT
@@ -41,6 +40,9 @@ public class MethodsAssertGenerator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodsAssertGenerator.class);
 
+    // the number of runs of the instrumented tests that observed values that might not be deterministic
+    private static final int NUMBER_OF_RUNS_OF_SUSPECT_TESTS = 3;
+
     private CtType originalClass;
 
     private Factory factory;
@@ -69,15 +71,55 @@ public class MethodsAssertGenerator {
      * Details in {@link AssertGeneratorHelper#createTestWithLog(CtMethod, String, List)}.
      * <p>
      * <p>Details of the assertion generation in {@link #buildTestWithAssert(CtMethod, Map)}.
+     * <p>
+     * <p>The instrumented tests are compiled and run on their own. It is used by {@link AssertGenerator} when the tests
+     * cannot be compiled and run along with their instrumented copies.
      *
      * @param testClass Test class
      * @param testCases Passing test methods
      * @return New tests with new assertions generated from observation points values
      */
     public List<CtMethod<?>> addAssertions(CtType<?> testClass, List<CtMethod<?>> testCases) {
-        CtType clone = testClass.clone();
-        testClass.getPackage().addType(clone);
-        LOGGER.info("Add observations points in passing tests.");
+        CtType clone = CloneHelper.cloneTestClassAndAddOnlyGivenTest(testClass, Collections.emptyList());
+        final List<CtMethod<?>> testsToRun = this.addInstrumentedTests(clone, testCases);
+        if (testsToRun.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ObjectLog.reset();
+
+        // compile and run tests with added logs
+        LOGGER.info("Run instrumented tests. ({})", testsToRun.size());
+        try {
+            final TestResult result = TestCompiler.compileAndRun(
+                    clone,
+                    this.compiler,
+                    testsToRun,
+                    this.configuration
+            );
+            if (!result.getFailingTests().isEmpty()) {
+                LOGGER.warn("Some instrumented test failed!");
+            }
+        } catch (AmplificationException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        // add assertions with values retrieved from logs in tests
+        final Map<String, Map<String, Observation>> observations = this.readObservations(clone, testsToRun);
+        return this.buildTestsWithAssert(testCases, observations);
+    }
+
+    /**
+     * Adds to the given test class an instrumented copy of each given test method, and the method that saves the observations.
+     * The instrumented copies can then be compiled along with the test methods themselves, and run after them,
+     * see {@link AssertGenerator#assertionAmplification(CtType, List)}.
+     *
+     * @param testClass Test class, that contains the given test methods
+     * @param testCases Test methods to be observed
+     * @return the instrumented copies of the test methods, to be run, or an empty list if all the instrumented test have an empty body
+     */
+    List<CtMethod<?>> addInstrumentedTests(CtType<?> testClass, List<CtMethod<?>> testCases) {
+        LOGGER.info("Add observations points in tests.");
         LOGGER.info("Instrumentation...");
 
         // add logs in tests to observe state of tested program
@@ -98,42 +140,80 @@ public class MethodsAssertGenerator {
         }
 
         // clone and set up tests with added logs
-        final List<CtMethod<?>> testsToRun = new ArrayList<>();
-        IntStream.range(0, 3).forEach(i -> testsToRun.addAll(
-                testCasesWithLogs.stream()
+        final List<CtMethod<?>> testsToRun = testCasesWithLogs.stream()
 
                 	//Optimization: Tracking cloned test methods using AmplificationHelper as candidates
                 	//for caching their associated Test Framework
-                        .map(CloneHelper::cloneMethod)
-                        .peek(ctMethod -> ctMethod.setSimpleName(ctMethod.getSimpleName() + i))
-                        .peek(clone::addMethod)
-                        .collect(Collectors.toList())
-        ));
-        ObjectLog.reset();
+                .map(CloneHelper::cloneMethod)
+                .peek(testClass::addMethod)
+                .collect(Collectors.toList());
+        TestFramework.get().generateAfterClassToSaveObservations(testClass, testsToRun);
+        return testsToRun;
+    }
 
-        // compile and run tests with added logs
-        LOGGER.info("Run instrumented tests. ({})", testsToRun.size());
-        TestFramework.get().generateAfterClassToSaveObservations(clone, testsToRun);
+    /**
+     * Reads the observations of the given instrumented test methods, that have just been run once.
+     * <p>
+     * <p>The values that are known as deterministic, see {@link DeterministicValues}, are taken as they are.
+     * The instrumented test methods that observed other values are run twice more, in the test class as it has been compiled,
+     * so that the values that change from a run to another are found and not asserted.
+     * <p>
+     * <p>Each run again is a new launch of the test runner, see {@link TestCompiler#run(CtType, DSpotCompiler, List, InputConfiguration)}:
+     * the tests are not run again in the JVM of DSpot, since the values must be observed in a fresh state of the program,
+     * and the observations of a run are saved by the test class itself, after all its test methods.
+     * Only the suspect test methods are run again, and they are not compiled again.
+     *
+     * @param testClass         Test class, already compiled and run
+     * @param instrumentedTests Instrumented test methods, in the test class
+     * @return the observations, by id of observation point, by name of test method
+     */
+    Map<String, Map<String, Observation>> readObservations(CtType<?> testClass, List<CtMethod<?>> instrumentedTests) {
+        final Map<String, Map<String, Observation>> observations = ObjectLog.getObservationsByTestMethod();
+        final List<CtMethod<?>> testsToRunAgain = instrumentedTests.stream()
+                .filter(instrumentedTest -> {
+                    final Map<String, Observation> observationsOfTest = observations.get(getNameOfObservedTest(instrumentedTest));
+                    return observationsOfTest != null && !DeterministicValues.areKnownAsDeterministic(observationsOfTest);
+                }).collect(Collectors.toList());
+        if (testsToRunAgain.isEmpty()) {
+            return observations;
+        }
+        LOGGER.info("Run again instrumented tests that observed values that might not be deterministic. ({})", testsToRunAgain.size());
         try {
-            final TestResult result = TestCompiler.compileAndRun(
-                    clone,
-                    this.compiler,
-                    testsToRun,
-                    this.configuration
-            );
-            if (!result.getFailingTests().isEmpty()) {
-                LOGGER.warn("Some instrumented test failed!");
+            for (int i = 1; i < NUMBER_OF_RUNS_OF_SUSPECT_TESTS; i++) {
+                TestCompiler.run(testClass, this.compiler, testsToRunAgain, this.configuration);
             }
         } catch (AmplificationException e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            // the values that have been observed once cannot be trusted
+            LOGGER.warn("Error when running again instrumented tests: {}", e.getMessage());
+            testsToRunAgain.stream()
+                    .map(MethodsAssertGenerator::getNameOfObservedTest)
+                    .forEach(observations::remove);
+            return observations;
         }
+        return ObjectLog.getObservationsByTestMethod();
+    }
 
-        // add assertions with values retrieved from logs in tests
-        Map<String, Observation> observations = ObjectLog.getObservations();
+    private static String getNameOfObservedTest(CtMethod<?> instrumentedTest) {
+        final String name = instrumentedTest.getSimpleName();
+        return name.substring(0, name.length() - AssertGeneratorHelper.SUFFIX_OF_TEST_WITH_LOG.length());
+    }
+
+    /**
+     * Adds new assertions in multiple tests, from the observations of their instrumented copies.
+     *
+     * @param testCases    Passing test methods
+     * @param observations Observation points, by test method name and by id, see {@link ObjectLog#getObservationsByTestMethod()}
+     * @return New tests with new assertions generated from observation points values
+     */
+    List<CtMethod<?>> buildTestsWithAssert(List<CtMethod<?>> testCases, Map<String, Map<String, Observation>> observations) {
         LOGGER.info("Generating assertions...");
+        // each test method only visits its own observations, grouped when the log has been read.
+        // The assertions are built sequentially: they are built with the factory of Spoon, that is not thread-safe,
+        // and the clones are numbered in the order of the test methods
         return testCases.stream()
-                .map(ctMethod -> this.buildTestWithAssert(ctMethod, observations))
+                .map(ctMethod -> this.buildTestWithAssert(ctMethod,
+                        observations.getOrDefault(ctMethod.getSimpleName(), Collections.emptyMap()))
+                )
                 .collect(Collectors.toList());
     }
 
@@ -141,7 +221,7 @@ public class MethodsAssertGenerator {
      * Adds new assertions to a test from observation points.
      *
      * @param test         Test method
-     * @param observations Observation points of the test suite
+     * @param observations Observation points of the test, by id, each one with its {@link ObservationPoint}
      * @return Test with new assertions
      */
     @SuppressWarnings("unchecked")
@@ -149,27 +229,33 @@ public class MethodsAssertGenerator {
         CtMethod testWithAssert = CloneHelper.cloneTestMethodForAmp(test, "");
         int numberOfAddedAssertion = 0;
         List<CtStatement> statements = Query.getElements(testWithAssert, new TypeFilter(CtStatement.class));
+        final double delta = Double.parseDouble(configuration.getDelta());
+        String lastStatement = null;
+        int numberOfAssertionWhenLastStatement = -1;
 
         // for every observation, create an assertion
-        for (String id : observations.keySet()) {
-            if (!id.split("__")[0].equals(testWithAssert.getSimpleName())) {
-                continue;
-            }
+        for (Observation observation : observations.values()) {
+            final ObservationPoint point = observation.getPoint();
             final List<CtStatement> assertStatements = AssertBuilder.buildAssert(
                     test,
-                    observations.get(id).getNotDeterministValues(),
-                    observations.get(id).getObservationValues(),
-                    Double.parseDouble(configuration.getDelta())
+                    observation.getNotDeterministValues(),
+                    observation.getObservationValues(),
+                    delta
             );
 
-            // skip the current observation if it leads to an assertion identical to the last assertion put into the test method
+            // skip the current observation if it leads to an assertion identical to the last assertion put into the test method.
+            // The last statement is printed again only if assertions have been added since
+            if (numberOfAssertionWhenLastStatement != numberOfAddedAssertion) {
+                lastStatement = testWithAssert.getBody().getLastStatement().toString();
+                numberOfAssertionWhenLastStatement = numberOfAddedAssertion;
+            }
             if (assertStatements.stream()
                     .map(Object::toString)
                     .map("// AssertGenerator add assertion\n"::concat)
-                    .anyMatch(testWithAssert.getBody().getLastStatement().toString()::equals)) {
+                    .anyMatch(lastStatement::equals)) {
                 continue;
             }
-            int line = Integer.parseInt(id.split("__")[1]);
+            int line = point.getStatementIndex();
             CtStatement lastStmt = null;
             for (CtStatement assertStatement : assertStatements) {
                 DSpotUtils.addComment(assertStatement, "AssertGenerator add assertion", CtComment.CommentType.INLINE);
@@ -192,7 +278,7 @@ public class MethodsAssertGenerator {
                         CtInvocation invocationToBeReplaced = (CtInvocation) statementToBeAsserted.clone();
                         final CtLocalVariable localVariable = factory.createLocalVariable(
                                 AssertGeneratorHelper.getCorrectTypeOfInvocation(invocationToBeReplaced),
-                                "o_" + id.split("___")[0],
+                                "o_" + point.getStatementId(),
                                 invocationToBeReplaced
                         );
 
@@ -200,13 +286,13 @@ public class MethodsAssertGenerator {
                         statementToBeAsserted.replace(localVariable);
                         DSpotUtils.addComment(localVariable, "AssertGenerator create local variable with return value of invocation", CtComment.CommentType.INLINE);
                         localVariable.setParent(statementToBeAsserted.getParent());
-                        addAtCorrectPlace(id, localVariable, assertStatement, statementToBeAsserted);
+                        addAtCorrectPlace(point, localVariable, assertStatement, statementToBeAsserted);
                         statements.remove(line);
                         statements.add(line, localVariable);
 
                         // no creation of local variable is needed, just put the assertion into the test method
                     } else {
-                        addAtCorrectPlace(id, lastStmt, assertStatement, statementToBeAsserted);
+                        addAtCorrectPlace(point, lastStmt, assertStatement, statementToBeAsserted);
                     }
                     lastStmt = assertStatement;
                     numberOfAddedAssertion++;
@@ -224,11 +310,11 @@ public class MethodsAssertGenerator {
         }
     }
 
-    private void addAtCorrectPlace(String id,
+    private void addAtCorrectPlace(ObservationPoint point,
                                    CtStatement lastStmt,
                                    CtStatement assertStatement,
                                    CtStatement statementToBeAsserted) {
-        if (id.endsWith("end")) {
+        if (point.isEnd()) {
             statementToBeAsserted.getParent(CtBlock.class).insertEnd(assertStatement);
         } else {
             lastStmt.insertAfter(assertStatement);
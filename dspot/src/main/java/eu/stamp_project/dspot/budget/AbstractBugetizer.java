@@ -1,9 +1,18 @@
 package eu.stamp_project.dspot.budget;
 
+import eu.stamp_project.dspot.amplifier.AmplifiedTestDelta;
 import eu.stamp_project.dspot.amplifier.Amplifier;
 import eu.stamp_project.utils.program.InputConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * created by Benjamin DANGLOT
@@ -12,8 +21,17 @@ import java.util.List;
  */
 public abstract class AbstractBugetizer implements Budgetizer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractBugetizer.class);
+
     protected List<Amplifier> amplifiers;
 
+    /*
+        The structural hashes of the test methods already seen during the amplification of the current test class,
+        i.e. the test methods to be amplified, the amplified test methods and the kept ones.
+        An amplified test method that has the same hash than one of them is a duplicate, and is not compiled nor run.
+     */
+    private final Set<String> structuralHashes = new HashSet<>();
+
     public AbstractBugetizer() {
         this.amplifiers = InputConfiguration.get().getAmplifiers();
     }
@@ -22,4 +40,54 @@ public abstract class AbstractBugetizer implements Budgetizer {
         this.amplifiers = amplifiers;
     }
 
+    @Override
+    public void reset(CtType<?> testClass) {
+        this.structuralHashes.clear();
+    }
+
+    @Override
+    public void notifySelection(List<CtMethod<?>> amplifiedTestMethodsToKeep) {
+        this.registerAll(amplifiedTestMethodsToKeep);
+    }
+
+    /**
+     * @return true if no test method with the same structure has been seen yet, see {@link StructuralHash}
+     */
+    protected boolean isNew(CtMethod<?> testMethod) {
+        return this.structuralHashes.add(StructuralHash.of(testMethod));
+    }
+
+    /**
+     * Removes the amplified test methods that have the same structure than another amplified test method,
+     * than one of the test methods to be amplified, or than one of the test methods seen before.
+     * The returned amplified test methods are not registered as seen, since they might be reduced afterward,
+     * see {@link #registerAll(List)}.
+     *
+     * @param testMethods the test methods to be amplified
+     * @param amplifiedTestMethods the amplified test methods
+     * @return the amplified test methods without duplicates
+     */
+    protected List<AmplifiedTestDelta> removeDuplicates(List<CtMethod<?>> testMethods, List<AmplifiedTestDelta> amplifiedTestMethods) {
+        this.registerAll(testMethods);
+        final List<String> hashes = amplifiedTestMethods.parallelStream()
+                .map(amplifiedTestMethod -> amplifiedTestMethod.computeOnAmplifiedTestMethod(StructuralHash::of))
+                .collect(Collectors.toList());
+        final Set<String> hashesOfNewAmplifiedTestMethods = new HashSet<>();
+        final List<AmplifiedTestDelta> newAmplifiedTestMethods = new ArrayList<>();
+        for (int i = 0; i < amplifiedTestMethods.size(); i++) {
+            if (!this.structuralHashes.contains(hashes.get(i)) && hashesOfNewAmplifiedTestMethods.add(hashes.get(i))) {
+                newAmplifiedTestMethods.add(amplifiedTestMethods.get(i));
+            }
+        }
+        if (newAmplifiedTestMethods.size() < amplifiedTestMethods.size()) {
+            LOGGER.info("{} duplicated amplified test methods have been removed",
+                    amplifiedTestMethods.size() - newAmplifiedTestMethods.size());
+        }
+        return newAmplifiedTestMethods;
+    }
+
+    protected void registerAll(List<CtMethod<?>> testMethods) {
+        testMethods.forEach(this::isNew);
+    }
+
 }
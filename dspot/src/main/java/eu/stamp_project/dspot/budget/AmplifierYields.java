@@ -0,0 +1,119 @@
+package eu.stamp_project.dspot.budget;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import eu.stamp_project.utils.json.AmplifierYieldJSON;
+import eu.stamp_project.utils.json.ProjectAmplifierYieldsJSON;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The yields of the amplifiers, i.e. how many of the amplified test methods they generated have been kept by the test selector.
+ * They are stored in the output directory, next to the json file of the time of amplification of the test classes,
+ * and loaded again by the next runs of DSpot on the same project.
+ *
+ * The yields are shared by all the budgetizers that amplify the same project.
+ */
+public class AmplifierYields {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AmplifierYields.class);
+
+    private static final String SUFFIX_JSON_FILE = "_amplifiers.json";
+
+    /*
+        The weight, in number of amplified test methods, of the yield of an amplifier on the whole project,
+        when it is used as the prior of its yield on a test class.
+     */
+    private static final double WEIGHT_OF_PROJECT_YIELD = 20.0D;
+
+    private static final Map<String, AmplifierYields> YIELDS_PER_JSON_FILE = new HashMap<>();
+
+    private final File jsonFile;
+
+    private final ProjectAmplifierYieldsJSON yields;
+
+    AmplifierYields(File jsonFile, String projectName) {
+        this.jsonFile = jsonFile;
+        this.yields = load(jsonFile, projectName);
+    }
+
+    /**
+     * @return the yields of the amplifiers on the current project, loaded from the output directory if they exist
+     */
+    public static synchronized AmplifierYields get() {
+        final String projectName = new File(InputConfiguration.get().getAbsolutePathToProjectRoot()).getName();
+        final File jsonFile = new File(InputConfiguration.get().getOutputDirectory(), projectName + SUFFIX_JSON_FILE);
+        return YIELDS_PER_JSON_FILE.computeIfAbsent(jsonFile.getAbsolutePath(), path -> new AmplifierYields(jsonFile, projectName));
+    }
+
+    public synchronized void addGenerated(String testClass, String amplifier, int numberOfAmplifiedTestMethods) {
+        this.yieldOf(testClass, amplifier).generated += numberOfAmplifiedTestMethods;
+        this.yields.amplifiers.computeIfAbsent(amplifier, key -> new AmplifierYieldJSON()).generated += numberOfAmplifiedTestMethods;
+    }
+
+    public synchronized void addKept(String testClass, String amplifier, int numberOfAmplifiedTestMethods) {
+        this.yieldOf(testClass, amplifier).kept += numberOfAmplifiedTestMethods;
+        this.yields.amplifiers.computeIfAbsent(amplifier, key -> new AmplifierYieldJSON()).kept += numberOfAmplifiedTestMethods;
+    }
+
+    /**
+     * The probability that an amplified test method generated by the given amplifier is kept follows a Beta distribution.
+     * Its prior is the yield of the amplifier on the whole project, weighted as {@link #WEIGHT_OF_PROJECT_YIELD} amplified test methods,
+     * and it is updated with the yield of the amplifier on the given test class.
+     *
+     * @return the parameters alpha and beta of the Beta distribution
+     */
+    public synchronized double[] getBetaDistribution(String testClass, String amplifier) {
+        final AmplifierYieldJSON yieldOnProject = this.yields.amplifiers.getOrDefault(amplifier, new AmplifierYieldJSON());
+        final AmplifierYieldJSON yieldOnTestClass = this.yieldOf(testClass, amplifier);
+        final double rateOnProject = (yieldOnProject.kept + 1.0D) / (yieldOnProject.generated + 2.0D);
+        return new double[]{
+                1.0D + yieldOnTestClass.kept + WEIGHT_OF_PROJECT_YIELD * rateOnProject,
+                1.0D + (yieldOnTestClass.generated - yieldOnTestClass.kept) + WEIGHT_OF_PROJECT_YIELD * (1.0D - rateOnProject)
+        };
+    }
+
+    private AmplifierYieldJSON yieldOf(String testClass, String amplifier) {
+        return this.yields.testClasses
+                .computeIfAbsent(testClass, key -> new LinkedHashMap<>())
+                .computeIfAbsent(amplifier, key -> new AmplifierYieldJSON());
+    }
+
+    public synchronized void save() {
+        final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        if (!this.jsonFile.getParentFile().exists()) {
+            this.jsonFile.getParentFile().mkdirs();
+        }
+        try (FileWriter writer = new FileWriter(this.jsonFile, false)) {
+            writer.write(gson.toJson(this.yields));
+        } catch (IOException e) {
+            LOGGER.warn("Could not write the yields of the amplifiers in {}: {}", this.jsonFile.getPath(), e.getMessage());
+        }
+    }
+
+    private static ProjectAmplifierYieldsJSON load(File jsonFile, String projectName) {
+        if (jsonFile.exists()) {
+            final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (Reader reader = new FileReader(jsonFile)) {
+                final ProjectAmplifierYieldsJSON yields = gson.fromJson(reader, ProjectAmplifierYieldsJSON.class);
+                if (yields != null && yields.amplifiers != null && yields.testClasses != null) {
+                    LOGGER.info("Yields of the amplifiers loaded from {}", jsonFile.getPath());
+                    return yields;
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Could not read the yields of the amplifiers in {}: {}", jsonFile.getPath(), e.getMessage());
+            }
+        }
+        return new ProjectAmplifierYieldsJSON(projectName);
+    }
+}
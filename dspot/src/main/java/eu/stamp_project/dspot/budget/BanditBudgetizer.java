@@ -0,0 +1,173 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.dspot.amplifier.Amplifier;
+import eu.stamp_project.dspot.amplifier.RoundRobinIterator;
+import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.RandomHelper;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * This budgetizer learns which amplifiers generate amplified test methods that are kept by the test selector,
+ * and gives them more of the budget.
+ *
+ * Each amplifier is an arm of a multi-armed bandit: the probability that an amplified test method it generates is kept
+ * follows a Beta distribution, see {@link AmplifierYields#getBetaDistribution(String, String)}.
+ * Each amplified test method of the budget is given to the amplifier that draws the highest probability (Thompson sampling),
+ * so that the productive amplifiers get most of the budget, while the others are still tried from time to time.
+ * The yields are updated with the amplified test methods kept by the test selector, and persisted across runs.
+ */
+public class BanditBudgetizer extends AbstractBugetizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BanditBudgetizer.class);
+
+    /**
+     * Key of the metadata that holds the amplifier that generated an amplified test method
+     */
+    public static final String METADATA_AMPLIFIER = "dspot.amplifier";
+
+    private final AmplifierYields yields;
+
+    private String testClass = "";
+
+    public BanditBudgetizer() {
+        super();
+        this.yields = AmplifierYields.get();
+    }
+
+    public BanditBudgetizer(List<Amplifier> amplifiers) {
+        this(amplifiers, AmplifierYields.get());
+    }
+
+    BanditBudgetizer(List<Amplifier> amplifiers, AmplifierYields yields) {
+        super(amplifiers);
+        this.yields = yields;
+    }
+
+    @Override
+    public void reset(CtType<?> testClass) {
+        super.reset(testClass);
+        this.testClass = testClass.getQualifiedName();
+    }
+
+    /**
+     * Input amplification of multiple tests.
+     * The amplified test methods are pulled lazily from the amplifier chosen for each of them, see {@link BanditBudgetizer}.
+     *
+     * @param testMethods Test methods
+     * @return New generated tests
+     */
+    @Override
+    public List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int iteration) {
+        LOGGER.info("Amplification of inputs...");
+        final int budget = InputConfiguration.get().getMaxTestAmplified();
+        final Map<String, Iterator<CtMethod<?>>> amplificationPerAmplifier = new LinkedHashMap<>();
+        for (Amplifier amplifier : this.amplifiers) {
+            amplificationPerAmplifier.put(getName(amplifier), new RoundRobinIterator<>(testMethods.stream()
+                    .map(testMethod -> amplifier.amplifyLazily(testMethod, iteration))
+                    .collect(Collectors.toList())
+            ));
+        }
+        final Map<String, Integer> numberOfAmplifiedTestMethodsPerAmplifier = new LinkedHashMap<>();
+        final List<CtMethod<?>> amplifiedTestMethods = new ArrayList<>();
+        this.registerAll(testMethods);
+        while (amplifiedTestMethods.size() < budget && !amplificationPerAmplifier.isEmpty()) {
+            DSpotUtils.printProgress(amplifiedTestMethods.size(), budget);
+            final String amplifier = this.drawAmplifier(new ArrayList<>(amplificationPerAmplifier.keySet()), RandomHelper.getRandom());
+            final Iterator<CtMethod<?>> amplification = amplificationPerAmplifier.get(amplifier);
+            if (!amplification.hasNext()) {
+                amplificationPerAmplifier.remove(amplifier);
+                continue;
+            }
+            final CtMethod<?> amplifiedTestMethod = amplification.next();
+            // the duplicates are not counted in the budget, nor in the yield of the amplifier
+            if (!this.isNew(amplifiedTestMethod)) {
+                continue;
+            }
+            amplifiedTestMethod.putMetadata(METADATA_AMPLIFIER, amplifier);
+            amplifiedTestMethods.add(amplifiedTestMethod);
+            numberOfAmplifiedTestMethodsPerAmplifier.merge(amplifier, 1, Integer::sum);
+        }
+        numberOfAmplifiedTestMethodsPerAmplifier.forEach((amplifier, numberOfAmplifiedTestMethods) ->
+                this.yields.addGenerated(this.testClass, amplifier, numberOfAmplifiedTestMethods)
+        );
+        LOGGER.info("{} new tests generated: {}", amplifiedTestMethods.size(), numberOfAmplifiedTestMethodsPerAmplifier);
+        return amplifiedTestMethods;
+    }
+
+    @Override
+    public void notifySelection(List<CtMethod<?>> amplifiedTestMethodsToKeep) {
+        super.notifySelection(amplifiedTestMethodsToKeep);
+        final Map<String, Integer> numberOfKeptTestMethodsPerAmplifier = new HashMap<>();
+        for (CtMethod<?> amplifiedTestMethod : amplifiedTestMethodsToKeep) {
+            final Object amplifier = amplifiedTestMethod.getMetadata(METADATA_AMPLIFIER);
+            if (amplifier != null) {
+                numberOfKeptTestMethodsPerAmplifier.merge((String) amplifier, 1, Integer::sum);
+            }
+        }
+        numberOfKeptTestMethodsPerAmplifier.forEach((amplifier, numberOfKeptTestMethods) ->
+                this.yields.addKept(this.testClass, amplifier, numberOfKeptTestMethods)
+        );
+        this.yields.save();
+    }
+
+    /*
+        Thompson sampling: draws a probability for each amplifier, and returns the one with the highest
+     */
+    String drawAmplifier(List<String> amplifiers, Random random) {
+        String bestAmplifier = null;
+        double highestProbability = -1.0D;
+        for (String amplifier : amplifiers) {
+            final double[] betaDistribution = this.yields.getBetaDistribution(this.testClass, amplifier);
+            final double probability = drawBeta(betaDistribution[0], betaDistribution[1], random);
+            if (probability > highestProbability) {
+                highestProbability = probability;
+                bestAmplifier = amplifier;
+            }
+        }
+        return bestAmplifier;
+    }
+
+    private static double drawBeta(double alpha, double beta, Random random) {
+        final double x = drawGamma(alpha, random);
+        final double y = drawGamma(beta, random);
+        return x / (x + y);
+    }
+
+    /*
+        Marsaglia and Tsang's method, for a shape greater or equal to 1, which is always the case here
+     */
+    private static double drawGamma(double shape, Random random) {
+        final double d = shape - 1.0D / 3.0D;
+        final double c = 1.0D / Math.sqrt(9.0D * d);
+        while (true) {
+            double x;
+            double v;
+            do {
+                x = random.nextGaussian();
+                v = 1.0D + c * x;
+            } while (v <= 0.0D);
+            v = v * v * v;
+            final double u = random.nextDouble();
+            if (u < 1.0D - 0.0331D * x * x * x * x || Math.log(u) < 0.5D * x * x + d * (1.0D - v + Math.log(v))) {
+                return d * v;
+            }
+        }
+    }
+
+    private static String getName(Amplifier amplifier) {
+        return amplifier.getClass().getSimpleName();
+    }
+}
@@ -1,6 +1,7 @@
 package eu.stamp_project.dspot.budget;
 
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
 
 import java.util.List;
 
@@ -13,4 +14,20 @@ public interface Budgetizer {
 
     List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int iteration);
 
+    /**
+     * Called before the input amplification of the test methods of the given test class.
+     * @param testClass the test class to be amplified
+     */
+    default void reset(CtType<?> testClass) {
+
+    }
+
+    /**
+     * Called with the amplified test methods kept by the test selector, after each input amplification.
+     * @param amplifiedTestMethodsToKeep the amplified test methods kept by the test selector
+     */
+    default void notifySelection(List<CtMethod<?>> amplifiedTestMethodsToKeep) {
+
+    }
+
 }
@@ -0,0 +1,150 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.dspot.amplifier.AmplifiedTestDelta;
+import eu.stamp_project.dspot.amplifier.Amplifier;
+import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.reflect.declaration.CtMethod;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reduces the amplified test methods to a diverse subset, using the {@link MinHashSignature} of their abstract syntax tree.
+ * The signatures are computed right after the input amplification, without printing the test methods,
+ * and the amplified test methods are grouped by locality-sensitive hashing on the bands of their signatures.
+ */
+public class MinHashBudgetizer extends AbstractBugetizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MinHashBudgetizer.class);
+
+    public MinHashBudgetizer() {
+        super();
+    }
+
+    public MinHashBudgetizer(List<Amplifier> amplifiers) {
+        super(amplifiers);
+    }
+
+    /**
+     * Input amplification of multiple tests.
+     *
+     * @param testMethods Test methods
+     * @return New generated tests
+     */
+    @Override
+    public List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int i) {
+        LOGGER.info("Amplification of inputs...");
+        List<AmplifiedTestDelta> inputAmplifiedTests = testMethods.parallelStream()
+                .flatMap(test -> {
+                    final Stream<AmplifiedTestDelta> inputAmplifiedTestMethods = this.amplifiers.parallelStream()
+                            .flatMap(amplifier -> amplifier.amplifyAsDeltas(test, i));
+                    DSpotUtils.printProgress(testMethods.indexOf(test), testMethods.size());
+                    return inputAmplifiedTestMethods;
+                }).collect(Collectors.toList());
+        LOGGER.info("{} new tests generated", inputAmplifiedTests.size());
+        // only the amplified tests that are kept are built
+        final List<CtMethod<?>> reducedTests = reduceDeltas(this.removeDuplicates(testMethods, inputAmplifiedTests))
+                .stream()
+                .map(AmplifiedTestDelta::materialize)
+                .collect(Collectors.toList());
+        this.registerAll(reducedTests);
+        return reducedTests;
+    }
+
+    /**
+     * Reduces the number of amplified tests to a practical threshold (see {@link InputConfiguration#getMaxTestAmplified()}).
+     * <p>
+     * The amplified tests are taken in three rounds, until the threshold is reached:
+     * <ol>
+     *     <li>one amplified test per group of similar amplified tests, i.e. the amplified tests that do not share
+     *     a band of their signature with an amplified test already taken;</li>
+     *     <li>the amplified tests that do not have the same signature than an amplified test already taken;</li>
+     *     <li>the remaining amplified tests.</li>
+     * </ol>
+     * Each round is linear in the number of amplified tests, since the bands of the selected signatures are kept in hash sets.
+     *
+     * @param tests List of tests to be reduced
+     * @return A subset of the input tests
+     */
+    public List<CtMethod<?>> reduce(List<CtMethod<?>> tests) {
+        return this.reduceDeltas(tests.stream().map(AmplifiedTestDelta::of).collect(Collectors.toList()))
+                .stream()
+                .map(AmplifiedTestDelta::materialize)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * See {@link #reduce(List)}. The signatures of the amplified tests are computed without building them.
+     */
+    private List<AmplifiedTestDelta> reduceDeltas(List<AmplifiedTestDelta> tests) {
+        final int maxTestAmplified = InputConfiguration.get().getMaxTestAmplified();
+        if (tests.size() <= maxTestAmplified) {
+            return tests;
+        }
+        LOGGER.warn("Too many tests have been generated: {}", tests.size());
+        final long time = System.currentTimeMillis();
+        final List<MinHashSignature> signatures = tests.parallelStream()
+                .map(test -> test.computeOnAmplifiedTestMethod(MinHashSignature::of))
+                .collect(Collectors.toList());
+        final List<Integer> indices = reduce(signatures, maxTestAmplified);
+        final List<AmplifiedTestDelta> reducedTests = indices.stream().map(tests::get).collect(Collectors.toList());
+        LOGGER.info("Number of generated test reduced to {} in {} ms", reducedTests.size(), System.currentTimeMillis() - time);
+        return reducedTests;
+    }
+
+    /**
+     * @return the indices of the selected signatures, in the order of their selection
+     */
+    static List<Integer> reduce(List<MinHashSignature> signatures, int maxTestAmplified) {
+        final List<Integer> selectedIndices = new ArrayList<>();
+        final boolean[] isSelected = new boolean[signatures.size()];
+
+        // first round: one per bucket of similar signatures, i.e. the ones that do not share a band with a selected one
+        final List<Set<Long>> selectedBandKeys = new ArrayList<>();
+        for (int band = 0; band < MinHashSignature.NUMBER_OF_BANDS; band++) {
+            selectedBandKeys.add(new HashSet<>());
+        }
+        for (int i = 0; i < signatures.size() && selectedIndices.size() < maxTestAmplified; i++) {
+            final MinHashSignature signature = signatures.get(i);
+            boolean isSimilarToASelectedOne = false;
+            for (int band = 0; band < MinHashSignature.NUMBER_OF_BANDS && !isSimilarToASelectedOne; band++) {
+                isSimilarToASelectedOne = selectedBandKeys.get(band).contains(signature.getBandKey(band));
+            }
+            if (!isSimilarToASelectedOne) {
+                select(i, selectedIndices, isSelected);
+                for (int band = 0; band < MinHashSignature.NUMBER_OF_BANDS; band++) {
+                    selectedBandKeys.get(band).add(signature.getBandKey(band));
+                }
+            }
+        }
+
+        // second round: the signatures that have not been selected yet
+        final Set<MinHashSignature> selectedSignatures = new HashSet<>();
+        selectedIndices.forEach(index -> selectedSignatures.add(signatures.get(index)));
+        for (int i = 0; i < signatures.size() && selectedIndices.size() < maxTestAmplified; i++) {
+            if (!isSelected[i] && selectedSignatures.add(signatures.get(i))) {
+                select(i, selectedIndices, isSelected);
+            }
+        }
+
+        // last round: the remaining ones, in their order
+        for (int i = 0; i < signatures.size() && selectedIndices.size() < maxTestAmplified; i++) {
+            if (!isSelected[i]) {
+                select(i, selectedIndices, isSelected);
+            }
+        }
+        return selectedIndices;
+    }
+
+    private static void select(int index, List<Integer> selectedIndices, boolean[] isSelected) {
+        selectedIndices.add(index);
+        isSelected[index] = true;
+    }
+}
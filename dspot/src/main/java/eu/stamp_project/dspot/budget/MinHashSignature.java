@@ -0,0 +1,139 @@
+package eu.stamp_project.dspot.budget;
+
+import spoon.reflect.code.CtBinaryOperator;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtUnaryOperator;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.reference.CtReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static eu.stamp_project.utils.HashHelper.FNV_PRIME;
+import static eu.stamp_project.utils.HashHelper.GOLDEN_RATIO;
+import static eu.stamp_project.utils.HashHelper.mix;
+
+/**
+ * The MinHash signature of the body of a test method.
+ *
+ * The body is read as a sequence of tokens, one per element of its abstract syntax tree, in the order of a scan.
+ * Each token is made of the kind of the element, and of its literal value, name or operator if any.
+ * The shingles are the sequences of {@link #SHINGLE_SIZE} consecutive tokens.
+ * The signature keeps, for each one of {@link #SIZE} hash functions, the minimum hash of the shingles, so that the
+ * proportion of equal values of two signatures estimates the Jaccard similarity of their sets of shingles.
+ *
+ * The signature is split into {@link #NUMBER_OF_BANDS} bands: two similar test methods are likely to have at least one
+ * equal band, which is used to find them without comparing all the signatures pairwise.
+ */
+public class MinHashSignature {
+
+    public static final int SIZE = 64;
+
+    public static final int NUMBER_OF_BANDS = 16;
+
+    private static final int ROWS_PER_BAND = SIZE / NUMBER_OF_BANDS;
+
+    private static final int SHINGLE_SIZE = 3;
+
+    private static final long[] SEEDS = new long[SIZE];
+
+    static {
+        long seed = 0x2545f4914f6cdd1dL;
+        for (int i = 0; i < SIZE; i++) {
+            seed = mix(seed + GOLDEN_RATIO);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final int[] values;
+
+    private final long[] bandKeys;
+
+    private MinHashSignature(int[] values) {
+        this.values = values;
+        this.bandKeys = new long[NUMBER_OF_BANDS];
+        for (int band = 0; band < NUMBER_OF_BANDS; band++) {
+            long key = band;
+            for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+                key = key * FNV_PRIME + values[i];
+            }
+            this.bandKeys[band] = mix(key);
+        }
+    }
+
+    public static MinHashSignature of(CtMethod<?> testMethod) {
+        if (testMethod.getBody() == null) {
+            return of(new int[0]);
+        }
+        final List<CtElement> elements = testMethod.getBody().getElements(new TypeFilter<>(CtElement.class));
+        final int[] tokens = new int[elements.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = token(elements.get(i));
+        }
+        return of(tokens);
+    }
+
+    static MinHashSignature of(int[] tokens) {
+        final int[] values = new int[SIZE];
+        Arrays.fill(values, Integer.MAX_VALUE);
+        final int numberOfShingles = Math.max(1, tokens.length - SHINGLE_SIZE + 1);
+        for (int i = 0; i < numberOfShingles; i++) {
+            long shingle = 0L;
+            for (int j = i; j < Math.min(tokens.length, i + SHINGLE_SIZE); j++) {
+                shingle = shingle * 31L + tokens[j];
+            }
+            for (int k = 0; k < SIZE; k++) {
+                final int hash = (int) (mix(shingle ^ SEEDS[k]) >>> 33);
+                if (hash < values[k]) {
+                    values[k] = hash;
+                }
+            }
+        }
+        return new MinHashSignature(values);
+    }
+
+    private static int token(CtElement element) {
+        final int kind = element.getClass().getName().hashCode();
+        final Object label;
+        if (element instanceof CtLiteral) {
+            label = ((CtLiteral<?>) element).getValue();
+        } else if (element instanceof CtReference) {
+            label = ((CtReference) element).getSimpleName();
+        } else if (element instanceof CtNamedElement) {
+            label = ((CtNamedElement) element).getSimpleName();
+        } else if (element instanceof CtBinaryOperator) {
+            label = ((CtBinaryOperator<?>) element).getKind();
+        } else if (element instanceof CtUnaryOperator) {
+            label = ((CtUnaryOperator<?>) element).getKind();
+        } else {
+            label = null;
+        }
+        return 31 * kind + (label == null ? 0 : String.valueOf(label).hashCode());
+    }
+
+    /**
+     * @return the key of the given band of this signature, two signatures with an equal band have the same key
+     */
+    public long getBandKey(int band) {
+        return this.bandKeys[band];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(this.values, ((MinHashSignature) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.values);
+    }
+}
@@ -1,16 +1,18 @@
 package eu.stamp_project.dspot.budget;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.stamp_project.dspot.amplifier.AmplifiedTestDelta;
 import eu.stamp_project.dspot.amplifier.Amplifier;
 import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.RandomHelper;
 import eu.stamp_project.utils.program.InputConfiguration;
 import spoon.reflect.declaration.CtMethod;
 
@@ -37,9 +39,9 @@ public class RandomBudgetizer extends AbstractBugetizer {
      * @param test Test method
      * @return New generated tests
      */
-    protected Stream<CtMethod<?>> inputAmplifyTest(CtMethod<?> test, int i) {
+    protected Stream<AmplifiedTestDelta> inputAmplifyTest(CtMethod<?> test, int i) {
         return this.amplifiers.parallelStream()
-                .flatMap(amplifier -> amplifier.amplify(test, i));
+                .flatMap(amplifier -> amplifier.amplifyAsDeltas(test, i));
     }
 
     /**
@@ -51,14 +53,20 @@ public class RandomBudgetizer extends AbstractBugetizer {
     @Override
     public List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int i) {
         LOGGER.info("Amplification of inputs...");
-        List<CtMethod<?>> inputAmplifiedTests = testMethods.parallelStream()
+        List<AmplifiedTestDelta> inputAmplifiedTests = testMethods.parallelStream()
                 .flatMap(test -> {
-                    final Stream<CtMethod<?>> inputAmplifiedTestMethods = inputAmplifyTest(test, i);
+                    final Stream<AmplifiedTestDelta> inputAmplifiedTestMethods = inputAmplifyTest(test, i);
                     DSpotUtils.printProgress(testMethods.indexOf(test), testMethods.size());
                     return inputAmplifiedTestMethods;
                 }).collect(Collectors.toList());
         LOGGER.info("{} new tests generated", inputAmplifiedTests.size());
-        return reduce(inputAmplifiedTests);
+        // only the amplified tests that are kept are built
+        final List<CtMethod<?>> reducedTests = reduce(this.removeDuplicates(testMethods, inputAmplifiedTests))
+                .stream()
+                .map(AmplifiedTestDelta::materialize)
+                .collect(Collectors.toList());
+        this.registerAll(reducedTests);
+        return reducedTests;
     }
 
     /**
@@ -70,21 +78,18 @@ public class RandomBudgetizer extends AbstractBugetizer {
      * @return A subset of the input tests
      */
 
-    public List<CtMethod<?>> reduce(List<CtMethod<?>> tests) {
-        final List<CtMethod<?>> reducedTests = new ArrayList<>();
+    public <T> List<T> reduce(List<T> tests) {
         final int maxNumTests = InputConfiguration.get().getMaxTestAmplified();
         final int testsSize = tests.size();
-        if (testsSize > maxNumTests) {
-            Random random = new Random();
-            LOGGER.warn("Too many tests have been generated: {}", testsSize);
-            for (int i=0;i<maxNumTests; i++) {
-                reducedTests.add(tests.get(random.nextInt(testsSize)));
-            }
-            LOGGER.info("Number of generated test reduced to {}", reducedTests.size());
-        }
-        if (reducedTests.isEmpty()) {
-            reducedTests.addAll(tests);
+        if (testsSize <= maxNumTests || maxNumTests <= 0) {
+            return new ArrayList<>(tests);
         }
+        LOGGER.warn("Too many tests have been generated: {}", testsSize);
+        // the tests are taken without replacement, so that the same test is never kept twice
+        final List<T> shuffledTests = new ArrayList<>(tests);
+        Collections.shuffle(shuffledTests, RandomHelper.getRandom());
+        final List<T> reducedTests = new ArrayList<>(shuffledTests.subList(0, maxNumTests));
+        LOGGER.info("Number of generated test reduced to {}", reducedTests.size());
         return reducedTests;
     }
 }
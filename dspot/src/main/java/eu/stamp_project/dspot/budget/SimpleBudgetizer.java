@@ -1,19 +1,16 @@
 package eu.stamp_project.dspot.budget;
 
 import eu.stamp_project.dspot.amplifier.Amplifier;
+import eu.stamp_project.dspot.amplifier.RoundRobinIterator;
 import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.utils.DSpotUtils;
-import eu.stamp_project.utils.RandomHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spoon.reflect.declaration.CtMethod;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Created by Benjamin DANGLOT
@@ -33,6 +30,9 @@ public class SimpleBudgetizer extends AbstractBugetizer {
 
     /**
      * Input amplification of multiple tests.
+     * The amplified test methods are pulled lazily, in turn, from each amplifier applied to each test method,
+     * until the budget is reached. Only the amplified test methods that are kept are built.
+     * The amplified test methods that have the same structure than a test method already seen are skipped.
      *
      * @param testMethods Test methods
      * @return New generated tests
@@ -41,104 +41,27 @@ public class SimpleBudgetizer extends AbstractBugetizer {
     public List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int iteration) {
         LOGGER.info("Amplification of inputs...");
         final int budget = InputConfiguration.get().getMaxTestAmplified();
-        int totalBudget = InputConfiguration.get().getMaxTestAmplified();
-        // copy the amplifiers, we will remove amplifier that does not generate more test
-        final List<Amplifier> amplifiers = new ArrayList<>(this.amplifiers);
-        // copy the test methods to be amplified
-        final ArrayList<CtMethod<?>> testMethodsToBeAmplified = new ArrayList<>(testMethods);
-        // Amplify all method using all amplifiers
         long time = System.currentTimeMillis();
-        final Map<Amplifier, Map<CtMethod<?>, List<CtMethod<?>>>> amplifiedTestMethodPerAmplifierPerTestMethod =
-                amplify(amplifiers, testMethodsToBeAmplified, iteration);
-        LOGGER.info("Time to amplify: {}ms", System.currentTimeMillis() - time);
-
-        final List<CtMethod<?>> amplifiedTestMethods = new ArrayList<>();
-        while (totalBudget > 0 && !amplifiedTestMethodPerAmplifierPerTestMethod.isEmpty()) {
-            DSpotUtils.printProgress(budget - totalBudget, budget);
-            final int nbAmplifierRemaining = amplifiedTestMethodPerAmplifierPerTestMethod.size();
-            int budgetPerAmplifier = totalBudget / nbAmplifierRemaining;
-            if (budgetPerAmplifier == 0) { // not enough budget, we get last randomly and quit
-                amplifiedTestMethods.addAll(getLastAmplifiedMethods(totalBudget, amplifiedTestMethodPerAmplifierPerTestMethod));
-                break;
+        final List<Iterator<CtMethod<?>>> amplifications = new ArrayList<>();
+        for (CtMethod<?> testMethod : testMethods) {
+            for (Amplifier amplifier : this.amplifiers) {
+                amplifications.add(amplifier.amplifyLazily(testMethod, 0));
             }
-            for (Amplifier amplifier : amplifiedTestMethodPerAmplifierPerTestMethod.keySet()) {
-                totalBudget = selectAndAddAmplifiedTestMethods(totalBudget,
-                        amplifiedTestMethodPerAmplifierPerTestMethod,
-                        amplifiedTestMethods,
-                        budgetPerAmplifier,
-                        amplifier
-                );
+        }
+        final Iterator<CtMethod<?>> amplifiedTestMethodsInTurn = new RoundRobinIterator<>(amplifications);
+        final List<CtMethod<?>> amplifiedTestMethods = new ArrayList<>();
+        this.registerAll(testMethods);
+        while (amplifiedTestMethods.size() < budget && amplifiedTestMethodsInTurn.hasNext()) {
+            DSpotUtils.printProgress(amplifiedTestMethods.size(), budget);
+            final CtMethod<?> amplifiedTestMethod = amplifiedTestMethodsInTurn.next();
+            // the duplicates are not counted in the budget
+            if (this.isNew(amplifiedTestMethod)) {
+                amplifiedTestMethods.add(amplifiedTestMethod);
             }
-            amplifiedTestMethodPerAmplifierPerTestMethod.entrySet().removeIf(entry -> entry.getValue().isEmpty());
         }
+        LOGGER.info("Time to amplify: {}ms", System.currentTimeMillis() - time);
         LOGGER.info("{} new tests generated", amplifiedTestMethods.size());
         return amplifiedTestMethods;
     }
 
-    private Map<Amplifier, Map<CtMethod<?>, List<CtMethod<?>>>> amplify(List<Amplifier> amplifiers,
-                                                                        ArrayList<CtMethod<?>> testMethodsToBeAmplified,
-                                                                        int iteration) {
-        Map<Amplifier, Map<CtMethod<?>, List<CtMethod<?>>>> amplifiedTestMethodPerAmplifierPerTestMethod = new HashMap<>();
-        for (Amplifier amplifier : amplifiers) {
-            amplifiedTestMethodPerAmplifierPerTestMethod.put(amplifier, new HashMap<>());
-            for (CtMethod<?> testMethod : testMethodsToBeAmplified) {
-                final List<CtMethod<?>> amplification = amplifier.amplify(testMethod, 0).collect(Collectors.toList());
-                Collections.shuffle(amplification, RandomHelper.getRandom());
-                amplifiedTestMethodPerAmplifierPerTestMethod.get(amplifier).put(testMethod, amplification);
-            }
-        }
-        return amplifiedTestMethodPerAmplifierPerTestMethod;
-    }
-
-    private int selectAndAddAmplifiedTestMethods(int totalBudget,
-                                                 Map<Amplifier, Map<CtMethod<?>, List<CtMethod<?>>>> amplifiedTestMethodPerAmplifierPerTestMethod,
-                                                 List<CtMethod<?>> amplifiedTestMethods,
-                                                 int budgetPerAmplifier,
-                                                 Amplifier amplifier) {
-        final Map<CtMethod<?>, List<CtMethod<?>>> amplificationPerTestMethod = amplifiedTestMethodPerAmplifierPerTestMethod.get(amplifier);
-        // in case there is less budget per amplifier than methods, we take the correct upper bound
-        int upperBound = Math.min(amplificationPerTestMethod.size(), budgetPerAmplifier);
-        int budgetPerAmplifierPerTestMethod = Math.max(1, budgetPerAmplifier / upperBound);
-        for (CtMethod<?> ctMethod : new ArrayList<>(amplificationPerTestMethod.keySet()).subList(0, upperBound)) {
-            totalBudget = selectAndAddAmplifiedTestMethodsFromAnOriginalTestMethod(totalBudget, amplifiedTestMethods, amplificationPerTestMethod, budgetPerAmplifierPerTestMethod, ctMethod);
-        }
-        amplificationPerTestMethod.entrySet().removeIf(entry -> entry.getValue().isEmpty());
-        return totalBudget;
-    }
-
-    private int selectAndAddAmplifiedTestMethodsFromAnOriginalTestMethod(int totalBudget,
-                                                                         List<CtMethod<?>> amplifiedTestMethods,
-                                                                         Map<CtMethod<?>, List<CtMethod<?>>> amplificationPerTestMethod,
-                                                                         int budgetPerAmplifierPerTestMethod,
-                                                                         CtMethod<?> ctMethod) {
-        final List<CtMethod<?>> candidate = amplificationPerTestMethod.get(ctMethod);
-        int minSize = Math.min(budgetPerAmplifierPerTestMethod, candidate.size());
-        totalBudget = totalBudget - minSize; // decrease the budget
-        final List<CtMethod<?>> selectedAmplifiedTestMethods = candidate.subList(0, minSize);
-        amplifiedTestMethods.addAll(selectedAmplifiedTestMethods); // adding all selected method to the list
-        candidate.removeAll(selectedAmplifiedTestMethods);
-        return totalBudget;
-    }
-
-    private List<CtMethod<?>> getLastAmplifiedMethods(int totalBudget,
-                                                      Map<Amplifier, Map<CtMethod<?>, List<CtMethod<?>>>>
-                                                              amplifiedTestMethodPerAmplifierPerTestMethod) {
-        final List<CtMethod<?>> allAmplifiedTestMethods = amplifiedTestMethodPerAmplifierPerTestMethod.keySet()
-                .stream()
-                .flatMap(amplifier ->
-                        amplifiedTestMethodPerAmplifierPerTestMethod.get(amplifier).keySet()
-                                .stream()
-                                .flatMap(ctMethod ->
-                                        amplifiedTestMethodPerAmplifierPerTestMethod.get(amplifier).get(ctMethod).stream()
-                                )
-                ).collect(Collectors.toList());
-        List<CtMethod<?>> lastAmplifiedTestMethods = new ArrayList<>();
-        while (totalBudget > 0) {
-            lastAmplifiedTestMethods.add(
-                    allAmplifiedTestMethods.get(RandomHelper.getRandom().nextInt(allAmplifiedTestMethods.size())));
-            totalBudget--;
-        }
-        return lastAmplifiedTestMethods;
-    }
-
 }
@@ -0,0 +1,90 @@
+package eu.stamp_project.dspot.budget;
+
+import spoon.reflect.code.CtBinaryOperator;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtUnaryOperator;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.reference.CtLocalVariableReference;
+import spoon.reflect.reference.CtReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static eu.stamp_project.utils.HashHelper.FNV_OFFSET_BASIS;
+import static eu.stamp_project.utils.HashHelper.FNV_PRIME;
+import static eu.stamp_project.utils.HashHelper.GOLDEN_RATIO;
+
+/**
+ * Computes a canonical hash of the structure of the body of a test method, without printing it.
+ * Two test methods have the same hash if their bodies have the same elements, with the same literal values, names and operators,
+ * regardless of the name of the test method, of the comments, and of the names of the local variables,
+ * that are replaced by their order of declaration.
+ */
+public class StructuralHash {
+
+    /**
+     * @return a 128 bits hash of the body of the given test method, as an hexadecimal string
+     */
+    public static String of(CtMethod<?> testMethod) {
+        final Hash hash = new Hash();
+        if (testMethod.getBody() != null) {
+            final Map<String, Integer> indexOfLocalVariables = new HashMap<>();
+            final List<CtElement> elements = testMethod.getBody().getElements(new TypeFilter<>(CtElement.class));
+            for (CtElement element : elements) {
+                if (element instanceof CtComment) {
+                    continue;
+                }
+                hash.add(element.getClass().getName().hashCode());
+                // the characters of the label are hashed, rather than its hash code, that collides too easily, e.g. "Aa" and "BB"
+                final String label = label(element, indexOfLocalVariables);
+                for (int i = 0; i < label.length(); i++) {
+                    hash.add(label.charAt(i));
+                }
+                hash.add(label.length());
+            }
+        }
+        return String.format("%016x%016x", hash.high, hash.low);
+    }
+
+    private static class Hash {
+
+        private long high = FNV_OFFSET_BASIS;
+
+        private long low = 0L;
+
+        private void add(int value) {
+            this.high = (this.high ^ value) * FNV_PRIME;
+            this.low = (this.low + value) * GOLDEN_RATIO;
+        }
+    }
+
+    private static String label(CtElement element, Map<String, Integer> indexOfLocalVariables) {
+        if (element instanceof CtLocalVariable) {
+            final String name = ((CtLocalVariable<?>) element).getSimpleName();
+            indexOfLocalVariables.putIfAbsent(name, indexOfLocalVariables.size());
+            return "$" + indexOfLocalVariables.get(name);
+        } else if (element instanceof CtLocalVariableReference) {
+            final String name = ((CtLocalVariableReference<?>) element).getSimpleName();
+            return indexOfLocalVariables.containsKey(name) ? "$" + indexOfLocalVariables.get(name) : name;
+        } else if (element instanceof CtLiteral) {
+            final Object value = ((CtLiteral<?>) element).getValue();
+            return value == null ? "null" : value.getClass().getName() + ":" + value;
+        } else if (element instanceof CtReference) {
+            return ((CtReference) element).getSimpleName();
+        } else if (element instanceof CtNamedElement) {
+            return ((CtNamedElement) element).getSimpleName();
+        } else if (element instanceof CtBinaryOperator) {
+            return ((CtBinaryOperator<?>) element).getKind().name();
+        } else if (element instanceof CtUnaryOperator) {
+            return ((CtUnaryOperator<?>) element).getKind().name();
+        } else {
+            return "";
+        }
+    }
+}
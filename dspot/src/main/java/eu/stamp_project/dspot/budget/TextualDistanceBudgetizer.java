@@ -12,6 +12,7 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.stamp_project.dspot.amplifier.AmplifiedTestDelta;
 import eu.stamp_project.dspot.amplifier.Amplifier;
 import eu.stamp_project.utils.DSpotUtils;
 import eu.stamp_project.utils.program.InputConfiguration;
@@ -40,9 +41,9 @@ public class TextualDistanceBudgetizer extends AbstractBugetizer {
      * @param test Test method
      * @return New generated tests
      */
-    protected Stream<CtMethod<?>> inputAmplifyTest(CtMethod<?> test, int i) {
+    protected Stream<AmplifiedTestDelta> inputAmplifyTest(CtMethod<?> test, int i) {
         return this.amplifiers.parallelStream()
-                .flatMap(amplifier -> amplifier.amplify(test, i));
+                .flatMap(amplifier -> amplifier.amplifyAsDeltas(test, i));
     }
 
     /**
@@ -54,14 +55,20 @@ public class TextualDistanceBudgetizer extends AbstractBugetizer {
     @Override
     public List<CtMethod<?>> inputAmplify(List<CtMethod<?>> testMethods, int i) {
         LOGGER.info("Amplification of inputs...");
-        List<CtMethod<?>> inputAmplifiedTests = testMethods.parallelStream()
+        List<AmplifiedTestDelta> inputAmplifiedTests = testMethods.parallelStream()
                 .flatMap(test -> {
-                    final Stream<CtMethod<?>> inputAmplifiedTestMethods = inputAmplifyTest(test, i);
+                    final Stream<AmplifiedTestDelta> inputAmplifiedTestMethods = inputAmplifyTest(test, i);
                     DSpotUtils.printProgress(testMethods.indexOf(test), testMethods.size());
                     return inputAmplifiedTestMethods;
                 }).collect(Collectors.toList());
         LOGGER.info("{} new tests generated", inputAmplifiedTests.size());
-        return reduce(inputAmplifiedTests);
+        // only the amplified tests that are kept are built
+        final List<CtMethod<?>> reducedTests = reduceDeltas(this.removeDuplicates(testMethods, inputAmplifiedTests))
+                .stream()
+                .map(AmplifiedTestDelta::materialize)
+                .collect(Collectors.toList());
+        this.registerAll(reducedTests);
+        return reducedTests;
     }
 
     /**
@@ -77,12 +84,24 @@ public class TextualDistanceBudgetizer extends AbstractBugetizer {
      * @return A subset of the input tests
      */
     public List<CtMethod<?>> reduce(List<CtMethod<?>> tests) {
-        final List<CtMethod<?>> reducedTests = new ArrayList<>();
+        return this.reduceDeltas(tests.stream().map(AmplifiedTestDelta::of).collect(Collectors.toList()))
+                .stream()
+                .map(AmplifiedTestDelta::materialize)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * See {@link #reduce(List)}. The textual representation of the amplified tests is computed without building them.
+     */
+    private List<AmplifiedTestDelta> reduceDeltas(List<AmplifiedTestDelta> tests) {
+        final List<AmplifiedTestDelta> reducedTests = new ArrayList<>();
         if (tests.size() > InputConfiguration.get().getMaxTestAmplified()) {
             LOGGER.warn("Too many tests have been generated: {}", tests.size());
-            final Map<Long, List<CtMethod<?>>> valuesToMethod = new HashMap<>();
-            for (CtMethod<?> test : tests) {
-                final long value = sumByteArrayToLong(test.toString().getBytes());
+            final Map<Long, List<AmplifiedTestDelta>> valuesToMethod = new HashMap<>();
+            for (AmplifiedTestDelta test : tests) {
+                final long value = test.computeOnAmplifiedTestMethod(
+                        amplifiedTest -> sumByteArrayToLong(amplifiedTest.toString().getBytes())
+                );
                 if (!valuesToMethod.containsKey(value)) {
                     valuesToMethod.put(value, new ArrayList<>());
                 }
@@ -11,9 +11,12 @@ import eu.stamp_project.testrunner.listener.CoveragePerTestMethod;
 import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.testrunner.EntryPoint;
 import eu.stamp_project.utils.AmplificationHelper;
+import eu.stamp_project.utils.CloneHelper;
 import eu.stamp_project.utils.Counter;
 import eu.stamp_project.utils.DSpotUtils;
 import eu.stamp_project.utils.compilation.DSpotCompiler;
+import eu.stamp_project.utils.coverage.CoverageFingerprint;
+import eu.stamp_project.utils.coverage.CoverageFingerprinter;
 import org.apache.commons.io.FileUtils;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtNamedElement;
@@ -24,8 +27,11 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,11 +45,17 @@ import static eu.stamp_project.utils.AmplificationHelper.PATH_SEPARATOR;
  */
 public class JacocoCoverageSelector extends TakeAllSelector {
 
-    private Map<String, Coverage> selectedToBeAmplifiedCoverageResultsMap;
+    private Map<String, CoverageFingerprint> selectedToBeAmplifiedCoverageResultsMap;
 
     private Coverage initialCoverage;
 
-    private List<String> pathExecuted = new ArrayList<>();
+    private final CoverageFingerprinter fingerprinter = new CoverageFingerprinter();
+
+    /*
+        The fingerprints of the execution paths of the kept tests, two tests that have the same execution path
+        have the same fingerprint.
+     */
+    private Set<CoverageFingerprint> pathExecuted = new HashSet<>();
 
     private TestSelectorElementReport lastReport;
 
@@ -75,33 +87,35 @@ public class JacocoCoverageSelector extends TakeAllSelector {
             this.selectedToBeAmplifiedCoverageResultsMap = null;
             this.selectedAmplifiedTest.clear();
         }
-        final CoveragePerTestMethod coveragePerTestMethod = computeCoverageForGivenTestMethods(testsToBeAmplified);
-        final List<String> pathExecuted = new ArrayList<>();
+        final Map<String, CoverageFingerprint> fingerprints = computeFingerprintsForGivenTestMethods(testsToBeAmplified);
+        final Set<CoverageFingerprint> pathExecuted = new HashSet<>();
         final List<CtMethod<?>> filteredTests = testsToBeAmplified.stream()
                 .filter(ctMethod -> ctMethod != null &&
-                        coveragePerTestMethod.getCoverageOf(ctMethod.getSimpleName()) != null)
-                .filter(ctMethod -> {
-                    final String pathByExecInstructions = coveragePerTestMethod.getCoverageOf(ctMethod.getSimpleName()).getExecutionPath();
-                    if (pathExecuted.contains(pathByExecInstructions)) {
-                        return false;
-                    } else {
-                        pathExecuted.add(pathByExecInstructions);
-                        return true;
-                    }
-                }).collect(Collectors.toList());
+                        fingerprints.get(ctMethod.getSimpleName()) != null)
+                .filter(ctMethod -> pathExecuted.add(fingerprints.get(ctMethod.getSimpleName())))
+                .collect(Collectors.toList());
         if (this.selectedToBeAmplifiedCoverageResultsMap == null) {
-            final List<String> filteredMethodNames = filteredTests.stream()
+            this.selectedToBeAmplifiedCoverageResultsMap = filteredTests.stream()
                     .map(CtNamedElement::getSimpleName)
-                    .collect(Collectors.toList());
-            this.selectedToBeAmplifiedCoverageResultsMap = coveragePerTestMethod.getCoverageResultsMap()
-                    .keySet()
-                    .stream()
-                    .filter(filteredMethodNames::contains)
-                    .collect(Collectors.toMap(Function.identity(), coveragePerTestMethod.getCoverageResultsMap()::get));
+                    .collect(Collectors.toMap(Function.identity(), fingerprints::get, (fingerprint1, fingerprint2) -> fingerprint1));
         }
         return filteredTests;
     }
 
+    /*
+        Computes the coverage of the given test methods, and keeps only their fingerprints.
+     */
+    private Map<String, CoverageFingerprint> computeFingerprintsForGivenTestMethods(List<CtMethod<?>> testsToBeAmplified) {
+        final Map<String, Coverage> coverageResultsMap = computeCoverageForGivenTestMethods(testsToBeAmplified).getCoverageResultsMap();
+        final Map<String, CoverageFingerprint> fingerprints = new HashMap<>();
+        coverageResultsMap.forEach((testMethodName, coverage) -> {
+            if (coverage != null) {
+                fingerprints.put(testMethodName, this.fingerprinter.fingerprint(coverage));
+            }
+        });
+        return fingerprints;
+    }
+
     private CoveragePerTestMethod computeCoverageForGivenTestMethods(List<CtMethod<?>> testsToBeAmplified) {
         final String[] methodNames = testsToBeAmplified.stream().map(CtNamedElement::getSimpleName).toArray(String[]::new);
         String classpath = InputConfiguration.get().getBuilder().buildClasspath();
@@ -126,29 +140,18 @@ public class JacocoCoverageSelector extends TakeAllSelector {
         if (amplifiedTestToBeKept.isEmpty()) {
             return amplifiedTestToBeKept;
         }
-        final CoveragePerTestMethod coveragePerTestMethod = computeCoverageForGivenTestMethods(amplifiedTestToBeKept);
+        final Map<String, CoverageFingerprint> fingerprints = computeFingerprintsForGivenTestMethods(amplifiedTestToBeKept);
         final List<CtMethod<?>> methodsKept = amplifiedTestToBeKept.stream()
                 .filter(ctMethod -> {
                     final String simpleNameOfFirstParent = getFirstParentThatHasBeenRun(ctMethod).getSimpleName();
-                    return this.selectedToBeAmplifiedCoverageResultsMap.get(simpleNameOfFirstParent) == null ||
-                            coveragePerTestMethod.getCoverageOf(ctMethod.getSimpleName()).isBetterThan(
-                                    this.selectedToBeAmplifiedCoverageResultsMap.get(simpleNameOfFirstParent));
+                    return fingerprints.get(ctMethod.getSimpleName()).isBetterThan(
+                            this.selectedToBeAmplifiedCoverageResultsMap.get(simpleNameOfFirstParent));
                 })
-                .filter(ctMethod -> {
-                    final String pathByExecInstructions = coveragePerTestMethod.getCoverageOf(ctMethod.getSimpleName()).getExecutionPath();
-                    if (pathExecuted.contains(pathByExecInstructions)) {
-                        return false;
-                    } else {
-                        pathExecuted.add(pathByExecInstructions);
-                        return true;
-                    }
-                }).collect(Collectors.toList());
+                .filter(ctMethod -> this.pathExecuted.add(fingerprints.get(ctMethod.getSimpleName())))
+                .collect(Collectors.toList());
 
-        this.selectedToBeAmplifiedCoverageResultsMap.putAll(methodsKept.stream()
-                .map(CtNamedElement::getSimpleName)
-                .collect(
-                        Collectors.toMap(Function.identity(), coveragePerTestMethod.getCoverageResultsMap()::get)
-                )
+        methodsKept.forEach(ctMethod ->
+                this.selectedToBeAmplifiedCoverageResultsMap.put(ctMethod.getSimpleName(), fingerprints.get(ctMethod.getSimpleName()))
         );
 
         this.selectedAmplifiedTest.addAll(new ArrayList<>(methodsKept));
@@ -188,7 +191,7 @@ public class JacocoCoverageSelector extends TakeAllSelector {
 
         // compute the new coverage obtained by the amplification
         final CtType<?> clone = this.currentClassTestToBeAmplified.clone();
-        this.currentClassTestToBeAmplified.getPackage().addType(clone);
+        CloneHelper.addToPackageOf(this.currentClassTestToBeAmplified, clone);
         this.selectedAmplifiedTest.forEach(clone::addMethod);
         try {
             FileUtils.deleteDirectory(new File(DSpotCompiler.getPathToAmplifiedTestSrc()));
@@ -4,6 +4,9 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import eu.stamp_project.Main;
 import eu.stamp_project.automaticbuilder.AutomaticBuilder;
+import eu.stamp_project.automaticbuilder.AutomaticBuilderHelper;
+import eu.stamp_project.testrunner.EntryPoint;
+import eu.stamp_project.testrunner.listener.Coverage;
 import eu.stamp_project.utils.pit.*;
 import eu.stamp_project.test_framework.TestFramework;
 import eu.stamp_project.utils.compilation.DSpotCompiler;
@@ -26,6 +29,8 @@ import spoon.reflect.declaration.CtType;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -41,13 +46,13 @@ public class PitMutantScoreSelector extends TakeAllSelector {
 
     private List<AbstractPitResult> originalKilledMutants;
 
-    private List<AbstractPitResult> baselineKilledMutants;
+    private Set<MutantKey> baselineKilledMutants;
 
     private Map<CtMethod, Set<AbstractPitResult>> testThatKilledMutants;
 
-    private List<AbstractPitResult> mutantNotTestedByOriginal;
+    private Set<MutantKey> mutantNotTestedByOriginal;
 
-    private AbstractParser parser;
+    private AbstractParser<? extends AbstractPitResult> parser;
 
     public enum OutputFormat {XML, CSV}
 
@@ -71,16 +76,15 @@ public class PitMutantScoreSelector extends TakeAllSelector {
 
     public PitMutantScoreSelector(String pathToOriginalResultOfPit, OutputFormat originalFormat, OutputFormat consecutiveFormat) {
         this(consecutiveFormat);
-        AbstractParser originalResultParser;
         switch (originalFormat) {
             case CSV:
-                parser = originalResultParser = new PitCSVResultParser();
+                parser = new PitCSVResultParser();
                 break;
             default:
-                parser = originalResultParser = new PitXMLResultParser();
+                parser = new PitXMLResultParser();
                 break;
         }
-        initOriginalPitResult(originalResultParser.parse(new File(pathToOriginalResultOfPit)));
+        initOriginalPitResult(consumer -> parser.parse(new File(pathToOriginalResultOfPit), consumer));
     }
 
     @Override
@@ -100,30 +104,38 @@ public class PitMutantScoreSelector extends TakeAllSelector {
                     return false;
                 }
             }
-            initOriginalPitResult(parser.parseAndDelete(InputConfiguration.get().getAbsolutePathToProjectRoot() + automaticBuilder.getOutputDirectoryPit()));
+            final String pathToPitResults = InputConfiguration.get().getAbsolutePathToProjectRoot() + automaticBuilder.getOutputDirectoryPit();
+            initOriginalPitResult(consumer -> parser.parseAndDelete(pathToPitResults, consumer));
         } else {
-            baselineKilledMutants = new ArrayList<>();
-            for(AbstractPitResult r : originalKilledMutants) {
-                baselineKilledMutants.add(r.clone());
-            }
+            this.initBaselineKilledMutants();
         }
         return true;
     }
 
-    private void initOriginalPitResult(List<AbstractPitResult> results) {
-        this.numberOfMutant = results.size();
-        this.mutantNotTestedByOriginal = results.stream()
-                .filter(result -> result.getStateOfMutant() != AbstractPitResult.State.KILLED)
-                .filter(result -> result.getStateOfMutant() != AbstractPitResult.State.SURVIVED)
-                .filter(result -> result.getStateOfMutant() != AbstractPitResult.State.NO_COVERAGE)
-                .collect(Collectors.toList());
-        this.originalKilledMutants = results.stream()
-                .filter(result -> result.getStateOfMutant() == AbstractPitResult.State.KILLED)
-                .collect(Collectors.toList());
-        LOGGER.info("The original test suite kill {} / {}", this.originalKilledMutants.size(), results.size());
-        baselineKilledMutants = new ArrayList<>();
-        for(AbstractPitResult r : originalKilledMutants) {
-            baselineKilledMutants.add(r.clone());
+    /*
+        The results of the original test suite are given one by one by the parser, to the consumer given to parsing
+     */
+    private void initOriginalPitResult(Consumer<Consumer<AbstractPitResult>> parsing) {
+        this.numberOfMutant = 0;
+        this.mutantNotTestedByOriginal = new HashSet<>();
+        this.originalKilledMutants = new ArrayList<>();
+        parsing.accept(result -> {
+            this.numberOfMutant++;
+            if (result.getStateOfMutant() == AbstractPitResult.State.KILLED) {
+                this.originalKilledMutants.add(result);
+            } else if (result.getStateOfMutant() != AbstractPitResult.State.SURVIVED &&
+                    result.getStateOfMutant() != AbstractPitResult.State.NO_COVERAGE) {
+                this.mutantNotTestedByOriginal.add(result.getKey());
+            }
+        });
+        LOGGER.info("The original test suite kill {} / {}", this.originalKilledMutants.size(), this.numberOfMutant);
+        this.initBaselineKilledMutants();
+    }
+
+    private void initBaselineKilledMutants() {
+        this.baselineKilledMutants = new HashSet<>();
+        for (AbstractPitResult r : this.originalKilledMutants) {
+            this.baselineKilledMutants.add(r.getKey());
         }
     }
 
@@ -165,38 +177,45 @@ public class PitMutantScoreSelector extends TakeAllSelector {
         DSpotCompiler.compile(InputConfiguration.get(), DSpotCompiler.getPathToAmplifiedTestSrc(), classpath,
                 new File(InputConfiguration.get().getAbsolutePathToTestClasses()));
 
-        InputConfiguration.get().getBuilder().runPit(clone);
-        final List<AbstractPitResult> results = parser.parseAndDelete(InputConfiguration.get().getAbsolutePathToProjectRoot() + automaticBuilder.getOutputDirectoryPit());
+        // run pit only on the classes covered by the amplified tests, the other mutants cannot be killed by them
+        final Set<String> coveredClasses = this.computeCoveredClasses(clone, classpath);
+        if (coveredClasses != null && coveredClasses.isEmpty()) {
+            LOGGER.info("The amplified tests do not cover any class to be mutated, skipping pit.");
+            return Collections.emptyList();
+        }
+        final String targetClasses = coveredClasses == null ? "" : String.join(",", coveredClasses);
+        automaticBuilder.runPit(targetClasses, clone);
         Set<CtMethod<?>> selectedTests = new HashSet<>();
-        if (results != null) {
-            LOGGER.info("{} mutants has been generated ({})", results.size(), this.numberOfMutant);
-            if (results.size() != this.numberOfMutant) {
-                LOGGER.warn("Number of generated mutant is different than the original one.");
-            }
+        final int numberOfResults = parser.parseAndDelete(
+                InputConfiguration.get().getAbsolutePathToProjectRoot() + automaticBuilder.getOutputDirectoryPit(),
+                result -> {
+                    // keep results where amplified tests kill a mutant not killed (but tested) by original test
+                    if (result.getStateOfMutant() != AbstractPitResult.State.KILLED ||
+                            this.mutantNotTestedByOriginal.contains(result.getKey())) {
+                        return;
+                    }
 
-            // keep results where amplified tests kill a mutant not killed (but tested) by original test
-            results.stream()
-                    .filter(result -> result.getStateOfMutant() == AbstractPitResult.State.KILLED &&
-                            !this.baselineKilledMutants.contains(result) &&
-                            !this.mutantNotTestedByOriginal.contains(result))
-                    .forEach(result -> {
+                    // keep methods that kill mutants not killed before
+                    if (killsNewMutant(result)) {
                         CtMethod method = result.getMethod(clone);
+                        if (!testThatKilledMutants.containsKey(method)) {
+                            testThatKilledMutants.put(method, new HashSet<>());
+                        }
+                        testThatKilledMutants.get(method).add(result);
+                        if (method == null) {
 
-                        // keep methods that kill mutants not killed before
-                        if (killsNewMutant(result)) {
-                            if (!testThatKilledMutants.containsKey(method)) {
-                                testThatKilledMutants.put(method, new HashSet<>());
-                            }
-                            testThatKilledMutants.get(method).add(result);
-                            if (method == null) {
-
-                                // output of pit test does not allow us to know which test case kill new mutants... we keep them all...
-                                selectedTests.addAll(amplifiedTestToBeKept);
-                            } else {
-                                selectedTests.add(method);
-                            }
+                            // output of pit test does not allow us to know which test case kill new mutants... we keep them all...
+                            selectedTests.addAll(amplifiedTestToBeKept);
+                        } else {
+                            selectedTests.add(method);
                         }
-                    });
+                    }
+                }
+        );
+        LOGGER.info("{} mutants has been generated ({})", numberOfResults, this.numberOfMutant);
+        // the mutants of the classes that are not covered have not been generated, on purpose
+        if (targetClasses.isEmpty() && numberOfResults != this.numberOfMutant) {
+            LOGGER.warn("Number of generated mutant is different than the original one.");
         }
         this.selectedAmplifiedTest.addAll(selectedTests);
         selectedTests.forEach(selectedTest ->
@@ -209,14 +228,81 @@ public class PitMutantScoreSelector extends TakeAllSelector {
         return new ArrayList<>(selectedTests);
     }
 
-    private boolean killsNewMutant(AbstractPitResult result) {
-        if (baselineKilledMutants.contains(result)) {
-            return false;
+    /*
+        Computes the classes to be mutated that are covered by the given test class, with a single run of jacoco.
+        Returns null if the coverage could not be computed, i.e. every class that matches the filter must be mutated.
+     */
+    private Set<String> computeCoveredClasses(CtType<?> testClass, String classpath) {
+        // the given classpath already contains the classes of the project
+        String fullClasspath = classpath;
+        if (!InputConfiguration.get().getAdditionalClasspathElements().isEmpty()) {
+            fullClasspath += AmplificationHelper.PATH_SEPARATOR + InputConfiguration.get().getProcessedAddtionalClasspathElements();
         }
+        try {
+            final Coverage coverage = EntryPoint.runCoverage(
+                    fullClasspath,
+                    InputConfiguration.get().getAbsolutePathToClasses(),
+                    testClass.getQualifiedName()
+            );
+            final Set<String> coveredClasses = getCoveredClasses(coverage.getExecutionPath(), AutomaticBuilderHelper.getFilter());
+            LOGGER.info("The amplified tests cover {} classes to be mutated", coveredClasses.size());
+            return coveredClasses;
+        } catch (Exception e) {
+            LOGGER.warn("Could not compute the coverage of the amplified tests, pit will mutate every class: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The execution path computed by the test runner is made of the classes, each one with the number of instructions
+     * covered on each of its lines, e.g. "fr/inria/Foo:0,2,0;fr/inria/Bar:0,0;".
+     * A class is covered if at least one of its instructions has been executed.
+     *
+     * @param executionPath the execution path of a coverage
+     * @param filter the filter of the classes to be mutated, i.e. globs separated by commas
+     * @return the full qualified names of the covered classes that match the filter, in order
+     */
+    static Set<String> getCoveredClasses(String executionPath, String filter) {
+        final List<Pattern> patterns = Arrays.stream(filter.split(","))
+                .map(String::trim)
+                .filter(glob -> !glob.isEmpty())
+                .map(PitMutantScoreSelector::globToPattern)
+                .collect(Collectors.toList());
+        final Set<String> coveredClasses = new TreeSet<>();
+        for (String classCoverage : executionPath.split(";")) {
+            final int indexOfColon = classCoverage.lastIndexOf(':');
+            if (indexOfColon < 0) {
+                continue;
+            }
+            final boolean isCovered = Arrays.stream(classCoverage.substring(indexOfColon + 1).split(","))
+                    .map(String::trim)
+                    .anyMatch(count -> !count.isEmpty() && !"0".equals(count));
+            final String className = classCoverage.substring(0, indexOfColon).trim().replace('/', '.');
+            if (isCovered && (patterns.isEmpty() || patterns.stream().anyMatch(pattern -> pattern.matcher(className).matches()))) {
+                coveredClasses.add(className);
+            }
+        }
+        return coveredClasses;
+    }
 
+    // the globs of pit only support the wildcards * and ?
+    private static Pattern globToPattern(String glob) {
+        final StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private boolean killsNewMutant(AbstractPitResult result) {
         // add result to baseline to prohibit selection of identical amplified tests
-        baselineKilledMutants.add(result);
-        return true;
+        return baselineKilledMutants.add(result.getKey());
     }
 
     @Override
@@ -24,12 +24,12 @@ import spoon.reflect.visitor.filter.TypeFilter;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -62,7 +62,7 @@ public class AmplificationHelper {
     private static Map<CtMethod<?>, CtMethod> originalTestBindings = Collections.synchronizedMap(new WeakIdentityHashMap<>());
 
     @Deprecated
-    private static Map<CtType, Set<CtType>> importByClass = new HashMap<>();
+    private static Map<CtType, Set<CtType>> importByClass = new ConcurrentHashMap<>();
 
     public static void reset() {
         CloneHelper.reset();
@@ -114,7 +114,7 @@ public class AmplificationHelper {
                     stringCtLiteral.setValue(((String) stringCtLiteral.getValue()).replaceAll(classTest.getSimpleName(), amplifiedName))
             );
         }
-        classTest.getPackage().addType(currentTestClass);
+        CloneHelper.addToPackageOf(classTest, currentTestClass);
         return currentTestClass;
     }
 
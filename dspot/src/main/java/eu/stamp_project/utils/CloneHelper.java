@@ -4,11 +4,14 @@ import eu.stamp_project.test_framework.TestFramework;
 import eu.stamp_project.utils.program.InputConfiguration;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.factory.Factory;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.googlecode.junittoolbox.ParallelRunner;
 
@@ -19,11 +22,12 @@ import com.googlecode.junittoolbox.ParallelRunner;
  */
 public class CloneHelper {
 
-    private static int cloneNumber = 1;
+    // the clones may be numbered by the parallel streams of the budgetizers, see Counter
+    private static final AtomicInteger cloneNumber = new AtomicInteger(1);
     final static Factory factory = InputConfiguration.get().getFactory();
 
     public static void reset() {
-        cloneNumber = 1;
+        cloneNumber.set(1);
     }
 
     public static void addParallelExecutionAnnotation(CtType clone, List<CtMethod<?>> tests) {
@@ -95,11 +99,59 @@ public class CloneHelper {
      */
     public static CtType cloneTestClassAndAddGivenTest(CtType original, List<CtMethod<?>> methods) {
         CtType clone = original.clone();
-        original.getPackage().addType(clone);
+        addToPackageOf(original, clone);
         methods.forEach(clone::addMethod);
         return clone;
     }
 
+    /**
+     * Clones the test class, without its test methods, and adds the given test methods.
+     * The given test methods, e.g. amplified test methods, are then compiled and run without the test methods of the original test class,
+     * that are neither modified nor run, see {@link #removeTestMethodsOf(CtType, CtType)}.
+     *
+     * @param original Test class
+     * @param methods  Test methods
+     * @return Test class with only the given test methods
+     */
+    public static CtType cloneTestClassAndAddOnlyGivenTest(CtType original, List<CtMethod<?>> methods) {
+        CtType clone = original.clone();
+        addToPackageOf(original, clone);
+        removeTestMethodsOf(original, clone);
+        methods.forEach(clone::addMethod);
+        return clone;
+    }
+
+    /**
+     * Removes from the clone of a test class the test methods of the original test class.
+     * The test methods of an abstract test class are kept, since its implementations, that are not compiled again, may rely on them.
+     *
+     * @param original Test class
+     * @param clone    Clone of the test class
+     */
+    public static void removeTestMethodsOf(CtType<?> original, CtType<?> clone) {
+        if (original.getModifiers().contains(ModifierKind.ABSTRACT)) {
+            return;
+        }
+        original.getMethods().stream()
+                .filter(TestFramework.get()::isTest)
+                .forEach(clone::removeMethod);
+    }
+
+    /**
+     * Adds the given type to the package of the original type.
+     * The types may be added by the parallel streams of the budgetizers, and Spoon is not thread-safe:
+     * the types of a package must be modified only through this method.
+     *
+     * @param original the type whose package receives the given type
+     * @param type     the type to be added, e.g. a clone of the original type
+     */
+    public static void addToPackageOf(CtType<?> original, CtType<?> type) {
+        final CtPackage ctPackage = original.getPackage();
+        synchronized (ctPackage) {
+            ctPackage.addType(type);
+        }
+    }
+
     public static CtMethod cloneTestMethodForAmp(CtMethod method, String suffix) {
         CtMethod clonedMethod = cloneTestMethod(method, suffix);
         AmplificationHelper.ampTestToParent.put(clonedMethod, method);
@@ -135,8 +187,8 @@ public class CloneHelper {
         CtMethod cloned_method = cloneMethod(method);
 
         //rename the clone
-        cloned_method.setSimpleName(method.getSimpleName() + (suffix.isEmpty() ? "" : suffix + cloneNumber));
-        cloneNumber++;
+        final int number = cloneNumber.getAndIncrement();
+        cloned_method.setSimpleName(method.getSimpleName() + (suffix.isEmpty() ? "" : suffix + number));
 
         CtAnnotation toRemove = cloned_method.getAnnotations().stream()
                 .filter(annotation -> annotation.toString().contains("Override"))
@@ -2,8 +2,8 @@ package eu.stamp_project.utils;
 
 import spoon.reflect.declaration.CtMethod;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by Benjamin DANGLOT
@@ -12,20 +12,28 @@ import java.util.Map;
  */
 public class Counter {
 
-    private static Counter _instance;
+    /*
+        The counter is updated by the parallel streams of the budgetizers.
+        Amplified test methods are identified by their name, which is unique thanks to the numbering of CloneHelper.
+     */
+    private static volatile Counter _instance;
 
     private Map<String, Integer> numberOfAssertionAdded;
 
     private Map<String, Integer> numberOfInputAdded;
 
     private Counter() {
-        this.numberOfAssertionAdded = new HashMap<>();
-        this.numberOfInputAdded = new HashMap<>();
+        this.numberOfAssertionAdded = new ConcurrentHashMap<>();
+        this.numberOfInputAdded = new ConcurrentHashMap<>();
     }
 
     private static Counter getInstance() {
         if (_instance == null) {
-            _instance = new Counter();
+            synchronized (Counter.class) {
+                if (_instance == null) {
+                    _instance = new Counter();
+                }
+            }
         }
         return _instance;
     }
@@ -82,11 +90,8 @@ public class Counter {
         return countAssertion;
     }
 
-    private synchronized static void updateGivenMap(CtMethod method, int number, Map<String, Integer> mapToBeUpdated) {
-        if (!mapToBeUpdated.containsKey(method.getSimpleName())) {
-            mapToBeUpdated.put(method.getSimpleName(), 0);
-        }
-        mapToBeUpdated.put(method.getSimpleName(), mapToBeUpdated.get(method.getSimpleName()) + number);
+    private static void updateGivenMap(CtMethod method, int number, Map<String, Integer> mapToBeUpdated) {
+        mapToBeUpdated.merge(method.getSimpleName(), number, Integer::sum);
     }
 
     public static void reset() {
@@ -11,6 +11,7 @@ import eu.stamp_project.utils.program.ConstantsProperties;
 
 public class DSpotCache {
 	private static Cache<String, TestFrameworkSupport> frameworkCache;
+	private static Cache<String, Boolean> uncompilableMethodCache;
 	private static CacheManager cacheManager;
 
 	static {
@@ -18,16 +19,25 @@ public class DSpotCache {
 				.withCache("frameworkCache", CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class,
 						TestFrameworkSupport.class, ResourcePoolsBuilder.heap(
 								Long.parseLong(ConstantsProperties.CACHE_SIZE.getDefaultValue()))).build())
+				.withCache("uncompilableMethodCache", CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class,
+						Boolean.class, ResourcePoolsBuilder.heap(
+								Long.parseLong(ConstantsProperties.CACHE_SIZE.getDefaultValue()))).build())
 				.build(true);
 
 		frameworkCache = cacheManager.getCache("frameworkCache", String.class, TestFrameworkSupport.class);
+		uncompilableMethodCache = cacheManager.getCache("uncompilableMethodCache", String.class, Boolean.class);
 	}
 
 	public static Cache<String, TestFrameworkSupport> getTestFrameworkCache() {
 		return frameworkCache;
 	}
 
+	public static Cache<String, Boolean> getUncompilableMethodCache() {
+		return uncompilableMethodCache;
+	}
+
 	public static void reset() {
 		frameworkCache.clear();
+		uncompilableMethodCache.clear();
 	}
 }
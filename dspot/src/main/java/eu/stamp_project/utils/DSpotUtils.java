@@ -23,6 +23,7 @@ import spoon.support.JavaOutputProcessor;
 
 import java.io.*;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -75,6 +76,41 @@ public class DSpotUtils {
         }
     }
 
+    /**
+     * Prints the given type as {@link #printCtTypeToGivenDirectory(CtType, File)} does, i.e. without imports,
+     * but returns the content of the java file instead of writing it on the disk.
+     *
+     * @param type the type to be printed
+     * @return the content of the java file of the given type
+     */
+    public static String printCtTypeToString(CtType<?> type) {
+        return printCtTypeToString(type, DefaultJavaPrettyPrinter::new);
+    }
+
+    /**
+     * Prints the given type as {@link #printCtTypeToString(CtType)} does, using the printer built by the given function.
+     *
+     * @param type the type to be printed
+     * @param printerBuilder builds the printer from the environment of the given type
+     * @return the content of the java file of the given type
+     */
+    public static String printCtTypeToString(CtType<?> type, Function<Environment, DefaultJavaPrettyPrinter> printerBuilder) {
+        try {
+            Factory factory = type.getFactory();
+            Environment env = factory.getEnvironment();
+            env.setAutoImports(false);
+            env.setNoClasspath(true);
+            env.setCommentEnabled(InputConfiguration.get().withComment());
+            DefaultJavaPrettyPrinter printer = printerBuilder.apply(env);
+            printer.calculate(factory.CompilationUnit().getOrCreate(type), Collections.singletonList(type));
+            return printer.getResult();
+        } catch (Exception e) {
+            LOGGER.warn("Something bad happened when trying to print {}", type.getQualifiedName());
+            LOGGER.warn("DSpot will now use the toString() instead of using Spoon...");
+            return type.toString();
+        }
+    }
+
     static void printCtTypUsingToStringToGivenDirectory(CtType<?> type, File directory) {
         LOGGER.warn("Something bad happened when trying to output {} in {}", type.getQualifiedName(), directory.getAbsolutePath());
         LOGGER.warn("DSpot will now print the toString() in the given file instead of using Spoon...");
@@ -164,7 +200,7 @@ public class DSpotUtils {
 
     private static final String PACKAGE_PATH = "eu/stamp_project/" + PACKAGE_NAME + "/";
 
-    private static final String[] DSPOT_CLASSES = new String[]{"MethodsHandler", "ObjectLog", "Observation", "Utils", "FailToObserveException"};
+    private static final String[] DSPOT_CLASSES = new String[]{"MethodsHandler", "ObjectLog", "Observation", "Utils", "FailToObserveException", "ObservationLog", "ObservationPoint", "ObservationBuffer", "ObservationPath"};
 
     public static String getAbsolutePathToDSpotDependencies() {
         return InputConfiguration.get().getAbsolutePathToProjectRoot() + PATH_TO_DSPOT_DEPENDENCIES;
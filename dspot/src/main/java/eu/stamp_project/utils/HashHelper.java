@@ -0,0 +1,35 @@
+package eu.stamp_project.utils;
+
+/**
+ * The constants and the functions shared by the non-cryptographic hashes of DSpot,
+ * e.g. the fingerprints of coverages and the hashes of the bodies of test methods.
+ */
+public class HashHelper {
+
+    /**
+     * The offset basis of the 64 bits FNV-1a hash
+     */
+    public static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The prime of the 64 bits FNV-1a hash
+     */
+    public static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 2^64 divided by the golden ratio, an odd multiplier that spreads consecutive values
+     */
+    public static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The finalizer of murmur3: spreads the bits of the given hash, so that close values have unrelated hashes
+     */
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,93 @@
+package eu.stamp_project.utils.compilation;
+
+import eu.stamp_project.utils.DSpotCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * This class avoids to compile again what has already been compiled, using the caches of {@link DSpotCache}.
+ *
+ * During the amplification, the same test class is compiled many times.
+ * The amplified test methods are compiled without the test methods of the original test class, that do not change,
+ * see {@link eu.stamp_project.utils.CloneHelper#cloneTestClassAndAddOnlyGivenTest(CtType, List)},
+ * and the amplified test methods that are uncompilable are usually produced again at each iteration.
+ * This class records the hash of each test method that has been found uncompilable, so it can be discarded before the compilation,
+ * instead of requiring another compilation round, see {@link TestCompiler#compileAndDiscardUncompilableMethods(DSpotCompiler, CtType, String, List)}.
+ * The name of the test method is not part of its hash, since the amplified test methods are renamed at each iteration.
+ * The binaries of a whole test class are not cached: its source code is almost never the same twice.
+ */
+public class CompilationCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompilationCache.class);
+
+    public static boolean isKnownAsUncompilable(CtType<?> testClass, CtMethod<?> testMethod) {
+        return DSpotCache.getUncompilableMethodCache().containsKey(getKeyOf(testClass, testMethod));
+    }
+
+    public static void markAsUncompilable(CtType<?> testClass, List<CtMethod<?>> uncompilableTestMethods) {
+        uncompilableTestMethods.forEach(testMethod ->
+                DSpotCache.getUncompilableMethodCache().put(getKeyOf(testClass, testMethod), Boolean.TRUE)
+        );
+    }
+
+    /**
+     * Deletes the binaries of the given type and of its inner classes, e.g. before compiling a new version of the given type.
+     */
+    public static void deleteBinaries(DSpotCompiler compiler, CtType<?> type) {
+        final File[] binaryFiles = getBinaryFiles(compiler, type);
+        if (binaryFiles == null) {
+            return;
+        }
+        for (File binaryFile : binaryFiles) {
+            if (!binaryFile.delete()) {
+                LOGGER.warn("Could not delete the old binary file {}, continue...", binaryFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private static File[] getBinaryFiles(DSpotCompiler compiler, CtType<?> type) {
+        return getPackageDirectory(compiler, type).listFiles((dir, name) ->
+                name.equals(type.getSimpleName() + ".class") || name.startsWith(type.getSimpleName() + "$")
+        );
+    }
+
+    private static File getPackageDirectory(DSpotCompiler compiler, CtType<?> type) {
+        if (type.getPackage().isUnnamedPackage()) {
+            return compiler.getBinaryOutputDirectory();
+        }
+        return new File(compiler.getBinaryOutputDirectory(),
+                type.getPackage().getQualifiedName().replace(".", File.separator)
+        );
+    }
+
+    private static String getKeyOf(CtType<?> testClass, CtMethod<?> testMethod) {
+        return testClass.getQualifiedName() + "#" + hash(
+                testMethod.getAnnotations().toString() +
+                        testMethod.getType() +
+                        testMethod.getParameters() +
+                        testMethod.getThrownTypes() +
+                        testMethod.getBody()
+        );
+    }
+
+    static String hash(String content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hash = new StringBuilder();
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -15,13 +15,16 @@ import spoon.compiler.builder.ClasspathOptions;
 import spoon.compiler.builder.ComplianceOptions;
 import spoon.compiler.builder.JDTBuilderImpl;
 import spoon.compiler.builder.SourceOptions;
+import spoon.reflect.declaration.CtType;
 import spoon.support.compiler.FileSystemFolder;
 import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static eu.stamp_project.utils.AmplificationHelper.PATH_SEPARATOR;
 
@@ -60,13 +63,58 @@ public class DSpotCompiler extends JDTBasedSpoonCompiler {
 	}
 
 	public boolean compile(String pathToAdditionalDependencies) {
+		final SourceOptions sourcesOptions = new SourceOptions();
+		sourcesOptions.sources((new FileSystemFolder(this.sourceOutputDirectory).getAllJavaFiles()));
+		final String[] args = this.buildCompilerArguments(pathToAdditionalDependencies, sourcesOptions);
+		return this.compile(args, new DSpotJDTBatchCompiler(this, null));//environment);
+	}
+
+	/**
+	 * Compiles the given type without printing it on the disk, see {@link #compile(CtType, String, String)}.
+	 *
+	 * @param type the type to be compiled
+	 * @param pathToAdditionalDependencies the dependencies required to compile the given type
+	 * @return true if the compilation succeeded, false otherwise
+	 */
+	public boolean compile(CtType<?> type, String pathToAdditionalDependencies) {
+		return this.compile(type, DSpotUtils.printCtTypeToString(type), pathToAdditionalDependencies);
+	}
+
+	/**
+	 * Compiles the given source code of the given type without printing it on the disk:
+	 * the source code is given in-memory to the JDT batch compiler.
+	 * The compilation unit is attached to a virtual path inside {@link #getSourceOutputDirectory()},
+	 * see {@link #getPathToSourceOf(CtType)}, so the reported problems refer to the same file as if the type has been printed.
+	 * The binaries are still written to {@link #getBinaryOutputDirectory()}, since the test runner executes them in another JVM.
+	 *
+	 * @param type the type to be compiled
+	 * @param sourceCode the source code of the given type, e.g. computed by {@link DSpotUtils#printCtTypeToString(CtType)}
+	 * @param pathToAdditionalDependencies the dependencies required to compile the given type
+	 * @return true if the compilation succeeded, false otherwise
+	 */
+	public boolean compile(CtType<?> type, String sourceCode, String pathToAdditionalDependencies) {
+		final String pathToVirtualSource = getPathToSourceOf(type);
+		final String[] args = this.buildCompilerArguments(pathToAdditionalDependencies, new SourceOptions());
+		final String[] argsWithSource = Arrays.copyOf(args, args.length + 1);
+		argsWithSource[args.length] = pathToVirtualSource;
+		final Map<String, char[]> inMemorySources = Collections.singletonMap(pathToVirtualSource, sourceCode.toCharArray());
+		return this.compile(argsWithSource, new DSpotJDTBatchCompiler(this, null, inMemorySources));
+	}
+
+	/**
+	 * @return the path of the java file of the given type inside {@link #getSourceOutputDirectory()}
+	 */
+	public String getPathToSourceOf(CtType<?> type) {
+		return new File(this.sourceOutputDirectory,
+				type.getQualifiedName().replace(".", File.separator) + ".java"
+		).getAbsolutePath();
+	}
+
+	private String[] buildCompilerArguments(String pathToAdditionalDependencies, SourceOptions sourcesOptions) {
 		if (this.factory == null) {
 			this.factory = this.launcher.getFactory();
 		}
 		javaCompliance = factory.getEnvironment().getComplianceLevel();
-		DSpotJDTBatchCompiler compiler = new DSpotJDTBatchCompiler(this, null);//environment);
-		final SourceOptions sourcesOptions = new SourceOptions();
-		sourcesOptions.sources((new FileSystemFolder(this.sourceOutputDirectory).getAllJavaFiles()));
 
 		this.reportProblems(this.factory.getEnvironment());
 
@@ -92,7 +140,10 @@ public class DSpotCompiler extends JDTBasedSpoonCompiler {
 		final String[] finalArgs = new String[args.length + 1];
 		finalArgs[0] = "-proceedOnError";
 		System.arraycopy(args, 0, finalArgs, 1, args.length);
+		return finalArgs;
+	}
 
+	private boolean compile(String[] finalArgs, DSpotJDTBatchCompiler compiler) {
 		LOGGER.info("Compiling with {}", String.join(" ", finalArgs));
 
 		compiler.compile(finalArgs);
@@ -147,6 +198,29 @@ public class DSpotCompiler extends JDTBasedSpoonCompiler {
 		return getProblems();
 	}
 
+	/**
+	 * this method call {@link #compile(CtType, String)} and return the potential problems of the in-memory compilation.
+	 * @param type the type to be compiled
+	 * @param pathToAdditionalDependencies
+	 * @return a list that contains compilation problems
+	 */
+	public List<CategorizedProblem> compileAndReturnProblems(CtType<?> type, String pathToAdditionalDependencies) {
+		this.compile(type, pathToAdditionalDependencies);
+		return getProblems();
+	}
+
+	/**
+	 * this method call {@link #compile(CtType, String, String)} and return the potential problems of the in-memory compilation.
+	 * @param type the type to be compiled
+	 * @param sourceCode the source code of the given type
+	 * @param pathToAdditionalDependencies
+	 * @return a list that contains compilation problems
+	 */
+	public List<CategorizedProblem> compileAndReturnProblems(CtType<?> type, String sourceCode, String pathToAdditionalDependencies) {
+		this.compile(type, sourceCode, pathToAdditionalDependencies);
+		return getProblems();
+	}
+
 	/**
 	 * This constants represent the path of the .java of the amplified test classes.
 	 * This .java contains amplified test methods at different step of the process of DSpot.
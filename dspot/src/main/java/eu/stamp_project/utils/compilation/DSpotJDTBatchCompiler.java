@@ -11,6 +11,8 @@ import spoon.support.compiler.jdt.JDTBatchCompiler;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 
 
 /**
@@ -22,9 +24,19 @@ public class DSpotJDTBatchCompiler extends JDTBatchCompiler {
 
     private FileSystem environment;
 
+    /**
+     * Contents of the compilation units that are not on the disk, indexed by their absolute path.
+     */
+    private Map<String, char[]> inMemorySources;
+
     public DSpotJDTBatchCompiler(JDTBasedSpoonCompiler jdtCompiler, FileSystem environment ) {
+        this(jdtCompiler, environment, Collections.emptyMap());
+    }
+
+    public DSpotJDTBatchCompiler(JDTBasedSpoonCompiler jdtCompiler, FileSystem environment, Map<String, char[]> inMemorySources) {
         super(jdtCompiler);
         this.environment = environment;
+        this.inMemorySources = inMemorySources;
     }
 
     @Override
@@ -73,7 +85,8 @@ public class DSpotJDTBatchCompiler extends JDTBatchCompiler {
 
             knownFileNames.put(charName, charName);
             File file = new File(this.filenames[i]);
-            if(!file.exists()) {
+            final char[] contents = this.inMemorySources.get(file.getAbsolutePath());
+            if(contents == null && !file.exists()) {
                 throw new IllegalArgumentException(this.bind("unit.missing", this.filenames[i]));
             }
 
@@ -88,7 +101,7 @@ public class DSpotJDTBatchCompiler extends JDTBatchCompiler {
             } catch (IOException var10) {
                 fileName = this.filenames[i];
             }
-            units[i] = new CompilationUnit((char[])null, fileName, encoding, this.destinationPaths[i], false, null);
+            units[i] = new CompilationUnit(contents, fileName, encoding, this.destinationPaths[i], false, null);
         }
         return units;
     }
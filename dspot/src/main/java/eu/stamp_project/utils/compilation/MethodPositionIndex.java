@@ -0,0 +1,136 @@
+package eu.stamp_project.utils.compilation;
+
+import eu.stamp_project.utils.DSpotUtils;
+import spoon.compiler.Environment;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
+import spoon.reflect.visitor.DefaultTokenWriter;
+import spoon.reflect.visitor.PrinterHelper;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The source code of a printed type, with the range of each of its methods in this source code.
+ * The ranges are recorded while printing, see {@link #print(CtType)}.
+ * It allows to map the positions of the compilation problems to the methods of the type,
+ * without building a new spoon model of the printed source code.
+ */
+public class MethodPositionIndex {
+
+    private final String sourceCode;
+
+    // start offset of the method -> end offset of the method
+    private final TreeMap<Integer, Integer> endByStart;
+
+    // start offset of the method -> name of the method
+    private final TreeMap<Integer, String> nameByStart;
+
+    private MethodPositionIndex(String sourceCode, TreeMap<Integer, Integer> endByStart, TreeMap<Integer, String> nameByStart) {
+        this.sourceCode = sourceCode;
+        this.endByStart = endByStart;
+        this.nameByStart = nameByStart;
+    }
+
+    /**
+     * Prints the given type using {@link DSpotUtils#printCtTypeToString(CtType, java.util.function.Function)},
+     * and records the range of its methods.
+     * If the printing failed, the source code is the result of {@link CtType#toString()}, and the index is empty.
+     *
+     * @param type the type to be printed
+     * @return the index of the printed type
+     */
+    public static MethodPositionIndex print(CtType<?> type) {
+        final TreeMap<Integer, Integer> endByStart = new TreeMap<>();
+        final TreeMap<Integer, String> nameByStart = new TreeMap<>();
+        final IndexingPrettyPrinter[] printer = new IndexingPrettyPrinter[1];
+        final String sourceCode = DSpotUtils.printCtTypeToString(type, environment -> {
+            printer[0] = new IndexingPrettyPrinter(environment, type, endByStart, nameByStart);
+            return printer[0];
+        });
+        if (printer[0] == null || !sourceCode.equals(printer[0].getResult())) {
+            endByStart.clear();
+            nameByStart.clear();
+        }
+        return new MethodPositionIndex(sourceCode, endByStart, nameByStart);
+    }
+
+    public String getSourceCode() {
+        return sourceCode;
+    }
+
+    public boolean isEmpty() {
+        return this.nameByStart.isEmpty();
+    }
+
+    /**
+     * @return the name of the method that contains the given range, if any.
+     */
+    public Optional<String> getMethodNameAt(int sourceStart, int sourceEnd) {
+        final Map.Entry<Integer, Integer> range = this.endByStart.floorEntry(sourceStart);
+        if (range == null || range.getValue() < sourceEnd) {
+            return Optional.empty();
+        }
+        return Optional.of(this.nameByStart.get(range.getKey()));
+    }
+
+    /*
+        Records the offsets in the printed source code at the beginning and at the end of each method of the printed type.
+        The methods of the inner and anonymous classes are part of the range of their enclosing method, if any.
+     */
+    private static class IndexingPrettyPrinter extends DefaultJavaPrettyPrinter {
+
+        private final CtType<?> printedType;
+
+        private final TreeMap<Integer, Integer> endByStart;
+
+        private final TreeMap<Integer, String> nameByStart;
+
+        private final MeasurablePrinterHelper printerHelper;
+
+        private IndexingPrettyPrinter(Environment env,
+                                      CtType<?> printedType,
+                                      TreeMap<Integer, Integer> endByStart,
+                                      TreeMap<Integer, String> nameByStart) {
+            super(env);
+            this.printedType = printedType;
+            this.endByStart = endByStart;
+            this.nameByStart = nameByStart;
+            this.printerHelper = new MeasurablePrinterHelper(env);
+            this.setPrinterTokenWriter(new DefaultTokenWriter(this.printerHelper));
+        }
+
+        @Override
+        public <T> void visitCtMethod(CtMethod<T> m) {
+            if (m.getDeclaringType() != this.printedType) {
+                super.visitCtMethod(m);
+                return;
+            }
+            final int start = this.getCurrentOffset();
+            super.visitCtMethod(m);
+            final int end = this.getCurrentOffset() - 1;
+            this.endByStart.put(start, end);
+            this.nameByStart.put(start, m.getSimpleName());
+        }
+
+        private int getCurrentOffset() {
+            return this.printerHelper.length();
+        }
+    }
+
+    /*
+        Gives the length of the printed source code without copying it, as toString() does.
+     */
+    private static class MeasurablePrinterHelper extends PrinterHelper {
+
+        private MeasurablePrinterHelper(Environment env) {
+            super(env);
+        }
+
+        private int length() {
+            return this.sbf.length();
+        }
+    }
+}
@@ -18,6 +18,7 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ModifierKind;
+import spoon.support.compiler.VirtualFile;
 
 import java.io.FileWriter;
 import java.io.IOException;
@@ -25,13 +26,12 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.codehaus.plexus.util.FileUtils.forceDelete;
 
 /**
  * User: Simon
@@ -55,7 +55,40 @@ public class TestCompiler {
                                                                                     List<CtMethod<?>> currentTestList,
                                                                                     DSpotCompiler compiler,
                                                                                     InputConfiguration configuration) {
-        CtType amplifiedTestClass = CloneHelper.cloneTestClassAndAddGivenTest(classTest, currentTestList);
+        return compileRunAndDiscardUncompilableAndFailingTestMethodsOf(
+                CloneHelper.cloneTestClassAndAddGivenTest(classTest, currentTestList),
+                currentTestList,
+                compiler,
+                configuration
+        );
+    }
+
+    /**
+     * Same as {@link #compileRunAndDiscardUncompilableAndFailingTestMethods(CtType, List, DSpotCompiler, InputConfiguration)},
+     * but the given amplified test methods are compiled and run without the test methods of the test class,
+     * using {@link CloneHelper#cloneTestClassAndAddOnlyGivenTest(CtType, List)}:
+     * only the amplified test methods, that are new, are compiled along with the rest of the test class.
+     *
+     * @param classTest      Test class
+     * @param amplifiedTests amplified test methods to be run
+     * @return the amplified test methods that are compilable and that pass
+     */
+    public static List<CtMethod<?>> compileRunAndDiscardUncompilableAndFailingAmplifiedTestMethods(CtType classTest,
+                                                                                             List<CtMethod<?>> amplifiedTests,
+                                                                                             DSpotCompiler compiler,
+                                                                                             InputConfiguration configuration) {
+        return compileRunAndDiscardUncompilableAndFailingTestMethodsOf(
+                CloneHelper.cloneTestClassAndAddOnlyGivenTest(classTest, amplifiedTests),
+                amplifiedTests,
+                compiler,
+                configuration
+        );
+    }
+
+    private static List<CtMethod<?>> compileRunAndDiscardUncompilableAndFailingTestMethodsOf(CtType amplifiedTestClass,
+                                                                                       List<CtMethod<?>> currentTestList,
+                                                                                       DSpotCompiler compiler,
+                                                                                       InputConfiguration configuration) {
         try {
             final TestResult result = TestCompiler.compileAndRun(
                     amplifiedTestClass,
@@ -129,6 +162,27 @@ public class TestCompiler {
         }
 
         testsToRun = TestCompiler.compileAndDiscardUncompilableMethods(compiler, testClass, dependencies, testsToRun);
+        return TestCompiler.run(testClass, compiler, testsToRun, configuration);
+    }
+
+    /**
+     * Runs again the given test methods of a test class that has already been compiled by
+     * {@link #compileAndRun(CtType, DSpotCompiler, List, InputConfiguration)}, without compiling it again.
+     * Only the compilation is saved: the tests are run by a new launch of the test runner, i.e. in a new JVM,
+     * or in a JVM of the {@link eu.stamp_project.utils.execution.pool.RunnerPool} if it is enabled.
+     *
+     * @param testClass     the test class, already compiled
+     * @param compiler      the compiler used to compile the test class
+     * @param testsToRun    the test methods to be run, should be in testClass and be compilable
+     * @param configuration
+     * @return an instance of {@link eu.stamp_project.testrunner.listener.TestResult}
+     * @throws AmplificationException in case a timeout has been thrown.
+     */
+    public static TestResult run(CtType<?> testClass,
+                                 DSpotCompiler compiler,
+                                 List<CtMethod<?>> testsToRun,
+                                 InputConfiguration configuration) throws AmplificationException {
+        final String classPath = AmplificationHelper.getClassPath(compiler, configuration);
         EntryPoint.timeoutInMs = 1000 + (configuration.getTimeOutInMs() * testsToRun.size());
         if (testClass.getModifiers().contains(ModifierKind.ABSTRACT)) { // if the test class is abstract, we use one of its implementation
             return TestRunner.runSubClassesForAbstractTestClass(testClass, testsToRun, classPath);
@@ -142,6 +196,7 @@ public class TestCompiler {
      * This method compiles the given Java class using the given compiler and dependencies.
      * This method chain compilation until it succeed.
      * If a compilation fails, this method removes uncompilable methods from the given class and retry to compile.
+     * The test methods that have already been found uncompilable are retrieved from the {@link CompilationCache}.
      *
      * @param compiler
      * @param testClassToBeCompiled
@@ -154,7 +209,14 @@ public class TestCompiler {
                                                                          CtType<?> testClassToBeCompiled,
                                                                          String dependencies,
                                                                          List<CtMethod<?>> testsToRun) throws AmplificationException {
-        final List<CtMethod<?>> uncompilableMethod = compileAndDiscardUncompilableMethods(compiler, testClassToBeCompiled, dependencies, 0);
+        // the test methods that have already been found uncompilable are discarded before compiling
+        final List<CtMethod<?>> uncompilableMethod = testClassToBeCompiled.getMethods().stream()
+                .filter(testMethod -> CompilationCache.isKnownAsUncompilable(testClassToBeCompiled, testMethod))
+                .collect(Collectors.toList());
+        uncompilableMethod.forEach(testClassToBeCompiled::removeMethod);
+        final List<CtMethod<?>> newUncompilableMethod = compileAndDiscardUncompilableMethods(compiler, testClassToBeCompiled, dependencies, 0);
+        CompilationCache.markAsUncompilable(testClassToBeCompiled, newUncompilableMethod);
+        uncompilableMethod.addAll(newUncompilableMethod);
         testsToRun.removeAll(uncompilableMethod);
         uncompilableMethod.forEach(testClassToBeCompiled::removeMethod);
         if (testsToRun.isEmpty()) {
@@ -168,8 +230,11 @@ public class TestCompiler {
                                                                           String dependencies,
                                                                           int numberOfTry) {
 
-        printJavaFileAndDeleteClassFile(compiler, testClassToBeCompiled);
-        final List<CategorizedProblem> problems = compiler.compileAndReturnProblems(dependencies)
+        final MethodPositionIndex index = MethodPositionIndex.print(testClassToBeCompiled);
+        final String sourceCode = index.getSourceCode();
+        // the inner classes of the previous version are deleted too, so they are not run
+        CompilationCache.deleteBinaries(compiler, testClassToBeCompiled);
+        final List<CategorizedProblem> problems = compiler.compileAndReturnProblems(testClassToBeCompiled, sourceCode, dependencies)
                 .stream()
                 .filter(IProblem::isError)
                 .collect(Collectors.toList());
@@ -183,28 +248,17 @@ public class TestCompiler {
             int maxNumber = problems.size() > 20 ? 20 : problems.size();
             LOGGER.error("Error(s) during compilation:");
             problems.subList(0, maxNumber).forEach(categorizedProblem -> LOGGER.error("{}", categorizedProblem));
-            // Here, we compute the spoon model of the compiled test class,
-            // since it does not match with the model given in parameter.
-            // TODO report this to Spoon ?
-            final CtClass<?> newModelCtClass = getNewModelCtClass(compiler.getSourceOutputDirectory().getAbsolutePath(), testClassToBeCompiled.getQualifiedName());
-            final HashSet<CtMethod<?>> methodsToRemove = getMethodToRemove(problems, newModelCtClass);
-            final List<CtMethod<?>> methodsToRemoveInOriginalModel = methodsToRemove.stream()
-                    .map(CtMethod::getSimpleName)
+            // all the methods involved in a problem are removed at once, using the positions recorded while printing
+            final Set<String> namesOfMethodsToRemove = index.isEmpty() ?
+                    getNamesOfMethodsToRemoveUsingNewModel(problems, sourceCode, testClassToBeCompiled) :
+                    getNamesOfMethodsToRemove(problems, index);
+            final List<CtMethod<?>> methodsToRemoveInOriginalModel = namesOfMethodsToRemove.stream()
                     .map(methodName -> (CtMethod<?>) testClassToBeCompiled.getMethodsByName(methodName).get(0))
                     .collect(Collectors.toList());
-
-            // TODO can't remember why I did that
-            /*final List<CtMethod<?>> methodToKeep = newModelCtClass.getMethods().stream()
-                    .filter(ctMethod -> ctMethod.getBody().getStatements().stream()
-                            .anyMatch(statement ->
-                                    !(statement instanceof CtComment) && !methodsToRemove.contains(ctMethod)))
-                    .collect(Collectors.toList());
-
-            methodsToRemove.addAll(
-                    newModelCtClass.getMethods().stream()
-                            .filter(ctMethod -> !methodToKeep.contains(ctMethod))
-                            .collect(Collectors.toList())
-            );*/
+            if (methodsToRemoveInOriginalModel.isEmpty()) {
+                LOGGER.warn("Could not find any method involved in the compilation problems. Give up.");
+                return Collections.emptyList();
+            }
             methodsToRemoveInOriginalModel.forEach(testClassToBeCompiled::removeMethod);
             final List<CtMethod<?>> recursiveMethodToRemove =
                     compileAndDiscardUncompilableMethods(compiler, testClassToBeCompiled, dependencies, numberOfTry + 1);
@@ -213,46 +267,41 @@ public class TestCompiler {
         }
     }
 
-    // compute the CtMethod in the new model to remove according to the given compilation problems
-    private static HashSet<CtMethod<?>> getMethodToRemove(List<CategorizedProblem> problems, CtClass<?> newModelCtClass) {
+    // compute the names of the methods to remove according to the given compilation problems,
+    // using the range of the methods recorded while printing the test class
+    static Set<String> getNamesOfMethodsToRemove(List<CategorizedProblem> problems, MethodPositionIndex index) {
         return problems.stream()
-                .collect(HashSet<CtMethod<?>>::new,
-                        (ctMethods, categorizedProblem) -> {
-                            final Optional<CtMethod<?>> methodToRemove = newModelCtClass.getMethods().stream()
-                                    .filter(ctMethod ->
-                                            ctMethod.getPosition().getSourceStart() <= categorizedProblem.getSourceStart() &&
-                                                    ctMethod.getPosition().getSourceEnd() >= categorizedProblem.getSourceEnd())
-                                    .findFirst();
-                            methodToRemove.ifPresent(ctMethods::add);
-                        },
-                        HashSet<CtMethod<?>>::addAll);
+                .map(problem -> index.getMethodNameAt(problem.getSourceStart(), problem.getSourceEnd()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toSet());
     }
 
-    // compute a new spoon model for the given CtClass
-    private static CtClass<?> getNewModelCtClass(String pathToSrcFolder, String fullQualifiedName) {
+    // compute the names of the methods to remove according to the given compilation problems,
+    // using a new spoon model of the compiled source code, since it does not match with the model of the test class.
+    // this is used only when the test class could not be printed with its index
+    static Set<String> getNamesOfMethodsToRemoveUsingNewModel(List<CategorizedProblem> problems, String sourceCode, CtType<?> testClass) {
+        final CtClass<?> newModelCtClass = getNewModelCtClass(sourceCode, testClass);
+        return problems.stream()
+                .map(categorizedProblem -> newModelCtClass.getMethods().stream()
+                        .filter(ctMethod ->
+                                ctMethod.getPosition().getSourceStart() <= categorizedProblem.getSourceStart() &&
+                                        ctMethod.getPosition().getSourceEnd() >= categorizedProblem.getSourceEnd())
+                        .findFirst()
+                ).filter(Optional::isPresent)
+                .map(Optional::get)
+                .map(CtMethod::getSimpleName)
+                .collect(Collectors.toSet());
+    }
+
+    // compute a new spoon model for the given CtClass, from the source code that has been compiled
+    // the source code is given in-memory, so the positions of the new model match the positions of the compilation problems
+    private static CtClass<?> getNewModelCtClass(String sourceCode, CtType<?> testClass) {
         Launcher launcher = new Launcher();
         launcher.getEnvironment().setNoClasspath(true);
         launcher.getEnvironment().setCommentEnabled(true);
-        launcher.addInputResource(pathToSrcFolder);
+        launcher.addInputResource(new VirtualFile(sourceCode, testClass.getSimpleName() + ".java"));
         launcher.buildModel();
-        return launcher.getFactory().Class().get(fullQualifiedName);
-    }
-
-    // output the .java of the test class to be compiled
-    // this method delete also the old .class, i.e. the old compiled file of the same test class, if exists
-    private static void printJavaFileAndDeleteClassFile(DSpotCompiler compiler, CtType classTest) {
-        try {
-            DSpotUtils.printCtTypeToGivenDirectory(classTest, compiler.getSourceOutputDirectory());
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        String pathToDotClass =
-                compiler.getBinaryOutputDirectory().getAbsolutePath() + "/"
-                        + classTest.getQualifiedName().replaceAll("\\.", "/") + ".class";
-        try {
-            forceDelete(pathToDotClass);
-        } catch (IOException ignored) {
-            LOGGER.warn("An exception has been thrown when trying to delete old .class file {}, continue...", pathToDotClass);
-        }
+        return launcher.getFactory().Class().get(testClass.getQualifiedName());
     }
 }
@@ -0,0 +1,77 @@
+package eu.stamp_project.utils.coverage;
+
+import java.util.BitSet;
+
+/**
+ * A compact representation of the coverage of a test method, built by {@link CoverageFingerprinter}.
+ * It is made of:
+ * <ul>
+ *     <li>the set of the covered lines, as a bit set, which is used to check if a test covers lines that another does not;</li>
+ *     <li>a 128 bits fingerprint of the execution path, i.e. the number of instructions executed on each line,
+ *     which is used to detect the tests that have the same execution path;</li>
+ *     <li>the number of covered instructions and the total number of instructions.</li>
+ * </ul>
+ * Two fingerprints are equal if they have the same 128 bits fingerprint.
+ */
+public class CoverageFingerprint {
+
+    private final BitSet coveredLines;
+
+    private final long high;
+
+    private final long low;
+
+    private final int instructionsCovered;
+
+    private final int instructionsTotal;
+
+    CoverageFingerprint(BitSet coveredLines, long high, long low, int instructionsCovered, int instructionsTotal) {
+        this.coveredLines = coveredLines;
+        this.high = high;
+        this.low = low;
+        this.instructionsCovered = instructionsCovered;
+        this.instructionsTotal = instructionsTotal;
+    }
+
+    /**
+     * A test is better than another one if it covers at least one line that the other does not cover,
+     * or if it covers more instructions.
+     */
+    public boolean isBetterThan(CoverageFingerprint that) {
+        if (that == null) {
+            return true;
+        }
+        final BitSet newlyCoveredLines = (BitSet) this.coveredLines.clone();
+        newlyCoveredLines.andNot(that.coveredLines);
+        return !newlyCoveredLines.isEmpty() || this.instructionsCovered > that.instructionsCovered;
+    }
+
+    public int getInstructionsCovered() {
+        return instructionsCovered;
+    }
+
+    public int getInstructionsTotal() {
+        return instructionsTotal;
+    }
+
+    public int getNumberOfCoveredLines() {
+        return this.coveredLines.cardinality();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CoverageFingerprint that = (CoverageFingerprint) o;
+        return this.high == that.high && this.low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.high ^ this.low);
+    }
+}
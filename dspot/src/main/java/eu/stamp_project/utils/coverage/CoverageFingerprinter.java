@@ -0,0 +1,88 @@
+package eu.stamp_project.utils.coverage;
+
+import eu.stamp_project.testrunner.listener.Coverage;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static eu.stamp_project.utils.HashHelper.FNV_OFFSET_BASIS;
+import static eu.stamp_project.utils.HashHelper.FNV_PRIME;
+import static eu.stamp_project.utils.HashHelper.GOLDEN_RATIO;
+import static eu.stamp_project.utils.HashHelper.mix;
+
+/**
+ * Builds the {@link CoverageFingerprint} of the coverages computed by the test runner.
+ *
+ * The execution path of a coverage is made of the classes, each one with the number of instructions
+ * executed on each of its lines, e.g. "fr/inria/Foo:0,2,0;fr/inria/Bar:0,0;".
+ * Each line of each class is given an index, the same for all the fingerprints built by the same fingerprinter,
+ * so that the bit sets of covered lines can be compared with each other.
+ * The execution path is read once, and is not kept.
+ */
+public class CoverageFingerprinter {
+
+    /*
+        The index of the first line of each class. A class is identified by its name and its number of lines,
+        since two versions of a class with different number of lines cannot share their indices.
+     */
+    private final Map<String, Integer> indexOfFirstLine = new HashMap<>();
+
+    private int numberOfLines = 0;
+
+    public CoverageFingerprint fingerprint(Coverage coverage) {
+        return this.fingerprint(coverage.getExecutionPath(), coverage.getInstructionsCovered(), coverage.getInstructionsTotal());
+    }
+
+    public synchronized CoverageFingerprint fingerprint(String executionPath, int instructionsCovered, int instructionsTotal) {
+        long high = FNV_OFFSET_BASIS;
+        long low = 0L;
+        final BitSet coveredLines = new BitSet(this.numberOfLines);
+        final BitSet coveredLinesOfClass = new BitSet();
+        int startOfClass = 0;
+        while (startOfClass < executionPath.length()) {
+            int endOfClass = executionPath.indexOf(';', startOfClass);
+            if (endOfClass < 0) {
+                endOfClass = executionPath.length();
+            }
+            final int indexOfColon = executionPath.lastIndexOf(':', endOfClass - 1);
+            if (indexOfColon >= startOfClass) {
+                // reads the number of instructions executed on each line
+                coveredLinesOfClass.clear();
+                int line = 0;
+                boolean isCovered = false;
+                for (int i = indexOfColon + 1; i < endOfClass; i++) {
+                    final char c = executionPath.charAt(i);
+                    if (c == ',') {
+                        coveredLinesOfClass.set(line, isCovered);
+                        isCovered = false;
+                        line++;
+                    } else if (c >= '1' && c <= '9') {
+                        isCovered = true;
+                    }
+                }
+                coveredLinesOfClass.set(line, isCovered);
+                final int numberOfLinesOfClass = line + 1;
+                final int indexOfFirstLineOfClass = this.indexOfFirstLine.computeIfAbsent(
+                        executionPath.substring(startOfClass, indexOfColon) + "#" + numberOfLinesOfClass,
+                        className -> {
+                            final int index = this.numberOfLines;
+                            this.numberOfLines += numberOfLinesOfClass;
+                            return index;
+                        }
+                );
+                for (int coveredLine = coveredLinesOfClass.nextSetBit(0); coveredLine >= 0;
+                     coveredLine = coveredLinesOfClass.nextSetBit(coveredLine + 1)) {
+                    coveredLines.set(indexOfFirstLineOfClass + coveredLine);
+                }
+            }
+            startOfClass = endOfClass + 1;
+        }
+        for (int i = 0; i < executionPath.length(); i++) {
+            final char c = executionPath.charAt(i);
+            high = (high ^ c) * FNV_PRIME;
+            low = (low + c) * GOLDEN_RATIO;
+        }
+        return new CoverageFingerprint(coveredLines, high, mix(low ^ executionPath.length()), instructionsCovered, instructionsTotal);
+    }
+}
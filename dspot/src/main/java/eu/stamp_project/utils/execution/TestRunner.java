@@ -7,6 +7,7 @@ import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.testrunner.EntryPoint;
 import eu.stamp_project.utils.AmplificationHelper;
 import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.execution.pool.RunnerPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +40,7 @@ public class TestRunner {
                     .map(CtType::getQualifiedName)
                     .map(testClassName -> {
                         try {
-                            return EntryPoint.runTests(
+                            return TestRunner.runTests(
                                     classPath + AmplificationHelper.PATH_SEPARATOR + DSpotUtils.getAbsolutePathToDSpotDependencies(),
                                     testClassName,
                                     testsToRun.stream()
@@ -95,7 +96,7 @@ public class TestRunner {
                     testToRun
             );
         } else {
-            return EntryPoint.runTests(
+            return TestRunner.runTests(
                     classpath,
                     fullQualifiedName,
                     testToRun
@@ -104,4 +105,13 @@ public class TestRunner {
         }
     }
 
+    // run the tests in the runner pool if it is enabled, in a new JVM otherwise
+    private static TestResult runTests(String classpath, String fullQualifiedName, String... testToRun) throws TimeoutException {
+        if (RunnerPool.isEnabled()) {
+            return RunnerPool.runTests(classpath, fullQualifiedName, testToRun);
+        } else {
+            return EntryPoint.runTests(classpath, fullQualifiedName, testToRun);
+        }
+    }
+
 }
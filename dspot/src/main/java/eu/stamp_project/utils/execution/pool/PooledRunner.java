@@ -0,0 +1,233 @@
+package eu.stamp_project.utils.execution.pool;
+
+import eu.stamp_project.testrunner.EntryPoint;
+import eu.stamp_project.testrunner.listener.TestResult;
+import eu.stamp_project.testrunner.runner.Failure;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A long-lived JVM of the {@link RunnerPool}, that runs {@link RunnerServer} with the warm classpath.
+ */
+class PooledRunner {
+
+    private static final int CONNECTION_TIMEOUT_IN_MS = 30000;
+
+    private final String warmClasspath;
+
+    private final Process process;
+
+    private final Socket socket;
+
+    private final ObjectOutputStream output;
+
+    private final ObjectInputStream input;
+
+    private int numberOfRuns = 0;
+
+    private long heapUsageAfterFirstRun = -1L;
+
+    private long lastHeapUsage = -1L;
+
+    PooledRunner(String warmClasspath, String pathToRunnerServer, File workingDirectory, File log) throws IOException {
+        this.warmClasspath = warmClasspath;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(CONNECTION_TIMEOUT_IN_MS);
+            final List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            if (EntryPoint.JVMArgs != null) {
+                command.addAll(tokenize(EntryPoint.JVMArgs));
+            }
+            command.add("-cp");
+            command.add(warmClasspath + File.pathSeparator + pathToRunnerServer);
+            command.add(RunnerServer.class.getName());
+            command.add(Integer.toString(serverSocket.getLocalPort()));
+            final ProcessBuilder processBuilder = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(log));
+            if (workingDirectory != null) {
+                processBuilder.directory(workingDirectory);
+            }
+            this.process = processBuilder.start();
+            try {
+                this.socket = serverSocket.accept();
+                this.output = new ObjectOutputStream(this.socket.getOutputStream());
+                this.output.flush();
+                this.input = new ObjectInputStream(this.socket.getInputStream());
+            } catch (IOException e) {
+                this.process.destroyForcibly();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs the given test methods in the JVM of this runner.
+     * In case of timeout, the JVM is destroyed, and this runner must not be used anymore.
+     *
+     * @param freshClasspath the classpath to be loaded in a new class loader
+     * @param fullClasspath the whole classpath of the run, used to deserialize the exceptions thrown by the failing tests
+     * @param fullQualifiedName the name of the test class to be run
+     * @param testMethodNames the names of the test methods to be run, every test method if it is empty
+     * @param timeoutInMs the maximal duration of the run
+     * @return the result of the run
+     * @throws TimeoutException if the run exceeds the given timeout
+     * @throws IOException if the communication with the JVM failed
+     */
+    @SuppressWarnings("unchecked")
+    TestResult run(String freshClasspath,
+                   String fullClasspath,
+                   String fullQualifiedName,
+                   String[] testMethodNames,
+                   long timeoutInMs) throws TimeoutException, IOException {
+        this.numberOfRuns++;
+        try {
+            this.socket.setSoTimeout((int) timeoutInMs);
+            this.output.writeObject(new String[]{freshClasspath, fullQualifiedName, String.join(",", testMethodNames)});
+            this.output.flush();
+            final List<String> running = (List<String>) this.input.readObject();
+            final List<String> passing = (List<String>) this.input.readObject();
+            final List<String> ignored = (List<String>) this.input.readObject();
+            final List<Object[]> failing = (List<Object[]>) this.input.readObject();
+            final List<Object[]> assumptionFailing = (List<Object[]>) this.input.readObject();
+            final long heapUsage = this.input.readLong();
+            if (this.heapUsageAfterFirstRun < 0) {
+                this.heapUsageAfterFirstRun = heapUsage;
+            }
+            this.lastHeapUsage = heapUsage;
+            if (failing.isEmpty() && assumptionFailing.isEmpty()) {
+                return new PooledTestResult(running, passing, ignored, new ArrayList<>(), new ArrayList<>());
+            }
+            try (URLClassLoader classLoader = new URLClassLoader(toURLs(fullClasspath), PooledRunner.class.getClassLoader())) {
+                return new PooledTestResult(running, passing, ignored,
+                        toFailures(failing, classLoader),
+                        toFailures(assumptionFailing, classLoader)
+                );
+            }
+        } catch (SocketTimeoutException e) {
+            this.destroy();
+            throw new TimeoutException(String.format("The run of %s exceeded %d ms", fullQualifiedName, timeoutInMs));
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @return true if this runner has been used too many times, or if its heap usage has doubled since its first run
+     */
+    boolean shouldBeRecycled(int maxNumberOfRuns) {
+        return this.numberOfRuns >= maxNumberOfRuns ||
+                (this.heapUsageAfterFirstRun > 0 && this.lastHeapUsage > 2 * this.heapUsageAfterFirstRun);
+    }
+
+    boolean isAlive() {
+        return this.process.isAlive();
+    }
+
+    String getWarmClasspath() {
+        return warmClasspath;
+    }
+
+    void destroy() {
+        try {
+            this.socket.close();
+        } catch (IOException ignored) {
+            // the JVM is destroyed anyway
+        }
+        this.process.destroyForcibly();
+    }
+
+    /*
+        Splits the given JVM arguments as a shell would do: consecutive whitespaces separate two arguments,
+        and the whitespaces between single or double quotes belong to the argument, e.g. -Dname="a value"
+     */
+    static List<String> tokenize(String arguments) {
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+        for (char current : arguments.toCharArray()) {
+            if (quote != 0) {
+                if (current == quote) {
+                    quote = 0;
+                } else {
+                    token.append(current);
+                }
+            } else if (current == '"' || current == '\'') {
+                quote = current;
+                inToken = true;
+            } else if (Character.isWhitespace(current)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(current);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static List<Failure> toFailures(List<Object[]> failures, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final List<Failure> result = new ArrayList<>();
+        for (Object[] failure : failures) {
+            result.add(new Failure((String) failure[0], (String) failure[1], deserialize((byte[]) failure[2], classLoader)));
+        }
+        return result;
+    }
+
+    private static Throwable deserialize(byte[] throwable, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ClassLoaderObjectInputStream(new ByteArrayInputStream(throwable), classLoader)) {
+            return (Throwable) input.readObject();
+        }
+    }
+
+    private static URL[] toURLs(String classpath) throws IOException {
+        final String[] paths = classpath.split(File.pathSeparator);
+        final URL[] urls = new URL[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            urls[i] = new File(paths[i]).toURI().toURL();
+        }
+        return urls;
+    }
+
+    // resolves the classes of the exceptions thrown by the tests, that are not in the classpath of DSpot
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        private ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, this.classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package eu.stamp_project.utils.execution.pool;
+
+import eu.stamp_project.testrunner.listener.TestResult;
+import eu.stamp_project.testrunner.runner.Failure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link TestResult} of a run in the {@link RunnerPool}.
+ * The implementations of {@link TestResult} of the test runner are built by its listeners, in the JVM that runs the tests.
+ * The result of the pool is rather built from the lists sent by the {@link RunnerServer}.
+ */
+class PooledTestResult implements TestResult {
+
+    private final List<String> running;
+
+    private final List<String> passing;
+
+    private final List<String> ignored;
+
+    private final List<Failure> failing;
+
+    private final List<Failure> assumptionFailing;
+
+    PooledTestResult(List<String> running,
+                     List<String> passing,
+                     List<String> ignored,
+                     List<Failure> failing,
+                     List<Failure> assumptionFailing) {
+        this.running = running;
+        this.passing = passing;
+        this.ignored = ignored;
+        this.failing = failing;
+        this.assumptionFailing = assumptionFailing;
+    }
+
+    @Override
+    public TestResult aggregate(TestResult that) {
+        final List<String> running = new ArrayList<>(this.running);
+        running.addAll(that.getRunningTests());
+        final List<String> passing = new ArrayList<>(this.passing);
+        passing.addAll(that.getPassingTests());
+        final List<String> ignored = new ArrayList<>(this.ignored);
+        ignored.addAll(that.getIgnoredTests());
+        final List<Failure> failing = new ArrayList<>(this.failing);
+        failing.addAll(that.getFailingTests());
+        final List<Failure> assumptionFailing = new ArrayList<>(this.assumptionFailing);
+        assumptionFailing.addAll(that.getAssumptionFailingTests());
+        return new PooledTestResult(running, passing, ignored, failing, assumptionFailing);
+    }
+
+    @Override
+    public List<String> getRunningTests() {
+        return this.running;
+    }
+
+    @Override
+    public List<String> getPassingTests() {
+        return this.passing;
+    }
+
+    @Override
+    public List<Failure> getFailingTests() {
+        return this.failing;
+    }
+
+    @Override
+    public List<Failure> getAssumptionFailingTests() {
+        return this.assumptionFailing;
+    }
+
+    @Override
+    public List<String> getIgnoredTests() {
+        return this.ignored;
+    }
+
+    @Override
+    public Failure getFailureOf(String testMethodName) {
+        final List<Failure> failures = new ArrayList<>(this.failing);
+        failures.addAll(this.assumptionFailing);
+        return failures.stream()
+                .filter(failure -> failure.testCaseName.equals(testMethodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(testMethodName + " did not fail"));
+    }
+
+    @Override
+    public String toString() {
+        return "PooledTestResult{" +
+                "running=" + this.running +
+                ", passing=" + this.passing +
+                ", ignored=" + this.ignored +
+                ", failing=" + this.failing.size() +
+                ", assumptionFailing=" + this.assumptionFailing.size() +
+                '}';
+    }
+}
@@ -0,0 +1,191 @@
+package eu.stamp_project.utils.execution.pool;
+
+import eu.stamp_project.testrunner.EntryPoint;
+import eu.stamp_project.testrunner.listener.TestResult;
+import eu.stamp_project.utils.DSpotUtils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A pool of long-lived JVMs that run the JUnit4 tests, instead of starting a new JVM for each run as {@link EntryPoint} does.
+ *
+ * The classpath of a run is split in two parts:
+ * <ul>
+ *     <li>the fresh classpath: the folders that contain the test classes that have just been compiled, and the dspot dependencies.
+ *     It is sent with each run.</li>
+ *     <li>the warm classpath: everything else, i.e. the classes of the application and the dependencies.
+ *     The JVM of the pool is started with this classpath, and is reused only by the runs that have the same warm classpath.</li>
+ * </ul>
+ * Both are loaded in a new class loader for each run, so the static state of the classes of the application
+ * does not survive from one run to the other: only the JDK and JUnit stay loaded, see {@link RunnerServer}.
+ * The pool saves the start of a JVM for each run, not the loading of the classes of the application.
+ * A JVM is recycled after {@link InputConfiguration#getRunnerPoolMaxRuns()} runs, or when its heap usage doubles.
+ *
+ * The pool is used only if {@link InputConfiguration#getRunnerPoolSize()} is greater than 0, and only for JUnit4.
+ * If the pool fails to run the tests, DSpot falls back to {@link EntryPoint#runTests(String, String, String[])}.
+ */
+public class RunnerPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunnerPool.class);
+
+    private static final String PATH_TO_RUNNER_SERVER = "target/dspot/runner/";
+
+    private static final String PATH_TO_RUNNER_LOG = "target/dspot/runner.log";
+
+    private static final String PACKAGE_PATH = "eu/stamp_project/utils/execution/pool/";
+
+    private static final String[] RUNNER_SERVER_CLASSES = new String[]{
+            "RunnerServer", "RunnerServer$IsolatedClassLoader", "RunnerServer$MethodNameFilter", "RunnerServer$ResultListener"
+    };
+
+    private static final LinkedList<PooledRunner> idleRunners = new LinkedList<>();
+
+    private static int numberOfRunners = 0;
+
+    private static boolean shutdownHookAdded = false;
+
+    public static boolean isEnabled() {
+        return InputConfiguration.get().getRunnerPoolSize() > 0 && !EntryPoint.jUnit5Mode;
+    }
+
+    /**
+     * Runs the given test methods in a JVM of the pool.
+     *
+     * @param classpath the classpath of the run, as given to {@link EntryPoint#runTests(String, String, String[])}
+     * @param fullQualifiedName the name of the test class
+     * @param testMethodNames the names of the test methods to be run
+     * @return the result of the run
+     * @throws TimeoutException if the run exceeds {@link EntryPoint#timeoutInMs}
+     */
+    public static TestResult runTests(String classpath, String fullQualifiedName, String... testMethodNames) throws TimeoutException {
+        final Set<String> freshPaths = Stream.of(
+                DSpotUtils.getAbsolutePathToDSpotDependencies(),
+                InputConfiguration.get().getAbsolutePathToTestClasses()
+        ).map(RunnerPool::normalize).collect(Collectors.toSet());
+        final List<String> paths = Arrays.stream(classpath.split(File.pathSeparator))
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toList());
+        final String freshClasspath = paths.stream()
+                .filter(path -> freshPaths.contains(normalize(path)))
+                .collect(Collectors.joining(File.pathSeparator));
+        final String warmClasspath = paths.stream()
+                .filter(path -> !freshPaths.contains(normalize(path)))
+                .distinct()
+                .collect(Collectors.joining(File.pathSeparator));
+        PooledRunner runner = null;
+        try {
+            runner = borrow(warmClasspath);
+            final TestResult result = runner.run(freshClasspath, classpath, fullQualifiedName, testMethodNames, EntryPoint.timeoutInMs);
+            giveBack(runner, false);
+            return result;
+        } catch (TimeoutException e) {
+            giveBack(runner, true);
+            throw e;
+        } catch (Exception e) {
+            LOGGER.warn("The runner pool failed to run {}: {}", fullQualifiedName, e.getMessage());
+            LOGGER.warn("DSpot will now run the tests in a new JVM...");
+            if (runner != null) {
+                giveBack(runner, true);
+            }
+            return EntryPoint.runTests(classpath, fullQualifiedName, testMethodNames);
+        }
+    }
+
+    /**
+     * Destroys all the idle JVMs of the pool.
+     */
+    public static synchronized void shutdown() {
+        idleRunners.forEach(PooledRunner::destroy);
+        numberOfRunners -= idleRunners.size();
+        idleRunners.clear();
+    }
+
+    private static synchronized PooledRunner borrow(String warmClasspath) throws IOException, InterruptedException {
+        while (true) {
+            final Iterator<PooledRunner> iterator = idleRunners.iterator();
+            while (iterator.hasNext()) {
+                final PooledRunner runner = iterator.next();
+                if (!runner.isAlive()) {
+                    iterator.remove();
+                    runner.destroy();
+                    numberOfRunners--;
+                } else if (runner.getWarmClasspath().equals(warmClasspath)) {
+                    iterator.remove();
+                    return runner;
+                }
+            }
+            if (numberOfRunners < InputConfiguration.get().getRunnerPoolSize()) {
+                numberOfRunners++;
+                try {
+                    return startRunner(warmClasspath);
+                } catch (IOException e) {
+                    numberOfRunners--;
+                    throw e;
+                }
+            }
+            // the idle runners have another classpath, e.g. from another module
+            if (!idleRunners.isEmpty()) {
+                idleRunners.removeFirst().destroy();
+                numberOfRunners--;
+                continue;
+            }
+            RunnerPool.class.wait();
+        }
+    }
+
+    private static synchronized void giveBack(PooledRunner runner, boolean broken) {
+        if (broken || !runner.isAlive() || runner.shouldBeRecycled(InputConfiguration.get().getRunnerPoolMaxRuns())) {
+            runner.destroy();
+            numberOfRunners--;
+        } else {
+            idleRunners.add(runner);
+        }
+        RunnerPool.class.notifyAll();
+    }
+
+    private static PooledRunner startRunner(String warmClasspath) throws IOException {
+        if (!shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(RunnerPool::shutdown));
+            shutdownHookAdded = true;
+        }
+        final String pathToRunnerServer = InputConfiguration.get().getAbsolutePathToProjectRoot() + PATH_TO_RUNNER_SERVER;
+        copyRunnerServerFromResources(pathToRunnerServer);
+        LOGGER.info("Starting a new JVM in the runner pool");
+        return new PooledRunner(warmClasspath,
+                pathToRunnerServer,
+                EntryPoint.workingDirectory,
+                new File(InputConfiguration.get().getAbsolutePathToProjectRoot() + PATH_TO_RUNNER_LOG)
+        );
+    }
+
+    private static void copyRunnerServerFromResources(String pathToRunnerServer) throws IOException {
+        final File packageDirectory = new File(pathToRunnerServer + PACKAGE_PATH);
+        FileUtils.forceMkdir(packageDirectory);
+        for (String runnerServerClass : RUNNER_SERVER_CLASSES) {
+            try (InputStream stream = RunnerPool.class.getClassLoader().getResourceAsStream("runner/" + runnerServerClass + ".class")) {
+                if (stream == null) {
+                    throw new IOException("Could not find the resource of " + runnerServerClass);
+                }
+                FileUtils.copyInputStreamToFile(stream, new File(packageDirectory, runnerServerClass + ".class"));
+            }
+        }
+    }
+
+    private static String normalize(String path) {
+        return new File(path).getAbsoluteFile().toPath().normalize().toString();
+    }
+}
@@ -0,0 +1,223 @@
+package eu.stamp_project.utils.execution.pool;
+
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The main class of the long-lived JVMs of the {@link RunnerPool}.
+ * This class is shipped as a resource, like the classes of the compare package, since it runs with the classpath of the project:
+ * it must depend only on the JDK and on JUnit4.
+ *
+ * The server connects to the port given as argument, then runs the requests of DSpot one after the other.
+ * A request is made of the fresh classpath, i.e. the folders that contain the test classes that have just been compiled,
+ * the full qualified name of the test class, and the names of the test methods to be run.
+ * The classpath of the JVM and the fresh classpath are loaded in a new class loader for each request,
+ * so the static state of the classes of the application does not leak from one request to the other.
+ * Only the classes of the JDK, of JUnit and of Hamcrest stay loaded from one request to the other, see {@link IsolatedClassLoader}.
+ */
+public class RunnerServer {
+
+    public static void main(String[] args) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+            final ObjectOutputStream output = new ObjectOutputStream(socket.getOutputStream());
+            output.flush();
+            final ObjectInputStream input = new ObjectInputStream(socket.getInputStream());
+            while (true) {
+                final String[] request;
+                try {
+                    request = (String[]) input.readObject();
+                } catch (IOException e) {
+                    // DSpot closed the connection
+                    break;
+                }
+                final ResultListener listener = run(request[0], request[1], request[2]);
+                output.reset();
+                output.writeObject(listener.running);
+                output.writeObject(listener.passing);
+                output.writeObject(listener.ignored);
+                output.writeObject(listener.failing);
+                output.writeObject(listener.assumptionFailing);
+                output.writeLong(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+                output.flush();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ResultListener run(String freshClasspath, String fullQualifiedName, String testMethodNames) throws Exception {
+        final List<URL> urls = new ArrayList<>();
+        for (String path : (System.getProperty("java.class.path") + File.pathSeparator + freshClasspath).split(File.pathSeparator)) {
+            if (!path.isEmpty()) {
+                urls.add(new File(path).toURI().toURL());
+            }
+        }
+        final ResultListener listener = new ResultListener();
+        final ClassLoader previousContextClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new IsolatedClassLoader(urls.toArray(new URL[0]))) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            final Class<?> testClass = classLoader.loadClass(fullQualifiedName);
+            final Set<String> testMethods = testMethodNames.isEmpty() ?
+                    new HashSet<>() : new HashSet<>(Arrays.asList(testMethodNames.split(",")));
+            final JUnitCore core = new JUnitCore();
+            core.addListener(listener);
+            core.run(Request.aClass(testClass).filterWith(new MethodNameFilter(testMethods)));
+        } catch (Throwable e) {
+            listener.failing.add(toFailure(fullQualifiedName, fullQualifiedName, e));
+        } finally {
+            Thread.currentThread().setContextClassLoader(previousContextClassLoader);
+        }
+        return listener;
+    }
+
+    /*
+        A failure is sent as its test method name, its test class name, and its serialized throwable.
+        If the throwable is not serializable, a RuntimeException with the same message and stack trace is sent instead.
+     */
+    private static Object[] toFailure(String testMethodName, String testClassName, Throwable throwable) {
+        return new Object[]{testMethodName, testClassName, serialize(throwable)};
+    }
+
+    private static byte[] serialize(Throwable throwable) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(throwable);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            final RuntimeException substitute = new RuntimeException(throwable.getClass().getName() + ": " + throwable.getMessage());
+            substitute.setStackTrace(throwable.getStackTrace());
+            return serialize(substitute);
+        }
+    }
+
+    /*
+        Loads the classes of the application again for each request, instead of delegating to the system class loader.
+        The classes of JUnit and of Hamcrest are shared with the server, which runs the tests with them.
+     */
+    static class IsolatedClassLoader extends URLClassLoader {
+
+        private static final String[] SHARED_PACKAGES = new String[]{"org.junit.", "junit.", "org.hamcrest."};
+
+        IsolatedClassLoader(URL[] urls) {
+            super(urls, ClassLoader.getSystemClassLoader().getParent());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            for (String sharedPackage : SHARED_PACKAGES) {
+                if (name.startsWith(sharedPackage)) {
+                    return RunnerServer.class.getClassLoader().loadClass(name);
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    static class MethodNameFilter extends Filter {
+
+        private final Set<String> testMethods;
+
+        MethodNameFilter(Set<String> testMethods) {
+            this.testMethods = testMethods;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                return this.testMethods.isEmpty() || this.testMethods.contains(getTestMethodName(description));
+            }
+            for (Description child : description.getChildren()) {
+                if (this.shouldRun(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return "test methods " + this.testMethods;
+        }
+    }
+
+    // the name of a parametrized test method ends with its parameters, e.g. test[0]
+    private static String getTestMethodName(Description description) {
+        final String methodName = description.getMethodName();
+        if (methodName == null) {
+            return description.getClassName();
+        }
+        return methodName.contains("[") ? methodName.substring(0, methodName.indexOf('[')) : methodName;
+    }
+
+    static class ResultListener extends RunListener {
+
+        private final ArrayList<String> running = new ArrayList<>();
+
+        private final ArrayList<String> passing = new ArrayList<>();
+
+        private final ArrayList<String> ignored = new ArrayList<>();
+
+        private final ArrayList<Object[]> failing = new ArrayList<>();
+
+        private final ArrayList<Object[]> assumptionFailing = new ArrayList<>();
+
+        private final List<Description> notPassing = new ArrayList<>();
+
+        @Override
+        public void testStarted(Description description) {
+            this.running.add(getTestMethodName(description));
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            if (!this.notPassing.contains(description)) {
+                this.passing.add(getTestMethodName(description));
+            }
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            this.notPassing.add(failure.getDescription());
+            this.failing.add(toFailure(
+                    getTestMethodName(failure.getDescription()),
+                    failure.getDescription().getClassName(),
+                    failure.getException())
+            );
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            this.notPassing.add(failure.getDescription());
+            this.assumptionFailing.add(toFailure(
+                    getTestMethodName(failure.getDescription()),
+                    failure.getDescription().getClassName(),
+                    failure.getException())
+            );
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            this.ignored.add(getTestMethodName(description));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package eu.stamp_project.utils.json;
+
+public class AmplifierYieldJSON {
+
+    public int generated;
+    public int kept;
+
+}
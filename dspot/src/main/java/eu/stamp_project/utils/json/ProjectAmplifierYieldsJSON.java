@@ -0,0 +1,20 @@
+package eu.stamp_project.utils.json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The number of amplified test methods generated by each amplifier, and the number of them kept by the test selector,
+ * for the whole project and for each test class.
+ */
+public class ProjectAmplifierYieldsJSON {
+
+    public final Map<String, AmplifierYieldJSON> amplifiers = new LinkedHashMap<>();
+    public final Map<String, Map<String, AmplifierYieldJSON>> testClasses = new LinkedHashMap<>();
+    public final String projectName;
+
+    public ProjectAmplifierYieldsJSON(String projectName) {
+        this.projectName = projectName;
+    }
+
+}
@@ -1,7 +1,9 @@
 package eu.stamp_project.utils.options;
 
 import eu.stamp_project.dspot.amplifier.Amplifier;
+import eu.stamp_project.dspot.budget.BanditBudgetizer;
 import eu.stamp_project.dspot.budget.Budgetizer;
+import eu.stamp_project.dspot.budget.MinHashBudgetizer;
 import eu.stamp_project.dspot.budget.RandomBudgetizer;
 import eu.stamp_project.dspot.budget.TextualDistanceBudgetizer;
 import eu.stamp_project.dspot.budget.SimpleBudgetizer;
@@ -44,6 +46,26 @@ public enum BudgetizerEnum {
         public Budgetizer getBudgetizer(List<Amplifier> amplifiers) {
             return new SimpleBudgetizer(amplifiers);
         }
+    },
+    MinHashBudgetizer {
+        @Override
+        public Budgetizer getBudgetizer() {
+            return new MinHashBudgetizer();
+        }
+        @Override
+        public Budgetizer getBudgetizer(List<Amplifier> amplifiers) {
+            return new MinHashBudgetizer(amplifiers);
+        }
+    },
+    BanditBudgetizer {
+        @Override
+        public Budgetizer getBudgetizer() {
+            return new BanditBudgetizer();
+        }
+        @Override
+        public Budgetizer getBudgetizer(List<Amplifier> amplifiers) {
+            return new BanditBudgetizer(amplifiers);
+        }
     };
 
     public abstract Budgetizer getBudgetizer();
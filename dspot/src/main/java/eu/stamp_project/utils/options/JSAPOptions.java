@@ -274,7 +274,7 @@ public class JSAPOptions {
         FlaggedOption budgetizer = new FlaggedOption("budgetizer");
         budgetizer.setStringParser(JSAP.STRING_PARSER);
         budgetizer.setLongFlag("budgetizer");
-        budgetizer.setUsageName("RandomBudgetizer | TextualDistanceBudgetizer | SimpleBudgetizer");
+        budgetizer.setUsageName("RandomBudgetizer | TextualDistanceBudgetizer | SimpleBudgetizer | MinHashBudgetizer | BanditBudgetizer");
         budgetizer.setHelp("[optional] specify a Bugdetizer." + JSAPOptions.helpForEnums(BudgetizerEnum.class));
         budgetizer.setDefault("RandomBudgetizer");
 
@@ -4,7 +4,9 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 abstract public class AbstractParser<T extends  AbstractPitResult> {
 
@@ -33,15 +35,37 @@ abstract public class AbstractParser<T extends  AbstractPitResult> {
     }
 
     public List<T> parseAndDelete(String pathToDirectoryResults) {
+        final List<T> results = new ArrayList<>();
+        parseAndDelete(pathToDirectoryResults, results::add);
+        return results;
+    }
+
+    /**
+     * Parses the results of PIT in the given directory, and gives them one by one to the given consumer, then deletes the directory.
+     *
+     * @return the number of results
+     */
+    public int parseAndDelete(String pathToDirectoryResults, Consumer<? super T> consumer) {
         final File fileResults = getPathOfMutationsFile(pathToDirectoryResults);
-        final List<T> results = parse(fileResults);
+        final int numberOfResults = parse(fileResults, consumer);
         try {
             FileUtils.deleteDirectory(new File(pathToDirectoryResults));
         } catch (IOException e) {
             // ignored
         }
+        return numberOfResults;
+    }
+
+    public List<T> parse(File fileResults) {
+        final List<T> results = new ArrayList<>();
+        parse(fileResults, results::add);
         return results;
     }
 
-    abstract public List<T> parse(File fileResults);
+    /**
+     * Parses the given results of PIT, and gives them one by one to the given consumer, as they are read.
+     *
+     * @return the number of results
+     */
+    abstract public int parse(File fileResults, Consumer<? super T> consumer);
 }
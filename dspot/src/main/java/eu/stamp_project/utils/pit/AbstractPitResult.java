@@ -24,6 +24,8 @@ public abstract class AbstractPitResult {
 
     protected CtMethod testCase = null;
 
+    private MutantKey key = null;
+
     public AbstractPitResult(String fullQualifiedNameOfMutatedClass, AbstractPitResult.State stateOfMutant,
                      String fullQualifiedNameMutantOperator,
                      String fullQualifiedNameMethod, String fullQualifiedNameOfKiller,
@@ -78,5 +80,20 @@ public abstract class AbstractPitResult {
         }
     }
 
+    /**
+     * @return the identity of the mutant, see {@link MutantKey}
+     */
+    public MutantKey getKey() {
+        if (this.key == null) {
+            this.key = this.createKey();
+        }
+        return this.key;
+    }
+
+    protected MutantKey createKey() {
+        return new MutantKey(this.fullQualifiedNameOfMutatedClass, this.nameOfMutatedMethod, null,
+                this.lineNumber, this.fullQualifiedNameMutantOperator, -1, -1);
+    }
+
     public abstract AbstractPitResult clone();
 }
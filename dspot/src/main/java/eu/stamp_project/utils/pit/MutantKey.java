@@ -0,0 +1,84 @@
+package eu.stamp_project.utils.pit;
+
+import java.util.Objects;
+
+/**
+ * The identity of a mutant, i.e. what does not change from one run of PIT to another on the same program:
+ * the mutated class, the mutated method, the description of the mutation, the line, the mutator, the index and the block.
+ * The state of the mutant and its killer are not part of it, in order to look for a mutant of a run in the results of another run,
+ * e.g. in a {@link java.util.HashSet}.
+ * The CSV output of PIT does not give the description, the index and the block of the mutants: they are respectively null, -1 and -1.
+ */
+public class MutantKey {
+
+    private final String fullQualifiedNameOfMutatedClass;
+
+    private final String nameOfMutatedMethod;
+
+    private final String mutationDescription;
+
+    private final int lineNumber;
+
+    private final String fullQualifiedNameMutantOperator;
+
+    private final int index;
+
+    private final int block;
+
+    private final int hashCode;
+
+    public MutantKey(String fullQualifiedNameOfMutatedClass,
+                     String nameOfMutatedMethod,
+                     String mutationDescription,
+                     int lineNumber,
+                     String fullQualifiedNameMutantOperator,
+                     int index,
+                     int block) {
+        this.fullQualifiedNameOfMutatedClass = fullQualifiedNameOfMutatedClass;
+        this.nameOfMutatedMethod = nameOfMutatedMethod;
+        this.mutationDescription = mutationDescription;
+        this.lineNumber = lineNumber;
+        this.fullQualifiedNameMutantOperator = fullQualifiedNameMutantOperator;
+        this.index = index;
+        this.block = block;
+        this.hashCode = Objects.hash(fullQualifiedNameOfMutatedClass, nameOfMutatedMethod, mutationDescription,
+                lineNumber, fullQualifiedNameMutantOperator, index, block);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MutantKey that = (MutantKey) o;
+        return hashCode == that.hashCode &&
+                lineNumber == that.lineNumber &&
+                index == that.index &&
+                block == that.block &&
+                Objects.equals(fullQualifiedNameOfMutatedClass, that.fullQualifiedNameOfMutatedClass) &&
+                Objects.equals(nameOfMutatedMethod, that.nameOfMutatedMethod) &&
+                Objects.equals(mutationDescription, that.mutationDescription) &&
+                Objects.equals(fullQualifiedNameMutantOperator, that.fullQualifiedNameMutantOperator);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "MutantKey{" +
+                "fullQualifiedNameOfMutatedClass='" + fullQualifiedNameOfMutatedClass + '\'' +
+                ", nameOfMutatedMethod='" + nameOfMutatedMethod + '\'' +
+                ", mutationDescription='" + mutationDescription + '\'' +
+                ", lineNumber=" + lineNumber +
+                ", fullQualifiedNameMutantOperator='" + fullQualifiedNameMutantOperator + '\'' +
+                ", index=" + index +
+                ", block=" + block +
+                '}';
+    }
+}
@@ -3,8 +3,7 @@ package eu.stamp_project.utils.pit;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Created by Benjamin DANGLOT
@@ -17,8 +16,9 @@ public class PitCSVResultParser extends AbstractParser<PitCSVResult> {
         super("/mutations.csv");
     }
 
-    public List<PitCSVResult> parse(File fileResults) {
-        final List<PitCSVResult> results = new ArrayList<>();
+    @Override
+    public int parse(File fileResults, Consumer<? super PitCSVResult> consumer) {
+        final int[] numberOfResults = new int[]{0};
         try (BufferedReader buffer = new BufferedReader(new FileReader(fileResults))) {
             buffer.lines().forEach(line -> {
                 String[] splittedLines = line.split(",");
@@ -48,12 +48,13 @@ public class PitCSVResultParser extends AbstractParser<PitCSVResult> {
                     }
                     int lineNumber = Integer.parseInt(splittedLines[4]);
                     String location = splittedLines[3];
-                    results.add(new PitCSVResult(fullQualifiedNameOfMutatedClass, state, fullQualifiedNameMutantOperator, fullQualifiedNameMethod, fullQualifiedNameClass, lineNumber, location));
+                    consumer.accept(new PitCSVResult(fullQualifiedNameOfMutatedClass, state, fullQualifiedNameMutantOperator, fullQualifiedNameMethod, fullQualifiedNameClass, lineNumber, location));
+                    numberOfResults[0]++;
                 }
             });
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        return results;
+        return numberOfResults[0];
     }
 }
@@ -50,6 +50,12 @@ public class PitXMLResult extends AbstractPitResult {
         return block;
     }
 
+    @Override
+    protected MutantKey createKey() {
+        return new MutantKey(this.fullQualifiedNameOfMutatedClass, this.nameOfMutatedMethod, this.mutationDescription,
+                this.lineNumber, this.fullQualifiedNameMutantOperator, this.index, this.block);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -1,8 +1,7 @@
 package eu.stamp_project.utils.pit;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.Attributes;
@@ -19,13 +18,14 @@ public class PitXMLResultParser extends AbstractParser<PitXMLResult> {
         super("/mutations.xml");
     }
 
-    public List<PitXMLResult> parse(File fileResults) {
+    @Override
+    public int parse(File fileResults, Consumer<? super PitXMLResult> consumer) {
+        final int[] numberOfResults = new int[]{0};
         try {
             SAXParserFactory factory = SAXParserFactory.newInstance();
             SAXParser saxParser = factory.newSAXParser();
             class Handler extends DefaultHandler {
                 private StringBuilder stringBuilder;
-                final List<PitXMLResult> results = new ArrayList<>();
                 String sourceFile, methodDescription, mutatedClass, mutatedMethod, mutator, killingTest, description,
                         fullQualifiedNameMethod, fullQualifiedNameClass;
                 int numberOfTestsRun, lineNumber, index, block;
@@ -50,7 +50,7 @@ public class PitXMLResultParser extends AbstractParser<PitXMLResult> {
 
                 @Override
                 public void characters(char ch[], int start, int length) {
-                    stringBuilder.append(new String(ch, start, length));
+                    stringBuilder.append(ch, start, length);
                 }
 
                 @Override
@@ -90,23 +90,19 @@ public class PitXMLResultParser extends AbstractParser<PitXMLResult> {
                                 fullQualifiedNameClass = nameOfTheKiller[0].substring(0, nameOfTheKiller[0].length() / 2);
                             }
                         }
-                        results.add(new PitXMLResult(mutatedClass, state,
+                        consumer.accept(new PitXMLResult(mutatedClass, state,
                                 mutator, fullQualifiedNameMethod, fullQualifiedNameClass,
                                 lineNumber, mutatedMethod, methodDescription, description, index, block,
                                 numberOfTestsRun, detected));
+                        numberOfResults[0]++;
                     }
                 }
-
-                public List<PitXMLResult> getResults() {
-                    return results;
-                }
             }
             Handler handler = new Handler();
             saxParser.parse(fileResults, handler);
-            return handler.getResults();
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return new ArrayList<>();
+        return numberOfResults[0];
     }
 }
@@ -230,6 +230,34 @@ public class ConstantsProperties {
                     "10000"
             );
 
+    public static final InputConfigurationProperty RUNNER_POOL_SIZE =
+            new InputConfigurationProperty(
+                    "runnerPoolSize",
+                    "specify the number of long-lived JVMs used to run JUnit4 tests. " +
+                            "Each run loads the test classes and the classes of the application in a new class loader, so their static state is not shared by the runs. " +
+                            "If the pool fails to run the tests, DSpot falls back to a new JVM for each run. " +
+                            "By default, DSpot starts a new JVM for each run.",
+                    "0"
+            );
+
+    public static final InputConfigurationProperty RUNNER_POOL_MAX_RUNS =
+            new InputConfigurationProperty(
+                    "runnerPoolMaxRuns",
+                    "specify the number of runs after which a JVM of the pool is recycled. " +
+                            "A JVM is also recycled when its heap usage doubles compared to its first run.",
+                    "100"
+            );
+
+    public static final InputConfigurationProperty RUN_PIT_IN_FORKED_JVM =
+            new InputConfigurationProperty(
+                    "runPitInForkedJVM",
+                    "specify if PIT must be run directly through its command line entry point, in a new JVM with the classpath computed by DSpot, " +
+                            "instead of through the automatic builder. " +
+                            "The jars of PIT, and of Descartes if it is used, are taken from the local Maven repository. " +
+                            "If they cannot be found or if the run fails, DSpot falls back to the automatic builder.",
+                    "false"
+            );
+
 
 
     /**
@@ -259,6 +287,9 @@ public class ConstantsProperties {
         inputConfigurationProperties.add(PIT_FILTER_CLASSES_TO_KEEP);
         inputConfigurationProperties.add(DESCARTES_VERSION);
         inputConfigurationProperties.add(DESCARTES_MUTATORS);
+        inputConfigurationProperties.add(RUNNER_POOL_SIZE);
+        inputConfigurationProperties.add(RUNNER_POOL_MAX_RUNS);
+        inputConfigurationProperties.add(RUN_PIT_IN_FORKED_JVM);
         final String output = "* Required properties" +
                 AmplificationHelper.LINE_SEPARATOR +
                 getRequiredProperties.apply(inputConfigurationProperties)
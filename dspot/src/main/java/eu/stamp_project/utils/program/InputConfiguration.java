@@ -7,6 +7,7 @@ import eu.stamp_project.dspot.amplifier.Amplifier;
 import eu.stamp_project.dspot.selector.PitMutantScoreSelector;
 import eu.stamp_project.dspot.selector.TestSelector;
 import eu.stamp_project.utils.DSpotCache;
+import eu.stamp_project.utils.execution.pool.RunnerPool;
 import eu.stamp_project.utils.options.AmplifierEnum;
 import eu.stamp_project.utils.options.BudgetizerEnum;
 import eu.stamp_project.testrunner.EntryPoint;
@@ -115,6 +116,7 @@ public class InputConfiguration {
     private static void reset() {
         LOGGER.warn("Erasing old instance of InputConfiguration");
         DSpotCache.reset();
+        RunnerPool.shutdown();
         Main.GLOBAL_REPORT.reset();
         AmplificationHelper.reset();
     }
@@ -206,7 +208,10 @@ public class InputConfiguration {
                 .setJVMArgs(ConstantsProperties.JVM_ARGS.get(properties))
                 .setDescartesMutators(ConstantsProperties.DESCARTES_MUTATORS.get(properties))
                 .setPitVersion(ConstantsProperties.PIT_VERSION.get(properties))
-                .setExcludedTestCases(ConstantsProperties.EXCLUDED_TEST_CASES.get(properties));
+                .setExcludedTestCases(ConstantsProperties.EXCLUDED_TEST_CASES.get(properties))
+                .setRunnerPoolSize(Integer.parseInt(ConstantsProperties.RUNNER_POOL_SIZE.get(properties)))
+                .setRunnerPoolMaxRuns(Integer.parseInt(ConstantsProperties.RUNNER_POOL_MAX_RUNS.get(properties)))
+                .setRunPitInForkedJVM(Boolean.parseBoolean(ConstantsProperties.RUN_PIT_IN_FORKED_JVM.get(properties)));
     }
 
     private void initializeBuilder(Properties properties) {
@@ -1008,4 +1013,47 @@ public class InputConfiguration {
         return this;
     }
 
+    /**
+     * The number of long-lived JVMs used to run the tests, see {@link eu.stamp_project.utils.execution.pool.RunnerPool}.
+     * If it is lower or equal to 0, a new JVM is started for each run.
+     */
+    private int runnerPoolSize = 0;
+
+    public int getRunnerPoolSize() {
+        return runnerPoolSize;
+    }
+
+    public InputConfiguration setRunnerPoolSize(int runnerPoolSize) {
+        this.runnerPoolSize = runnerPoolSize;
+        return this;
+    }
+
+    /**
+     * The number of runs after which a JVM of the pool is recycled.
+     */
+    private int runnerPoolMaxRuns = 100;
+
+    public int getRunnerPoolMaxRuns() {
+        return runnerPoolMaxRuns;
+    }
+
+    public InputConfiguration setRunnerPoolMaxRuns(int runnerPoolMaxRuns) {
+        this.runnerPoolMaxRuns = runnerPoolMaxRuns;
+        return this;
+    }
+
+    /**
+     * If true, PIT is run through its command line entry point in a new JVM, see {@link eu.stamp_project.automaticbuilder.ForkedPitRunner}.
+     */
+    private boolean runPitInForkedJVM = false;
+
+    public boolean shouldRunPitInForkedJVM() {
+        return runPitInForkedJVM;
+    }
+
+    public InputConfiguration setRunPitInForkedJVM(boolean runPitInForkedJVM) {
+        this.runPitInForkedJVM = runPitInForkedJVM;
+        return this;
+    }
+
 }
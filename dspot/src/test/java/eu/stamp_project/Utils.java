@@ -11,6 +11,7 @@ import spoon.reflect.code.CtLiteral;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.visitor.chain.CtQueryable;
 import spoon.reflect.visitor.filter.TypeFilter;
@@ -112,6 +113,15 @@ public class Utils {
 		}).list();
 	}
 
+	public static CtMethod<?> createMethod(Factory factory, String name, String statement) {
+		final CtMethod<Void> method = factory.createMethod();
+		method.setSimpleName(name);
+		method.setType(factory.Type().VOID_PRIMITIVE);
+		method.setBody(factory.createCodeSnippetStatement(statement));
+		method.addModifier(ModifierKind.PUBLIC);
+		return method;
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <T> void replaceGivenLiteralByNewValue(CtQueryable parent, T newValue) {
 		((CtLiteral<T>)parent.filterChildren(new FILTER_LITERAL_OF_GIVEN_TYPE(newValue.getClass()))
@@ -0,0 +1,88 @@
+package eu.stamp_project.automaticbuilder;
+
+import eu.stamp_project.Utils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BuildCacheTest {
+
+    @Before
+    public void setUp() throws Exception {
+        Utils.init("src/test/resources/test-projects/test-projects.properties");
+    }
+
+    private BuildCache newBuildCache(String option) {
+        return new BuildCache(Collections.singletonList("pom.xml"), Collections.emptyList(), option);
+    }
+
+    @Test
+    public void testClasspath() throws Exception {
+        /*
+            The classpath is reused as long as the inputs of the build do not change,
+            and as long as its entries exist.
+         */
+        final String classpath = Utils.getBuilder().buildClasspath();
+        newBuildCache("a").putClasspath(classpath);
+        assertEquals(classpath, newBuildCache("a").getClasspath());
+        assertNull(newBuildCache("b").getClasspath());
+
+        newBuildCache("a").putClasspath(classpath + File.pathSeparator + "target/does/not/exist.jar");
+        assertNull(newBuildCache("a").getClasspath());
+    }
+
+    @Test
+    public void testCompilation() throws Exception {
+        /*
+            The compilation is up to date until the content of a source, or of a binary, changes.
+            The date of last modification is not used.
+         */
+        newBuildCache("a").compilationDone();
+        assertTrue(newBuildCache("a").isCompilationUpToDate());
+        assertFalse(newBuildCache("b").isCompilationUpToDate());
+
+        final File source = new File(InputConfiguration.get().getAbsolutePathToSourceCode() + "example/Example.java");
+        final long lastModified = source.lastModified();
+        final byte[] content = FileUtils.readFileToByteArray(source);
+        try {
+            assertTrue(source.setLastModified(lastModified + 1000L));
+            assertTrue(newBuildCache("a").isCompilationUpToDate());
+            FileUtils.write(source, "// a modification" + System.lineSeparator(), StandardCharsets.UTF_8, true);
+            assertFalse(newBuildCache("a").isCompilationUpToDate());
+        } finally {
+            FileUtils.writeByteArrayToFile(source, content);
+            source.setLastModified(lastModified);
+        }
+        assertTrue(newBuildCache("a").isCompilationUpToDate());
+    }
+
+    @Test
+    public void testCompilationWithUpdatedDependency() throws Exception {
+        /*
+            The compilation is not up to date anymore once a dependency of the classpath is updated, e.g. a snapshot
+         */
+        final File dependency = new File("target/dspot/dependency.jar");
+        FileUtils.writeByteArrayToFile(dependency, new byte[]{0});
+        try {
+            final BuildCache buildCache = newBuildCache("a");
+            buildCache.putClasspath(dependency.getAbsolutePath());
+            buildCache.compilationDone();
+            assertTrue(newBuildCache("a").isCompilationUpToDate());
+
+            FileUtils.writeByteArrayToFile(dependency, new byte[]{1});
+            assertFalse(newBuildCache("a").isCompilationUpToDate());
+        } finally {
+            FileUtils.forceDelete(dependency);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package eu.stamp_project.automaticbuilder;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ForkedPitRunnerTest extends AbstractTest {
+
+    private static final File WORKING_DIRECTORY = new File("target/dspot/forked-pit-runner");
+
+    @After
+    public void tearDown() throws Exception {
+        InputConfiguration.get().setDescartesMode(false);
+        FileUtils.deleteDirectory(WORKING_DIRECTORY);
+    }
+
+    @Test
+    public void testBuildCommand() throws Exception {
+
+        /*
+            The command runs the command line entry point of PIT,
+                with the jars of PIT and the classpath of the project,
+                on the given target classes and test classes
+         */
+
+        InputConfiguration.get().setDescartesMode(false);
+        final File reportDirectory = new File(WORKING_DIRECTORY, "pit-reports");
+        final List<String> command = ForkedPitRunner.buildCommand(
+                Arrays.asList("pitest.jar", "pitest-command-line.jar"),
+                "junit.jar",
+                reportDirectory,
+                "fr.inria.sample.*",
+                Utils.findClass("fr.inria.sample.TestClassWithoutAssert")
+        );
+        assertTrue(command.get(0).endsWith("java"));
+        assertEquals("-cp", command.get(1));
+        assertTrue(command.get(2).startsWith("pitest.jar" + File.pathSeparator + "pitest-command-line.jar" + File.pathSeparator));
+        assertTrue(command.get(2).contains(File.pathSeparator + "junit.jar"));
+        assertEquals("org.pitest.mutationtest.commandline.MutationCoverageReport", command.get(3));
+        assertTrue(command.contains("--reportDir=" + reportDirectory.getAbsolutePath()));
+        assertTrue(command.contains("--targetClasses=fr.inria.sample.*"));
+        assertTrue(command.contains("--targetTests=fr.inria.sample.TestClassWithoutAssert"));
+        assertTrue(command.contains("--mutators=ALL"));
+        assertTrue(command.contains("--excludedTestClasses=fr.inria.filter.failing.*"));
+        assertTrue(command.contains("--jvmArgs=" + InputConfiguration.get().getJVMArgs()));
+        assertFalse(command.stream().anyMatch(argument -> argument.startsWith("--mutationEngine")));
+    }
+
+    @Test
+    public void testBuildCommandDescartesWithoutTestClasses() throws Exception {
+
+        /*
+            In Descartes mode, the command uses the mutation engine of Descartes,
+                and PIT runs its default test classes when none is given
+         */
+
+        InputConfiguration.get().setDescartesMode(true);
+        final List<String> command = ForkedPitRunner.buildCommand(
+                Collections.singletonList("pitest.jar"),
+                "",
+                new File(WORKING_DIRECTORY, "pit-reports"),
+                "fr.inria.sample.*"
+        );
+        assertTrue(command.contains("--mutationEngine=descartes"));
+        assertFalse(command.contains("--mutators=ALL"));
+        assertFalse(command.stream().anyMatch(argument -> argument.startsWith("--targetTests")));
+    }
+
+    @Test
+    public void testGetLocalRepository() throws Exception {
+
+        /*
+            The local repository is taken, in this order, from:
+                the property maven.repo.local,
+                the .mvn/maven.config of the project,
+                the first settings that defines one,
+                and ~/.m2/repository otherwise
+         */
+
+        final File mavenConfig = new File(WORKING_DIRECTORY, ".mvn/maven.config");
+        final File userSettings = new File(WORKING_DIRECTORY, "settings.xml");
+        final File globalSettings = new File(WORKING_DIRECTORY, "conf/settings.xml");
+        final List<File> settings = Arrays.asList(userSettings, globalSettings);
+
+        assertEquals(new File(System.getProperty("user.home"), ".m2/repository"),
+                ForkedPitRunner.getLocalRepository(null, mavenConfig, settings)
+        );
+
+        FileUtils.write(globalSettings,
+                "<settings xmlns=\"http://maven.apache.org/SETTINGS/1.0.0\">" +
+                        "<localRepository>${user.home}/global-repository</localRepository>" +
+                        "</settings>",
+                StandardCharsets.UTF_8
+        );
+        assertEquals(new File(System.getProperty("user.home") + "/global-repository"),
+                ForkedPitRunner.getLocalRepository(null, mavenConfig, settings)
+        );
+
+        FileUtils.write(userSettings,
+                "<settings><localRepository>/tmp/user-repository</localRepository></settings>",
+                StandardCharsets.UTF_8
+        );
+        assertEquals(new File("/tmp/user-repository"), ForkedPitRunner.getLocalRepository(null, mavenConfig, settings));
+
+        FileUtils.write(mavenConfig, "-T 4 -Dmaven.repo.local=/tmp/project-repository", StandardCharsets.UTF_8);
+        assertEquals(new File("/tmp/project-repository"), ForkedPitRunner.getLocalRepository(null, mavenConfig, settings));
+
+        assertEquals(new File("/tmp/property-repository"),
+                ForkedPitRunner.getLocalRepository("/tmp/property-repository", mavenConfig, settings)
+        );
+    }
+}
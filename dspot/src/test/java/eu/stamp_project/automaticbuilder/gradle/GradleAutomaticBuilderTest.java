@@ -20,9 +20,11 @@ import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Created by Daniele Gagliardi
@@ -116,6 +118,30 @@ public class GradleAutomaticBuilderTest {
         Utils.LOGGER.info("Gradle Automatic Builder runPit() test complete when a test class is specified.");
     }
 
+    @Test
+    public void runPit_whenTheBuildFileCannotBeBackedUp() throws Exception {
+        Utils.LOGGER.info("Starting Gradle Automatic Builder runPit() test when the build file cannot be backed up...");
+
+        InputConfiguration.get().setDescartesMode(false);
+
+        // a backup left by a previous run: the build file must not be modified, and the failure must be reported
+        final File buildFile = new File("src/test/resources/test-projects/" + GradleInjector.GRADLE_BUILD_FILE);
+        final File backup = new File(buildFile.getPath() + ".orig");
+        final String originalContent = FileUtils.readFileToString(buildFile);
+        FileUtils.copyFile(buildFile, backup);
+        try {
+            sut.runPit();
+            fail("runPit() should have thrown a RuntimeException");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        } finally {
+            backup.delete();
+        }
+        assertEquals(originalContent, FileUtils.readFileToString(buildFile));
+
+        Utils.LOGGER.info("Gradle Automatic Builder runPit() test complete when the build file cannot be backed up.");
+    }
+
     private void cleanTestEnv() throws IOException {
         File classPathFile = new File("src/test/resources/test-projects/gjp_cp");
         if (classPathFile.exists()) {
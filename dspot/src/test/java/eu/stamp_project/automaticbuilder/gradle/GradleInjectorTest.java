@@ -2,9 +2,17 @@ package eu.stamp_project.automaticbuilder.gradle;
 
 import eu.stamp_project.AbstractTest;
 import eu.stamp_project.utils.AmplificationHelper;
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * created by Benjamin DANGLOT
@@ -104,4 +112,43 @@ public class GradleInjectorTest extends AbstractTest {
         assertTrue(pitTask, pitTask.startsWith(expectedStarts));
         assertTrue(pitTask, pitTask.endsWith(expectedEnd));
     }
+
+    @Test
+    public void testBackupOfAPreviousRunIsNotRestored() throws Exception {
+
+        /*
+            The backup of the build file made by this run is restored before injecting a task again.
+            A backup left by a previous run is never restored over the build file, that might have been modified since.
+         */
+
+        final File projectDirectory = new File("target/dspot/gradle-injector");
+        final File buildFile = new File(projectDirectory, GradleInjector.GRADLE_BUILD_FILE);
+        final File backup = new File(projectDirectory, GradleInjector.GRADLE_BUILD_FILE + ".orig");
+        FileUtils.deleteDirectory(projectDirectory);
+        FileUtils.write(buildFile, "original", StandardCharsets.UTF_8);
+        try {
+            final GradleInjector gradleInjector = new GradleInjector(buildFile.getAbsolutePath());
+            gradleInjector.makeBackup(buildFile);
+            FileUtils.write(buildFile, "original with injected task", StandardCharsets.UTF_8);
+            gradleInjector.makeBackup(buildFile);
+            assertEquals("original", FileUtils.readFileToString(buildFile, StandardCharsets.UTF_8));
+            gradleInjector.resetOriginalGradleBuildFile(projectDirectory.getAbsolutePath());
+            assertFalse(backup.exists());
+
+            FileUtils.write(backup, "backup of a previous run", StandardCharsets.UTF_8);
+            FileUtils.write(buildFile, "modified by the user", StandardCharsets.UTF_8);
+            final GradleInjector newGradleInjector = new GradleInjector(buildFile.getAbsolutePath());
+            try {
+                newGradleInjector.makeBackup(buildFile);
+                fail("The backup of a previous run should not be used");
+            } catch (IOException expected) {
+                // expected
+            }
+            newGradleInjector.resetOriginalGradleBuildFile(projectDirectory.getAbsolutePath());
+            assertEquals("modified by the user", FileUtils.readFileToString(buildFile, StandardCharsets.UTF_8));
+            assertTrue(backup.exists());
+        } finally {
+            FileUtils.deleteDirectory(projectDirectory);
+        }
+    }
 }
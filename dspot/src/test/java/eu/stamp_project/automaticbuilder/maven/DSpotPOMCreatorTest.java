@@ -54,7 +54,7 @@ public class DSpotPOMCreatorTest {
 
     private static final String MUST_CONTAIN = "<plugin><groupId>org.apache.maven.plugins</groupId><artifactId>maven-compiler-plugin</artifactId><executions><execution><id>default-testCompile</id><phase>none</phase></execution></executions></plugin><plugin><groupId>org.apache.maven.plugins</groupId><artifactId>maven-surefire-plugin</artifactId><configuration><additionalClasspathElements><additionalClasspathElement>target/dspot/dependencies/</additionalClasspathElement></additionalClasspathElements></configuration></plugin></plugins>";
 
-    private static final String ENDS_WITH = "<profiles><profile><id>id-descartes-for-dspot</id><build><plugins><plugin><groupId>org.pitest</groupId><artifactId>pitest-maven</artifactId><version>1.4.0</version><configuration><mutationEngine>descartes</mutationEngine><outputFormats><value>CSV</value><value>XML</value></outputFormats><targetClasses>example.*</targetClasses><reportsDirectory>target/pit-reports</reportsDirectory><timeoutConstant>10000</timeoutConstant><jvmArgs><value>-Xmx2048m</value><value>-Xms1024m</value></jvmArgs></configuration><dependencies><dependency><groupId>eu.stamp-project</groupId><artifactId>descartes</artifactId><version>1.2.4</version></dependency></dependencies></plugin></plugins></build></profile></profiles></project>";
+    private static final String ENDS_WITH = "<profiles><profile><id>id-descartes-for-dspot</id><properties><dspot.pit.targetClasses>example.*</dspot.pit.targetClasses></properties><build><plugins><plugin><groupId>org.pitest</groupId><artifactId>pitest-maven</artifactId><version>1.4.0</version><configuration><mutationEngine>descartes</mutationEngine><outputFormats><value>CSV</value><value>XML</value></outputFormats><targetClasses>${dspot.pit.targetClasses}</targetClasses><reportsDirectory>target/pit-reports</reportsDirectory><timeoutConstant>10000</timeoutConstant><jvmArgs><value>-Xmx2048m</value><value>-Xms1024m</value></jvmArgs></configuration><dependencies><dependency><groupId>eu.stamp-project</groupId><artifactId>descartes</artifactId><version>1.2.4</version></dependency></dependencies></plugin></plugins></build></profile></profiles></project>";
 
     @Test
     public void testOnPOMWithProfiles() throws Exception {
@@ -79,7 +79,7 @@ public class DSpotPOMCreatorTest {
             "        <profile>" + AmplificationHelper.LINE_SEPARATOR +
             "            <id>test-resources</id>" + AmplificationHelper.LINE_SEPARATOR +
             "        </profile>" + AmplificationHelper.LINE_SEPARATOR +
-            "    <profile><id>id-descartes-for-dspot</id><build><plugins><plugin><groupId>org.pitest</groupId><artifactId>pitest-maven</artifactId><version>1.4.0</version><configuration><mutationEngine>descartes</mutationEngine><outputFormats><value>CSV</value><value>XML</value></outputFormats><targetClasses>fr.inria.sample.*</targetClasses><reportsDirectory>target/pit-reports</reportsDirectory><timeoutConstant>10000</timeoutConstant><jvmArgs><value>-Xmx2048m</value><value>-Xms1024m</value><value>-Dis.admin.user=admin</value><value>-Dis.admin.passwd=$2pRSid#</value></jvmArgs><excludedTestClasses><value>fr.inria.filter.failing.*</value></excludedTestClasses></configuration><dependencies><dependency><groupId>eu.stamp-project</groupId><artifactId>descartes</artifactId><version>1.2.4</version></dependency></dependencies></plugin></plugins></build></profile></profiles>" + AmplificationHelper.LINE_SEPARATOR +
+            "    <profile><id>id-descartes-for-dspot</id><properties><dspot.pit.targetClasses>fr.inria.sample.*</dspot.pit.targetClasses></properties><build><plugins><plugin><groupId>org.pitest</groupId><artifactId>pitest-maven</artifactId><version>1.4.0</version><configuration><mutationEngine>descartes</mutationEngine><outputFormats><value>CSV</value><value>XML</value></outputFormats><targetClasses>${dspot.pit.targetClasses}</targetClasses><reportsDirectory>target/pit-reports</reportsDirectory><timeoutConstant>10000</timeoutConstant><jvmArgs><value>-Xmx2048m</value><value>-Xms1024m</value><value>-Dis.admin.user=admin</value><value>-Dis.admin.passwd=$2pRSid#</value></jvmArgs><excludedTestClasses><value>fr.inria.filter.failing.*</value></excludedTestClasses></configuration><dependencies><dependency><groupId>eu.stamp-project</groupId><artifactId>descartes</artifactId><version>1.2.4</version></dependency></dependencies></plugin></plugins></build></profile></profiles>" + AmplificationHelper.LINE_SEPARATOR +
             "" + AmplificationHelper.LINE_SEPARATOR +
             "</project>";
 
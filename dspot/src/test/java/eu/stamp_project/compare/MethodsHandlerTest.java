@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.*;
@@ -11,6 +12,7 @@ import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -185,4 +187,24 @@ public class MethodsHandlerTest {
         );
 
     }
+
+    @Test
+    public void testGetAllAccessors() throws Throwable {
+
+        /*
+            The accessors are in the same order as the methods, and invoke them on the given object.
+            They are shared by all the instances of MethodsHandler.
+         */
+
+        final List<Method> methods = methodsHandlerUnderTest.getAllMethods(MyClassWithoutImplementedToStringAndHashCode.class);
+        final List<MethodHandle> accessors = methodsHandlerUnderTest.getAllAccessors(MyClassWithoutImplementedToStringAndHashCode.class);
+        assertEquals(methods.size(), accessors.size());
+        for (int i = 0; i < methods.size(); i++) {
+            assertEquals(methods.get(i).invoke(myClassWithoutImplementedToStringAndHashCode),
+                    (Object) accessors.get(i).invokeExact((Object) myClassWithoutImplementedToStringAndHashCode)
+            );
+        }
+        assertSame(accessors, new MethodsHandler().getAllAccessors(MyClassWithoutImplementedToStringAndHashCode.class));
+        assertTrue(methodsHandlerUnderTest.getAllAccessors(Object.class).isEmpty());
+    }
 }
@@ -4,10 +4,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.Serializable;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by Benjamin DANGLOT
@@ -93,4 +96,150 @@ public class ObjectLogTest {
         assertEquals(20, observationValues.get("(myInternalClass ).getB()"));
 //        assertTrue(add__0.getNotDeterministValues().contains("(myInternalClass ).random()"));
     }
+
+    @Test
+    public void testIsSerializable() throws Exception {
+        assertTrue(ObjectLog.isSerializable(null));
+        assertTrue(ObjectLog.isSerializable(1));
+        assertTrue(ObjectLog.isSerializable("a string"));
+        assertTrue(ObjectLog.isSerializable(new int[]{1, 2}));
+        assertTrue(ObjectLog.isSerializable(new ArrayList<>(Arrays.asList(1, 2))));
+        // the verdict of the class is reused
+        assertTrue(ObjectLog.isSerializable(new ArrayList<>(Arrays.asList(3, 4))));
+        assertFalse(ObjectLog.isSerializable(new MyInternalClass(1, 2)));
+        // a serializable class whose instance contains a non-serializable value
+        assertFalse(ObjectLog.isSerializable(Collections.singletonList(new MyInternalClass(1, 2))));
+        assertTrue(ObjectLog.isSerializable(Collections.singletonList(1)));
+    }
+
+    private static class SerializableWithField implements Serializable {
+        private final Object field;
+
+        private SerializableWithField(Object field) {
+            this.field = field;
+        }
+    }
+
+    @Test
+    public void testIsSerializableRecordsFailures() throws Exception {
+        /*
+            The failure to serialize an instance is recorded for its class, except for the collections and the maps.
+            The verdicts are dropped by reset()
+         */
+        assertFalse(ObjectLog.isSerializable(new SerializableWithField(new MyInternalClass(1, 2))));
+        assertFalse(ObjectLog.isSerializable(new SerializableWithField(null)));
+        assertFalse(ObjectLog.isSerializable(new ArrayList<>(Collections.singletonList(new MyInternalClass(1, 2)))));
+        assertTrue(ObjectLog.isSerializable(new ArrayList<>(Collections.singletonList(1))));
+
+        ObjectLog.reset();
+        assertTrue(ObjectLog.isSerializable(new SerializableWithField(null)));
+    }
+
+    public static class HangingGetters {
+        public int getA() {
+            return 1;
+        }
+        public int getHanging() {
+            while (true) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ignored) {
+                    // the getter does not return, even if it is interrupted
+                }
+            }
+        }
+        public int getZ() {
+            return 26;
+        }
+    }
+
+    @Test
+    public void testGetterThatDoesNotReturn() throws Exception {
+        /*
+            A getter that does not return is skipped after the timeout, and the next getters are still observed
+         */
+        ObjectLog.log(new HangingGetters(), "hanging", "hanging__0");
+        final Map<String, Object> observationValues = ObjectLog.getObservations().get("hanging__0").getObservationValues();
+        assertEquals(2, observationValues.size());
+        assertEquals(1, observationValues.get("((eu.stamp_project.compare.ObjectLogTest.HangingGetters)hanging).getA()"));
+        assertEquals(26, observationValues.get("((eu.stamp_project.compare.ObjectLogTest.HangingGetters)hanging).getZ()"));
+    }
+
+    public static class OtherHangingGetters {
+        public int getA() {
+            return 1;
+        }
+        public int getHanging() {
+            return hang();
+        }
+        public int getOtherHanging() {
+            return hang();
+        }
+        private static int hang() {
+            while (true) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ignored) {
+                    // the getter does not return, even if it is interrupted
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetterThatDoesNotReturnIsNotInvokedAgain() throws Exception {
+        /*
+            The threads stuck in getters that do not return do not pile up:
+            a getter that did not return in time is not invoked anymore
+         */
+        ObjectLog.log(new OtherHangingGetters(), "otherHanging", "otherHanging__0");
+        final long numberOfThreads = countObservationThreads();
+        final long start = System.currentTimeMillis();
+        ObjectLog.log(new OtherHangingGetters(), "otherHanging", "otherHanging__1");
+        assertTrue(System.currentTimeMillis() - start < 1000L);
+        // the last stuck thread has been replaced by a new thread, that is not stuck
+        final long numberOfThreadsAfterSecondLog = countObservationThreads();
+        assertTrue(numberOfThreadsAfterSecondLog <= numberOfThreads + 1);
+        ObjectLog.log(new OtherHangingGetters(), "otherHanging", "otherHanging__2");
+        assertEquals(numberOfThreadsAfterSecondLog, countObservationThreads());
+        final Map<String, Object> observationValues = ObjectLog.getObservations().get("otherHanging__1").getObservationValues();
+        assertEquals(1, observationValues.size());
+        assertEquals(1, observationValues.get("((eu.stamp_project.compare.ObjectLogTest.OtherHangingGetters)otherHanging).getA()"));
+    }
+
+    private static long countObservationThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && "dspot-observation".equals(thread.getName()))
+                .count();
+    }
+
+    @Test
+    public void testConcurrentObservations() throws Exception {
+        /*
+            The tests that run in parallel observe concurrently, each thread in its own buffer:
+            the observations of all the threads are in the log once they are saved.
+         */
+        final int numberOfThreads = 4;
+        final int numberOfObservationsPerThread = 500;
+        final Thread[] threads = new Thread[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int indexOfThread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < numberOfObservationsPerThread; j++) {
+                    ObjectLog.log(j, "o_test" + indexOfThread + "__" + j, "test" + indexOfThread + "__" + j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ObjectLog.save();
+        final Map<String, Map<String, Observation>> observations = ObjectLog.getObservationsByTestMethod();
+        assertEquals(numberOfThreads, observations.size());
+        for (int i = 0; i < numberOfThreads; i++) {
+            assertEquals(numberOfObservationsPerThread, observations.get("test" + i).size());
+            assertEquals(42, observations.get("test" + i).get("test" + i + "__42").getObservationValues().get("o_test" + i + "__42"));
+        }
+    }
 }
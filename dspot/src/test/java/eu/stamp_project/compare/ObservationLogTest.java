@@ -0,0 +1,124 @@
+package eu.stamp_project.compare;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ObservationLogTest {
+
+    private static final File LOG = new File("target/dspot/test-observations.log");
+
+    @Before
+    public void setUp() throws Exception {
+        LOG.delete();
+    }
+
+    @Test
+    public void testAppendAndRead() throws Exception {
+        /*
+            The records are read back with their values, and grouped by test method.
+            The values observed several times, e.g. by the repeated executions of the test, are checked for nondeterminism.
+         */
+        final ObservationLog log = new ObservationLog(LOG);
+        log.append("test1__3", "o_test1__3", 42);
+        log.append("test1__3", "(o_test1__3).toString()", "42");
+        log.append("test2__1", "o_test2__1", null);
+        log.append("test2__1", "(o_test2__1).getList()", Arrays.asList(1, 2, 3));
+        log.append("test1__3", "o_test1__3", 42);
+        log.append("test1__3", "(o_test1__3).toString()", "24");
+        log.append("test1__3___end", "(o_test1__3).getChar()", 'c');
+        log.close();
+
+        final Map<String, Map<String, Observation>> observations = ObservationLog.read(LOG);
+        assertEquals(2, observations.size());
+        assertEquals(2, observations.get("test1").size());
+        final Observation test1__3 = observations.get("test1").get("test1__3");
+        assertEquals(42, test1__3.getObservationValues().get("o_test1__3"));
+        assertTrue(test1__3.getNotDeterministValues().contains("(o_test1__3).toString()"));
+        assertEquals('c', observations.get("test1").get("test1__3___end").getObservationValues().get("(o_test1__3).getChar()"));
+        final Observation test2__1 = observations.get("test2").get("test2__1");
+        assertNull(test2__1.getObservationValues().get("o_test2__1"));
+        assertEquals(Arrays.asList(1, 2, 3), test2__1.getObservationValues().get("(o_test2__1).getList()"));
+    }
+
+    @Test
+    public void testObservationPoint() throws Exception {
+        /*
+            The id of each observation point is read in its structured form: the test method, the index of the statement,
+            and whether the observation is made at the end of the test method.
+         */
+        final ObservationLog log = new ObservationLog(LOG);
+        log.append("test__with__underscores__3", "o_test__with__underscores__3", 42);
+        log.append("test__with__underscores__3___end", "o_test__with__underscores__3", 42);
+        log.close();
+
+        final Map<String, Observation> observations = ObservationLog.read(LOG).get("test__with__underscores");
+        final ObservationPoint point = observations.get("test__with__underscores__3").getPoint();
+        assertEquals("test__with__underscores", point.getTestMethodName());
+        assertEquals(3, point.getStatementIndex());
+        assertFalse(point.isEnd());
+        final ObservationPoint end = observations.get("test__with__underscores__3___end").getPoint();
+        assertEquals(3, end.getStatementIndex());
+        assertTrue(end.isEnd());
+        assertEquals("test__with__underscores__3", end.getStatementId());
+    }
+
+    @Test
+    public void testObservationPaths() throws Exception {
+        /*
+            The observed expressions are written as paths, defined once per log, and rebuilt when the log is read.
+            A log appended by another run may define the same ids with other expressions: the last definition is used.
+         */
+        final ObservationPath root = new ObservationPath(0, null, "o_test__1", "");
+        final ObservationPath getter = new ObservationPath(1, root, "((fr.inria.Foo)", ").getBar()");
+        final ObservationPath isEmpty = new ObservationPath(2, getter, "", ".isEmpty()");
+        final ObservationLog log = new ObservationLog(LOG);
+        log.append("test__1", getter, 1);
+        log.append("test__1", isEmpty, true);
+        log.append("test__1", getter, 1);
+        log.close();
+
+        final ObservationPath otherRoot = new ObservationPath(0, null, "o_test__2", "");
+        final ObservationLog otherLog = new ObservationLog(LOG);
+        otherLog.append("test__2", otherRoot, "value");
+        otherLog.close();
+
+        final Map<String, Map<String, Observation>> observations = ObservationLog.read(LOG);
+        final Map<String, Object> observationValues = observations.get("test").get("test__1").getObservationValues();
+        assertEquals(2, observationValues.size());
+        assertEquals(1, observationValues.get("((fr.inria.Foo)o_test__1).getBar()"));
+        assertEquals(true, observationValues.get("((fr.inria.Foo)o_test__1).getBar().isEmpty()"));
+        assertEquals("value", observations.get("test").get("test__2").getObservationValues().get("o_test__2"));
+    }
+
+    @Test
+    public void testTruncatedLog() throws Exception {
+        /*
+            The last record is truncated, e.g. the JVM of the tests has been killed: it is ignored.
+         */
+        final ObservationLog log = new ObservationLog(LOG);
+        log.append("test__1", "o_test__1", 1L);
+        log.append("test__2", "o_test__2", 2.0D);
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(LOG, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        final Map<String, Map<String, Observation>> observations = ObservationLog.read(LOG);
+        assertEquals(1, observations.get("test").size());
+        assertEquals(1L, observations.get("test").get("test__1").getObservationValues().get("o_test__1"));
+    }
+
+    @Test
+    public void testReadMissingLog() throws Exception {
+        assertTrue(ObservationLog.read(LOG).isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package eu.stamp_project.compare;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+
+public class PerformanceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceTest.class);
+
+    @Ignore
+    @Test
+    public void testIsSerializable() throws Exception {
+
+        /*
+         * This test aims at measuring the time spent to check that the observed values are serializable,
+         * with a trial serialization of each value against ObjectLog.isSerializable().
+         * This test is meant to be run manually
+         */
+
+        final int numberOfIteration = 1_000_000;
+        final Map<String, Integer> map = new HashMap<>();
+        map.put("one", 1);
+        final List<Object> values = Arrays.asList(
+                1, 2L, 3.0D, 'c', true, "a string", new int[]{1, 2, 3}, new ArrayList<>(Arrays.asList(1, 2, 3)), map
+        );
+
+        // warm up
+        for (int i = 0; i < numberOfIteration / 10; i++) {
+            isSerializableByTrial(values.get(i % values.size()));
+            ObjectLog.isSerializable(values.get(i % values.size()));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < numberOfIteration; i++) {
+            isSerializableByTrial(values.get(i % values.size()));
+        }
+        final long timeTrial = System.nanoTime() - start;
+        LOGGER.info("trial serialization: {} ns/value", timeTrial / numberOfIteration);
+
+        start = System.nanoTime();
+        for (int i = 0; i < numberOfIteration; i++) {
+            ObjectLog.isSerializable(values.get(i % values.size()));
+        }
+        final long timeIsSerializable = System.nanoTime() - start;
+        LOGGER.info("ObjectLog.isSerializable(): {} ns/value", timeIsSerializable / numberOfIteration);
+
+        assertTrue(timeIsSerializable < timeTrial);
+    }
+
+    private static boolean isSerializableByTrial(Object candidate) {
+        try {
+            new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(candidate);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package eu.stamp_project.dspot.amplifier;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import org.junit.Test;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class AmplifiedTestDeltaTest extends AbstractTest {
+
+    @Test
+    public void testAmplifyAsDeltas() throws Exception {
+
+        /*
+            The deltas give the same amplified test methods than the amplification, once materialized.
+            Computing on a delta does not build it, and leaves the test method to be amplified unchanged.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.amp.LiteralMutation");
+        final NumberLiteralAmplifier amplifier = new NumberLiteralAmplifier();
+        amplifier.reset(testClass);
+        final CtMethod<?> testMethod = testClass.getMethodsByName("methodInteger").get(0);
+        final String originalBody = testMethod.getBody().toString();
+
+        final List<String> amplifiedBodies = amplifier.amplify(testMethod, 0)
+                .map(amplifiedTestMethod -> amplifiedTestMethod.getBody().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        final List<AmplifiedTestDelta> deltas = amplifier.amplifyAsDeltas(testMethod, 0).collect(Collectors.toList());
+        assertEquals(amplifiedBodies.size(), deltas.size());
+
+        final List<String> bodiesOfDeltas = deltas.stream()
+                .map(delta -> delta.computeOnAmplifiedTestMethod(amplifiedTestMethod -> amplifiedTestMethod.getBody().toString()))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(amplifiedBodies, bodiesOfDeltas);
+        assertEquals(originalBody, testMethod.getBody().toString());
+
+        final CtMethod<?> materialized = deltas.get(0).materialize();
+        assertNotEquals(testMethod, materialized);
+        assertEquals(originalBody, testMethod.getBody().toString());
+        assertEquals(materialized.getBody().toString(),
+                deltas.get(0).computeOnAmplifiedTestMethod(amplifiedTestMethod -> amplifiedTestMethod.getBody().toString())
+        );
+    }
+}
@@ -21,6 +21,7 @@ import spoon.reflect.reference.CtReference;
 import spoon.reflect.visitor.filter.NamedElementFilter;
 import spoon.reflect.visitor.filter.TypeFilter;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -85,6 +86,64 @@ public class AssertGeneratorTest extends AbstractTest {
         assertTrue(test_buildNewAssert.isEmpty());
     }
 
+    @Test
+    public void testInstrumentedTestsAreRunAfterTheTests() throws Exception {
+
+        /*
+            The instrumented copies of the tests are compiled along with the tests,
+            but they are run in another launch of the test runner, after the tests:
+            the values observed do not depend on the static state left by the tests.
+            Here, the passing test gets an assertion on the value of the static counter, that is incremented by the test itself.
+            The failing test gets a try/catch/fail block.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.staticstate.CounterTest");
+        final List<CtMethod<?>> tests = Arrays.asList(
+                Utils.findMethod(testClass, "testIncrement"),
+                Utils.findMethod(testClass, "testIncrementByNull")
+        );
+        final List<CtMethod<?>> testsWithAssertions = this.assertGenerator.assertionAmplification(testClass, tests);
+        assertEquals(2, testsWithAssertions.size());
+        final String testWithAssertion = testsWithAssertions.get(0).toString();
+        assertTrue(testWithAssertion, testWithAssertion.contains("org.junit.Assert.assertEquals(1, ((int) (o_testIncrement"));
+        final String testWithTryCatchFail = testsWithAssertions.get(1).toString();
+        assertTrue(testWithTryCatchFail, testWithTryCatchFail.contains("catch (java.lang.NullPointerException"));
+    }
+
+    @Test
+    public void testRunTestsThenInstrumentedTests() throws Exception {
+
+        /*
+            When the tests cannot be compiled and run along with their instrumented copies,
+            they are compiled and run in a clone of the test class that does not contain the instrumented copies,
+            then the instrumented copies of the passing tests are compiled and run on their own.
+            The tests get the same assertions, and the same try/catch/fail blocks.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.staticstate.CounterTest");
+        final List<CtMethod<?>> tests = Arrays.asList(
+                Utils.findMethod(testClass, "testIncrement"),
+                Utils.findMethod(testClass, "testIncrementByNull")
+        );
+        final AssertionRemover assertionRemover = new AssertionRemover();
+        final List<CtMethod<?>> testsWithoutAssertions = tests.stream()
+                .map(assertionRemover::removeAssertion)
+                .collect(Collectors.toList());
+        final MethodsAssertGenerator methodsAssertGenerator = new MethodsAssertGenerator(
+                testClass,
+                Utils.getInputConfiguration(),
+                Utils.getCompiler(),
+                assertionRemover.getVariableAssertedPerTestMethod()
+        );
+        final List<CtMethod<?>> testsWithAssertions =
+                this.assertGenerator.runTestsThenInstrumentedTests(methodsAssertGenerator, testClass, testsWithoutAssertions);
+        assertEquals(2, testsWithAssertions.size());
+        final String testWithAssertion = testsWithAssertions.get(0).toString();
+        assertTrue(testWithAssertion, testWithAssertion.contains("org.junit.Assert.assertEquals(1, ((int) (o_testIncrement"));
+        final String testWithTryCatchFail = testsWithAssertions.get(1).toString();
+        assertTrue(testWithTryCatchFail, testWithTryCatchFail.contains("catch (java.lang.NullPointerException"));
+    }
+
     private static final String ASSERT_EQUALS = "assertEquals";
     private static final String ASSERT_TRUE = "assertTrue";
     private static final String ASSERT_FALSE = "assertFalse";
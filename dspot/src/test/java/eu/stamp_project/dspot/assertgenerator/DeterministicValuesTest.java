@@ -0,0 +1,71 @@
+package eu.stamp_project.dspot.assertgenerator;
+
+import eu.stamp_project.compare.Observation;
+import eu.stamp_project.compare.ObservationPoint;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeterministicValuesTest {
+
+    @Test
+    public void testKnownAsDeterministic() {
+        /*
+            Primitives, strings, enum constants, and arrays or collections of them are known as deterministic.
+         */
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getSize()", 42));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.isEmpty()", true));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getName()", "a name"));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getUnit()", TimeUnit.DAYS));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getMax()", Long.MAX_VALUE));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getValues()", new int[]{1, 2, 3}));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getNames()", Arrays.asList("a", "b")));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getNames()", Collections.singletonMap("a", 1)));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getParent()", null));
+    }
+
+    @Test
+    public void testOnlyObservedMethodsAreSuspect() {
+        /*
+            Only the names of the observed methods are matched,
+            not the names of the local variables, e.g. derived from the name of the test, nor the names of the casted types.
+         */
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_testTimeout__3.getSize()", 42));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_testRandomId__3", 42));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("((fr.inria.DateFormatter)o_test__3).getPattern()", "yyyy"));
+        assertTrue(DeterministicValues.isKnownAsDeterministic("o_test__3.getIdentity()", "an identity"));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("((fr.inria.Foo)o_test__3).getBar().getTimestamp()", 42L));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.id()", 42L));
+    }
+
+    @Test
+    public void testSuspect() {
+        /*
+            Hash codes, timestamps, identity strings, random identifiers,
+            collections of such values, and other objects are suspect.
+         */
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.hashCode()", 42));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getCreationTime()", 42L));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getId()", 42L));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getValue()", 1540000000000L));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.toString()", "fr.inria.Foo@1b6d3586"));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getLabel()", "created at 2018-10-26T10:12"));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getKey()", "123e4567-e89b-12d3-a456-426655440000"));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getNames()", Arrays.asList("a", "fr.inria.Foo@1b6d3586")));
+        assertFalse(DeterministicValues.isKnownAsDeterministic("o_test__3.getParent()", new Object()));
+    }
+
+    @Test
+    public void testAreKnownAsDeterministic() {
+        final Observation observation = new Observation(ObservationPoint.of("test__3"));
+        observation.add("o_test__3.getSize()", 42);
+        assertTrue(DeterministicValues.areKnownAsDeterministic(Collections.singletonMap("test__3", observation)));
+        observation.add("o_test__3.hashCode()", 42);
+        assertFalse(DeterministicValues.areKnownAsDeterministic(Collections.singletonMap("test__3", observation)));
+    }
+}
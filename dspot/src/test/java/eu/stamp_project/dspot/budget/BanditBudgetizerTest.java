@@ -0,0 +1,95 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import eu.stamp_project.dspot.amplifier.MethodGeneratorAmplifier;
+import eu.stamp_project.dspot.amplifier.NumberLiteralAmplifier;
+import eu.stamp_project.dspot.amplifier.ReturnValueAmplifier;
+import eu.stamp_project.test_framework.TestFramework;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BanditBudgetizerTest extends AbstractTest {
+
+    private static final File JSON_FILE = new File("target/dspot/bandit/test_amplifiers.json");
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        JSON_FILE.delete();
+        InputConfiguration.get().setMaxTestAmplified(6);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        InputConfiguration.get().setMaxTestAmplified(200);
+        JSON_FILE.delete();
+    }
+
+    @Test
+    public void testInputAmplify() throws Exception {
+
+        /*
+            The BanditBudgetizer always provides the budget, when the amplifiers can generate enough amplified test methods,
+            and records which amplifier generated each of them.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.statementadd.TestClassTargetAmplify");
+        final BanditBudgetizer budgetizer = new BanditBudgetizer(
+                Arrays.asList(new ReturnValueAmplifier(), new MethodGeneratorAmplifier(), new NumberLiteralAmplifier()),
+                new AmplifierYields(JSON_FILE, "test")
+        );
+        budgetizer.reset(testClass);
+        final List<CtMethod<?>> amplifiedTestMethods = budgetizer.inputAmplify(TestFramework.getAllTest(testClass), 0);
+        assertEquals(6, amplifiedTestMethods.size());
+        amplifiedTestMethods.forEach(amplifiedTestMethod ->
+                assertTrue(amplifiedTestMethod.getMetadata(BanditBudgetizer.METADATA_AMPLIFIER) != null)
+        );
+
+        budgetizer.notifySelection(amplifiedTestMethods.subList(0, 1));
+        assertTrue(JSON_FILE.exists());
+    }
+
+    @Test
+    public void testDrawAmplifier() throws Exception {
+
+        /*
+            The amplifier that has the best yield gets most of the budget, and the yields are persisted.
+         */
+
+        AmplifierYields yields = new AmplifierYields(JSON_FILE, "test");
+        yields.addGenerated("fr.inria.ATest", "Productive", 100);
+        yields.addKept("fr.inria.ATest", "Productive", 50);
+        yields.addGenerated("fr.inria.ATest", "Unproductive", 100);
+        yields.addKept("fr.inria.ATest", "Unproductive", 1);
+        yields.save();
+
+        // loaded from the json file
+        yields = new AmplifierYields(JSON_FILE, "test");
+        final BanditBudgetizer budgetizer = new BanditBudgetizer(Collections.emptyList(), yields);
+        budgetizer.reset(Utils.findClass("fr.inria.statementadd.TestClassTargetAmplify"));
+        final Random random = new Random(23L);
+        int numberOfDrawsOfProductive = 0;
+        for (int i = 0; i < 1000; i++) {
+            if ("Productive".equals(budgetizer.drawAmplifier(Arrays.asList("Productive", "Unproductive"), random))) {
+                numberOfDrawsOfProductive++;
+            }
+        }
+        // the test class has not been amplified yet, the yields on the whole project are used
+        assertTrue(String.valueOf(numberOfDrawsOfProductive), numberOfDrawsOfProductive > 900);
+    }
+}
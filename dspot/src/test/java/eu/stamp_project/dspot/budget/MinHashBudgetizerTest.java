@@ -0,0 +1,77 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import org.junit.After;
+import org.junit.Test;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MinHashBudgetizerTest extends AbstractTest {
+
+    @After
+    public void tearDown() throws Exception {
+        Utils.getInputConfiguration().setMaxTestAmplified(200);
+    }
+
+    @Test
+    public void testReduction() throws Exception {
+
+        /*
+            The reduction keeps first the test methods that are not similar to the ones already kept.
+         */
+
+        Utils.getInputConfiguration().setMaxTestAmplified(2);
+
+        final CtMethod methodString = Utils.findMethod("fr.inria.amp.LiteralMutation", "methodString");
+        // very different
+        final CtMethod methodInteger = Utils.findMethod("fr.inria.amp.LiteralMutation", "methodInteger");
+
+        List<CtMethod<?>> methods = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            methods.add(methodString);
+        }
+        final CtMethod clone = methodString.clone();
+        final CtLiteral originalLiteral = clone.getElements(new TypeFilter<>(CtLiteral.class)).get(0);
+        originalLiteral.replace(Utils.getFactory().createLiteral(originalLiteral.getValue() + "a"));
+        methods.add(clone);
+        methods.add(clone);
+        methods.add(methodInteger);
+
+        assertEquals(MinHashSignature.of(methodString), MinHashSignature.of(methodString.clone()));
+        assertNotEquals(MinHashSignature.of(methodString), MinHashSignature.of(clone));
+
+        final List<CtMethod<?>> reduce = new MinHashBudgetizer().reduce(methods);
+        assertEquals(2, reduce.size());
+        assertEquals(methodString, reduce.get(0));
+        assertEquals(methodInteger, reduce.get(1));
+    }
+
+    @Test
+    public void testReductionOfSignatures() throws Exception {
+
+        /*
+            The signatures are taken in three rounds:
+                - one per group of similar signatures
+                - the distinct signatures
+                - the others
+         */
+
+        final MinHashSignature first = MinHashSignature.of(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        final MinHashSignature similar = MinHashSignature.of(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 21});
+        final MinHashSignature different = MinHashSignature.of(new int[]{21, 22, 23, 24, 25});
+
+        final List<MinHashSignature> signatures = Arrays.asList(first, first, similar, different);
+        assertEquals(Arrays.asList(0, 3), MinHashBudgetizer.reduce(signatures, 2));
+        assertEquals(Arrays.asList(0, 3, 2), MinHashBudgetizer.reduce(signatures, 3));
+        assertEquals(Arrays.asList(0, 3, 2, 1), MinHashBudgetizer.reduce(signatures, 10));
+    }
+}
@@ -0,0 +1,43 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.utils.RandomHelper;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class RandomBudgetizerTest extends AbstractTest {
+
+    @After
+    public void tearDown() throws Exception {
+        InputConfiguration.get().setMaxTestAmplified(200);
+        RandomHelper.setSeedRandom(23L);
+    }
+
+    @Test
+    public void testReduceUsesTheSeed() throws Exception {
+
+        /*
+            The reduction draws the tests from the random of DSpot: the same seed keeps the same tests,
+            and no test is kept twice.
+         */
+
+        InputConfiguration.get().setMaxTestAmplified(10);
+        final List<Integer> tests = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        RandomHelper.setSeedRandom(42L);
+        final List<Integer> reducedTests = new RandomBudgetizer().reduce(tests);
+        assertEquals(10, reducedTests.size());
+        assertEquals(10, new HashSet<>(reducedTests).size());
+
+        RandomHelper.setSeedRandom(42L);
+        assertEquals(reducedTests, new RandomBudgetizer().reduce(tests));
+    }
+}
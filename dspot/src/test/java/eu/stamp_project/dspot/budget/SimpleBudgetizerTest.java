@@ -6,6 +6,7 @@ import eu.stamp_project.dspot.amplifier.IterationDecoratorAmplifier;
 import eu.stamp_project.dspot.amplifier.MethodGeneratorAmplifier;
 import eu.stamp_project.dspot.amplifier.NumberLiteralAmplifier;
 import eu.stamp_project.dspot.amplifier.ReturnValueAmplifier;
+import eu.stamp_project.dspot.amplifier.RoundRobinIterator;
 import eu.stamp_project.test_framework.TestFramework;
 import eu.stamp_project.utils.program.InputConfiguration;
 import eu.stamp_project.utils.AmplificationHelper;
@@ -15,9 +16,12 @@ import org.junit.Test;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 
@@ -65,4 +69,45 @@ public class SimpleBudgetizerTest extends AbstractTest {
 
         assertEquals(6, ctMethods.size());
     }
+
+    @Test
+    public void testAmplifyLazily() throws Exception {
+
+        /*
+            The lazy amplification builds the same amplified test methods than the amplification,
+            but one by one, when they are pulled.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.amp.LiteralMutation");
+        final NumberLiteralAmplifier amplifier = new NumberLiteralAmplifier();
+        amplifier.reset(testClass);
+        final CtMethod<?> testMethod = testClass.getMethodsByName("methodInteger").get(0);
+        final List<String> amplifiedBodies = amplifier.amplify(testMethod, 0)
+                .map(amplifiedTestMethod -> amplifiedTestMethod.getBody().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        final List<String> lazilyAmplifiedBodies = new ArrayList<>();
+        amplifier.amplifyLazily(testMethod, 0)
+                .forEachRemaining(amplifiedTestMethod -> lazilyAmplifiedBodies.add(amplifiedTestMethod.getBody().toString()));
+        Collections.sort(lazilyAmplifiedBodies);
+        assertEquals(amplifiedBodies, lazilyAmplifiedBodies);
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+
+        /*
+            The RoundRobinIterator takes one element of each iterator in turn.
+         */
+
+        final Iterator<Integer> roundRobin = new RoundRobinIterator<>(Arrays.asList(
+                Arrays.asList(1, 4, 6).iterator(),
+                Collections.<Integer>emptyIterator(),
+                Arrays.asList(2, 5).iterator(),
+                Collections.singletonList(3).iterator()
+        ));
+        final List<Integer> elements = new ArrayList<>();
+        roundRobin.forEachRemaining(elements::add);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), elements);
+    }
 }
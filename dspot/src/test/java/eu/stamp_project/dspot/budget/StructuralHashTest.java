@@ -0,0 +1,64 @@
+package eu.stamp_project.dspot.budget;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import org.junit.Test;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.reference.CtLocalVariableReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class StructuralHashTest extends AbstractTest {
+
+    @Test
+    public void testStructuralHash() throws Exception {
+
+        /*
+            The structural hash does not depend on the name of the test method, on the comments,
+            nor on the names of the local variables, but it depends on the literals.
+         */
+
+        final CtMethod<?> methodString = Utils.findMethod("fr.inria.amp.LiteralMutation", "methodString");
+        final String hash = StructuralHash.of(methodString);
+
+        final CtMethod<?> clone = methodString.clone();
+        clone.setSimpleName("methodString_litString2");
+        clone.getBody().getStatement(0).addComment(
+                Utils.getFactory().createComment("MethodAdderOnExistingObjectsAmplifier: generated by DSpot", CtComment.CommentType.INLINE)
+        );
+        assertEquals(hash, StructuralHash.of(clone));
+
+        clone.getElements(new TypeFilter<>(CtLocalVariable.class)).get(0).setSimpleName("__DSPOT_literalString_0");
+        clone.getElements(new TypeFilter<>(CtLocalVariableReference.class)).forEach(reference -> {
+            if ("literalString".equals(reference.getSimpleName())) {
+                reference.setSimpleName("__DSPOT_literalString_0");
+            }
+        });
+        assertEquals(hash, StructuralHash.of(clone));
+
+        final CtLiteral<?> literal = clone.getElements(new TypeFilter<>(CtLiteral.class)).get(0);
+        literal.replace(Utils.getFactory().createLiteral("MyStringLiteral" + "a"));
+        assertNotEquals(hash, StructuralHash.of(clone));
+    }
+
+    @Test
+    public void testStructuralHashOfLiteralsWithTheSameHashCode() throws Exception {
+
+        /*
+            Two literals that have the same hash code, e.g. "Aa" and "BB", give two different structural hashes
+         */
+
+        final CtMethod<?> methodString = Utils.findMethod("fr.inria.amp.LiteralMutation", "methodString");
+        final CtMethod<?> withAa = methodString.clone();
+        withAa.getElements(new TypeFilter<>(CtLiteral.class)).get(0).replace(Utils.getFactory().createLiteral("Aa"));
+        final CtMethod<?> withBB = methodString.clone();
+        withBB.getElements(new TypeFilter<>(CtLiteral.class)).get(0).replace(Utils.getFactory().createLiteral("BB"));
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(StructuralHash.of(withAa), StructuralHash.of(withBB));
+    }
+}
@@ -6,6 +6,11 @@ import eu.stamp_project.utils.AmplificationHelper;
 import org.junit.Test;
 import spoon.reflect.declaration.CtMethod;
 
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  * Created by Benjamin DANGLOT
  * benjamin.danglot@inria.fr
@@ -81,4 +86,19 @@ public class PitScoreMutantSelectorTest {
         overlapDelegator.setUp();
         overlapDelegator.testRemoveOverlappingTests();
     }
+
+    @Test
+    public void testGetCoveredClasses() throws Exception {
+        /*
+            Only the covered classes that match the filter are mutated by pit in selectToKeep()
+         */
+        final String executionPath = "fr/inria/sample/Foo:0,2,0;fr/inria/sample/Foo$Inner:0,0;fr/inria/sample/Bar:1;fr/inria/other/Baz:3;";
+        assertEquals(new TreeSet<>(Arrays.asList("fr.inria.sample.Bar", "fr.inria.sample.Foo")),
+                PitMutantScoreSelector.getCoveredClasses(executionPath, "fr.inria.sample.*"));
+        assertEquals(new TreeSet<>(Arrays.asList("fr.inria.other.Baz", "fr.inria.sample.Bar")),
+                PitMutantScoreSelector.getCoveredClasses(executionPath, "fr.inria.sample.B?r, fr.inria.other.*"));
+        assertEquals(new TreeSet<>(Arrays.asList("fr.inria.other.Baz", "fr.inria.sample.Bar", "fr.inria.sample.Foo")),
+                PitMutantScoreSelector.getCoveredClasses(executionPath, ""));
+        assertEquals(new TreeSet<>(), PitMutantScoreSelector.getCoveredClasses("", "fr.inria.sample.*"));
+    }
 }
@@ -0,0 +1,82 @@
+package eu.stamp_project.utils.compilation;
+
+import eu.stamp_project.Utils;
+import eu.stamp_project.utils.DSpotCache;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.factory.Factory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompilationCacheTest {
+
+    @Before
+    public void setUp() throws Exception {
+        try {
+            FileUtils.forceDelete(new File("target/dspot/tmp_test_sources/"));
+        } catch (Exception ignored) {
+            //ignored
+        }
+        DSpotCache.reset();
+    }
+
+    @Test
+    public void testUncompilableMethodsAreDiscardedBeforeCompilation() throws Exception {
+
+        /*
+            Once a test method has been found uncompilable, a copy of it with another name is discarded before the compilation
+         */
+
+        final InputConfiguration configuration = InputConfiguration.initialize("src/test/resources/test-projects/test-projects.properties");
+        final DSpotCompiler compiler = DSpotCompiler.createDSpotCompiler(configuration, "");
+        final Factory factory = compiler.getLauncher().getFactory();
+        final CtClass<?> aClass = factory.Class().create("MyCachedTestClass");
+        aClass.addMethod(Utils.createMethod(factory, "compilableTest", "String clazz = new String()"));
+        final CtMethod<?> uncompilableTest = Utils.createMethod(factory, "uncompilableTest", "UncompilableClass clazz = new UncompilableClass()");
+        aClass.addMethod(uncompilableTest);
+
+        List<CtMethod<?>> results = TestCompiler.compileAndDiscardUncompilableMethods(compiler, aClass, "", new ArrayList<>(aClass.getMethods()));
+        assertEquals(1, results.size());
+        assertEquals("compilableTest", results.get(0).getSimpleName());
+
+        final CtMethod<?> renamedUncompilableTest = uncompilableTest.clone();
+        renamedUncompilableTest.setSimpleName("uncompilableTest_amplified");
+        assertTrue(CompilationCache.isKnownAsUncompilable(aClass, renamedUncompilableTest));
+        aClass.addMethod(renamedUncompilableTest);
+
+        results = TestCompiler.compileAndDiscardUncompilableMethods(compiler, aClass, "", new ArrayList<>(aClass.getMethods()));
+        assertEquals(1, results.size());
+        assertEquals("compilableTest", results.get(0).getSimpleName());
+        assertEquals(1, aClass.getMethods().size());
+    }
+
+    @Test
+    public void testStaleInnerClassesAreDeleted() throws Exception {
+
+        /*
+            The binaries of the inner classes of a previous version of the test class are deleted, so they are not run
+         */
+
+        final InputConfiguration configuration = InputConfiguration.initialize("src/test/resources/test-projects/test-projects.properties");
+        final DSpotCompiler compiler = DSpotCompiler.createDSpotCompiler(configuration, "");
+        final Factory factory = compiler.getLauncher().getFactory();
+        final CtClass<?> aClass = factory.Class().create("MyStaleTestClass");
+        aClass.addMethod(Utils.createMethod(factory, "compilableTest", "String clazz = new String()"));
+        final File staleBinary = new File(compiler.getBinaryOutputDirectory(), "MyStaleTestClass$1.class");
+        FileUtils.writeByteArrayToFile(staleBinary, new byte[]{0});
+
+        TestCompiler.compileAndDiscardUncompilableMethods(compiler, aClass, "", new ArrayList<>(aClass.getMethods()));
+        assertFalse(staleBinary.exists());
+        assertTrue(new File(compiler.getBinaryOutputDirectory(), "MyStaleTestClass.class").exists());
+    }
+}
@@ -3,6 +3,7 @@ package eu.stamp_project.utils.compilation;
 import eu.stamp_project.dspot.amplifier.Amplifier;
 import eu.stamp_project.utils.program.InputConfiguration;
 import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.core.compiler.IProblem;
 import org.junit.Before;
 import org.junit.Test;
 import spoon.reflect.code.CtCodeSnippetStatement;
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by Benjamin DANGLOT
@@ -65,6 +68,22 @@ public class DSpotCompilerTest {
         assertEquals(2, aClass.getMethods().size());
     }
 
+    @Test
+    public void testInMemoryCompilation() throws Exception {
+
+        /*
+            The in-memory compilation must not print the .java of the compiled class,
+            but must produce its .class in the binary output directory of the compiler
+         */
+
+        final InputConfiguration configuration = InputConfiguration.initialize("src/test/resources/test-projects/test-projects.properties");
+        final DSpotCompiler compiler = DSpotCompiler.createDSpotCompiler(configuration, "");
+        final CtClass<?> aClass = getClass(compiler.getLauncher().getFactory());
+        assertTrue(compiler.compileAndReturnProblems(aClass, "").stream().noneMatch(IProblem::isError));
+        assertFalse(new File(compiler.getPathToSourceOf(aClass)).exists());
+        assertTrue(new File(compiler.getBinaryOutputDirectory(), "MyTestClass.class").exists());
+    }
+
     // quick implementation used to produce a uncompilable test case
     private class UncompilableAmplifier implements Amplifier {
 
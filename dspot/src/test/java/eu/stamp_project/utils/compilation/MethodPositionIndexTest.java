@@ -0,0 +1,39 @@
+package eu.stamp_project.utils.compilation;
+
+import eu.stamp_project.Utils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.junit.Test;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.factory.Factory;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MethodPositionIndexTest {
+
+    @Test
+    public void testGetMethodNameAt() throws Exception {
+
+        /*
+            The ranges recorded while printing match the positions of the methods in the printed source code
+         */
+
+        final InputConfiguration configuration = InputConfiguration.initialize("src/test/resources/test-projects/test-projects.properties");
+        final DSpotCompiler compiler = DSpotCompiler.createDSpotCompiler(configuration, "");
+        final Factory factory = compiler.getLauncher().getFactory();
+        final CtClass<?> aClass = factory.Class().create("MyIndexedTestClass");
+        aClass.addMethod(Utils.createMethod(factory, "firstTest", "int first = 0"));
+        aClass.addMethod(Utils.createMethod(factory, "secondTest", "int second = 1"));
+
+        final MethodPositionIndex index = MethodPositionIndex.print(aClass);
+        assertFalse(index.isEmpty());
+        final String sourceCode = index.getSourceCode();
+        final int positionOfFirst = sourceCode.indexOf("int first = 0");
+        final int positionOfSecond = sourceCode.indexOf("int second = 1");
+        assertEquals(Optional.of("firstTest"), index.getMethodNameAt(positionOfFirst, positionOfFirst + 5));
+        assertEquals(Optional.of("secondTest"), index.getMethodNameAt(positionOfSecond, positionOfSecond + 5));
+        assertEquals(Optional.empty(), index.getMethodNameAt(sourceCode.indexOf("class"), sourceCode.indexOf("class") + 4));
+    }
+}
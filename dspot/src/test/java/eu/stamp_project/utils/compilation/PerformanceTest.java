@@ -0,0 +1,71 @@
+package eu.stamp_project.utils.compilation;
+
+import eu.stamp_project.Utils;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.factory.Factory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class PerformanceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceTest.class);
+
+    @Ignore
+    @Test
+    public void testPerformanceOfMappingProblemsToMethods() throws Exception {
+
+        /*
+         * This test aims at comparing the time execution of the mapping of the compilation problems to the methods,
+         * using a new spoon model of the compiled source code, and using the index recorded while printing.
+         * This test is meant to be run manually
+         */
+
+        final int numberOfMethods = 500;
+        final int numberOfRuns = 5;
+
+        final InputConfiguration configuration = InputConfiguration.initialize("src/test/resources/test-projects/test-projects.properties");
+        final DSpotCompiler compiler = DSpotCompiler.createDSpotCompiler(configuration, "");
+        final Factory factory = compiler.getLauncher().getFactory();
+        final CtClass<?> aClass = factory.Class().create("MyHugeTestClass");
+        for (int i = 0; i < numberOfMethods; i++) {
+            aClass.addMethod(Utils.createMethod(factory, "compilableTest" + i, "String clazz = new String(\"" + i + "\")"));
+            aClass.addMethod(Utils.createMethod(factory, "uncompilableTest" + i, "UncompilableClass clazz = new UncompilableClass()"));
+        }
+
+        final MethodPositionIndex index = MethodPositionIndex.print(aClass);
+        final List<CategorizedProblem> problems = compiler.compileAndReturnProblems(aClass, index.getSourceCode(), "")
+                .stream()
+                .filter(IProblem::isError)
+                .collect(Collectors.toList());
+
+        Set<String> namesUsingNewModel = null;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numberOfRuns; i++) {
+            namesUsingNewModel = TestCompiler.getNamesOfMethodsToRemoveUsingNewModel(problems, index.getSourceCode(), aClass);
+        }
+        final long timeUsingNewModel = System.currentTimeMillis() - start;
+        LOGGER.info("Using a new spoon model: {} ms", timeUsingNewModel);
+
+        Set<String> namesUsingIndex = null;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < numberOfRuns; i++) {
+            namesUsingIndex = TestCompiler.getNamesOfMethodsToRemove(problems, MethodPositionIndex.print(aClass));
+        }
+        final long timeUsingIndex = System.currentTimeMillis() - start;
+        LOGGER.info("Using the index recorded while printing (printing included): {} ms", timeUsingIndex);
+
+        assertEquals(numberOfMethods, namesUsingIndex.size());
+        assertEquals(namesUsingNewModel, namesUsingIndex);
+    }
+}
@@ -2,11 +2,18 @@ package eu.stamp_project.utils.compilation;
 
 import eu.stamp_project.AbstractTest;
 import eu.stamp_project.Utils;
+import eu.stamp_project.test_framework.TestFramework;
+import eu.stamp_project.utils.CloneHelper;
 import eu.stamp_project.utils.program.InputConfiguration;
 import org.junit.Test;
 import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -45,4 +52,32 @@ public class TestCompilerTest extends AbstractTest {
                 ).size()
         );
     }
+
+    @Test
+    public void testAmplifiedTestMethodsAreCompiledWithoutTheTestMethodsOfTheTestClass() throws Exception {
+
+        /*
+            The amplified test methods are compiled and run without the test methods of the test class, that do not change.
+         */
+
+        final CtClass<?> testClass = Utils.findClass("fr.inria.filter.passing.PassingTest");
+        final CtMethod<?> amplifiedTest = Utils.findMethod(testClass, "testAssertion").clone();
+        amplifiedTest.setSimpleName("testAssertion_amplified");
+
+        final CtType<?> clone = CloneHelper.cloneTestClassAndAddOnlyGivenTest(testClass, Collections.singletonList(amplifiedTest));
+        final List<String> namesOfTestMethods = clone.getMethods().stream()
+                .filter(TestFramework.get()::isTest)
+                .map(CtMethod::getSimpleName)
+                .collect(Collectors.toList());
+        assertEquals(Collections.singletonList("testAssertion_amplified"), namesOfTestMethods);
+
+        final List<CtMethod<?>> passingTests = TestCompiler.compileRunAndDiscardUncompilableAndFailingAmplifiedTestMethods(
+                testClass,
+                Collections.singletonList(amplifiedTest.clone()),
+                Utils.getCompiler(),
+                InputConfiguration.get()
+        );
+        assertEquals(1, passingTests.size());
+        assertEquals("testAssertion_amplified", passingTests.get(0).getSimpleName());
+    }
 }
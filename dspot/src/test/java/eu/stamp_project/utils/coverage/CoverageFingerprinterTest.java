@@ -0,0 +1,45 @@
+package eu.stamp_project.utils.coverage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoverageFingerprinterTest {
+
+    @Test
+    public void testFingerprint() throws Exception {
+        final CoverageFingerprinter fingerprinter = new CoverageFingerprinter();
+        final CoverageFingerprint fingerprint = fingerprinter.fingerprint("fr/inria/Foo:0,2,0;fr/inria/Bar:1,0;", 3, 10);
+        assertEquals(2, fingerprint.getNumberOfCoveredLines());
+        assertEquals(3, fingerprint.getInstructionsCovered());
+        assertEquals(10, fingerprint.getInstructionsTotal());
+
+        // same execution path, same fingerprint
+        assertEquals(fingerprint, fingerprinter.fingerprint("fr/inria/Foo:0,2,0;fr/inria/Bar:1,0;", 3, 10));
+        // same covered lines, but not the same number of executed instructions
+        final CoverageFingerprint sameLines = fingerprinter.fingerprint("fr/inria/Foo:0,4,0;fr/inria/Bar:1,0;", 5, 10);
+        assertNotEquals(fingerprint, sameLines);
+        assertTrue(sameLines.isBetterThan(fingerprint));
+        assertFalse(fingerprint.isBetterThan(sameLines));
+    }
+
+    @Test
+    public void testIsBetterThan() throws Exception {
+        /*
+            A test is better than another one if it covers a line that the other does not cover,
+            even if it executes less instructions.
+         */
+        final CoverageFingerprinter fingerprinter = new CoverageFingerprinter();
+        final CoverageFingerprint first = fingerprinter.fingerprint("fr/inria/Foo:0,12,0;fr/inria/Bar:0,0;", 12, 20);
+        final CoverageFingerprint second = fingerprinter.fingerprint("fr/inria/Foo:0,0,0;fr/inria/Bar:0,3;", 3, 20);
+        assertTrue(second.isBetterThan(first));
+        assertTrue(first.isBetterThan(second));
+        assertTrue(first.isBetterThan(null));
+
+        final CoverageFingerprint dominated = fingerprinter.fingerprint("fr/inria/Foo:0,12,0;fr/inria/Bar:0,0;", 12, 20);
+        assertFalse(dominated.isBetterThan(first));
+    }
+}
@@ -0,0 +1,62 @@
+package eu.stamp_project.utils.execution.pool;
+
+import eu.stamp_project.testrunner.listener.TestResult;
+import eu.stamp_project.testrunner.runner.Failure;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PooledRunnerTest {
+
+    @Test
+    public void testTokenize() throws Exception {
+
+        /*
+            The JVM arguments are split on consecutive whitespaces, and the quoted whitespaces are kept
+         */
+
+        assertTrue(PooledRunner.tokenize("").isEmpty());
+        assertTrue(PooledRunner.tokenize("   ").isEmpty());
+        assertEquals(Arrays.asList("-Xmx2048m", "-Xms1024m"), PooledRunner.tokenize("  -Xmx2048m   -Xms1024m "));
+        assertEquals(Arrays.asList("-Dname=a value", "-Dother=it's", "-ea"),
+                PooledRunner.tokenize("-Dname=\"a value\" -Dother=\"it's\"\t-ea"));
+        assertEquals(Collections.singletonList(""), PooledRunner.tokenize("''"));
+    }
+
+    @Test
+    public void testAggregate() throws Exception {
+
+        /*
+            The aggregation of two results of the pool keeps all the lists of both results
+         */
+
+        final Failure failure = new Failure("testFailing", "MyTest", new AssertionError());
+        final Failure assumptionFailure = new Failure("testAssumption", "MyTest", new RuntimeException());
+        final TestResult first = new PooledTestResult(
+                new ArrayList<>(Arrays.asList("testPassing", "testFailing")),
+                new ArrayList<>(Collections.singletonList("testPassing")),
+                new ArrayList<>(Collections.singletonList("testIgnored")),
+                new ArrayList<>(Collections.singletonList(failure)),
+                new ArrayList<>()
+        );
+        final TestResult second = new PooledTestResult(
+                new ArrayList<>(Collections.singletonList("testAssumption")),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new ArrayList<>(Collections.singletonList(assumptionFailure))
+        );
+        final TestResult aggregate = first.aggregate(second);
+        assertEquals(Arrays.asList("testPassing", "testFailing", "testAssumption"), aggregate.getRunningTests());
+        assertEquals(Collections.singletonList("testPassing"), aggregate.getPassingTests());
+        assertEquals(Collections.singletonList("testIgnored"), aggregate.getIgnoredTests());
+        assertEquals(Collections.singletonList(failure), aggregate.getFailingTests());
+        assertEquals(Collections.singletonList(assumptionFailure), aggregate.getAssumptionFailingTests());
+        assertEquals(assumptionFailure, aggregate.getFailureOf("testAssumption"));
+    }
+}
@@ -0,0 +1,56 @@
+package eu.stamp_project.utils.execution.pool;
+
+import eu.stamp_project.AbstractTest;
+import eu.stamp_project.Utils;
+import eu.stamp_project.testrunner.EntryPoint;
+import eu.stamp_project.testrunner.listener.TestResult;
+import eu.stamp_project.utils.AmplificationHelper;
+import eu.stamp_project.utils.program.InputConfiguration;
+import org.junit.After;
+import org.junit.Test;
+import spoon.reflect.declaration.CtClass;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RunnerPoolTest extends AbstractTest {
+
+    @After
+    public void tearDown() throws Exception {
+        RunnerPool.shutdown();
+        InputConfiguration.get().setRunnerPoolSize(0);
+    }
+
+    @Test
+    public void testRunTestsInPool() throws Exception {
+
+        /*
+            The runner pool gives the same result as a new JVM, run after run.
+            The test classes are loaded in a new class loader, so the resources of the tests are still available.
+         */
+
+        final CtClass<?> classUsingResources = Utils.findClass("fr.inria.testresources.TestResources");
+        final InputConfiguration configuration = Utils.getInputConfiguration();
+        configuration.setRunnerPoolSize(1);
+        EntryPoint.jUnit5Mode = false;
+        final String classpath = configuration.getClasspathClassesProject()
+                + AmplificationHelper.PATH_SEPARATOR +
+                configuration.getDependencies();
+
+        final TestResult expected = EntryPoint.runTests(
+                classpath,
+                classUsingResources.getQualifiedName(),
+                "testResources"
+        );
+        for (int i = 0; i < 2; i++) {
+            final TestResult result = RunnerPool.runTests(
+                    classpath,
+                    classUsingResources.getQualifiedName(),
+                    "testResources"
+            );
+            assertTrue(result.getFailingTests().isEmpty());
+            assertEquals(expected.getRunningTests(), result.getRunningTests());
+            assertEquals(expected.getPassingTests(), result.getPassingTests());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package eu.stamp_project.utils.pit;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class PerformanceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceTest.class);
+
+    @Ignore
+    @Test
+    public void testParseAndLookUpLargeReport() throws Exception {
+
+        /*
+         * This test aims at measuring the time spent to parse a report of PIT of 100k mutants,
+         * and to look up each of its killed mutants among the mutants killed by a baseline:
+         * in a list of results, as PitMutantScoreSelector used to do, and in a set of mutant keys.
+         * This test is meant to be run manually
+         */
+
+        final int numberOfMutants = 100_000;
+        final File report = File.createTempFile("mutations", ".xml");
+        report.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(report)) {
+            writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            writer.println("<mutations>");
+            for (int i = 0; i < numberOfMutants; i++) {
+                writer.println("<mutation detected='true' status='KILLED' numberOfTestsRun='1'>" +
+                        "<sourceFile>Example" + (i / 1000) + ".java</sourceFile>" +
+                        "<mutatedClass>example.Example" + (i / 1000) + "</mutatedClass>" +
+                        "<mutatedMethod>method" + (i / 50) + "</mutatedMethod>" +
+                        "<methodDescription>(I)I</methodDescription>" +
+                        "<lineNumber>" + (i % 50) + "</lineNumber>" +
+                        "<mutator>org.pitest.mutationtest.engine.gregor.mutators.MathMutator</mutator>" +
+                        "<index>" + i % 7 + "</index><block>" + i % 3 + "</block>" +
+                        "<killingTest>example.TestSuiteExample.test4(example.TestSuiteExample)</killingTest>" +
+                        "<description>Replaced integer subtraction with addition</description></mutation>");
+            }
+            writer.println("</mutations>");
+        }
+
+        long start = System.currentTimeMillis();
+        final Set<MutantKey> killedMutants = new HashSet<>();
+        new PitXMLResultParser().parse(report, result -> killedMutants.add(result.getKey()));
+        final long timeToParseIntoKeys = System.currentTimeMillis() - start;
+        LOGGER.info("parse into keys: {} ms", timeToParseIntoKeys);
+
+        start = System.currentTimeMillis();
+        final List<PitXMLResult> results = new PitXMLResultParser().parse(report);
+        final long timeToParseIntoList = System.currentTimeMillis() - start;
+        LOGGER.info("parse into a list: {} ms", timeToParseIntoList);
+
+        start = System.currentTimeMillis();
+        final int[] found = new int[]{0};
+        new PitXMLResultParser().parse(report, result -> {
+            if (killedMutants.contains(result.getKey())) {
+                found[0]++;
+            }
+        });
+        final long timeToLookUpKeys = System.currentTimeMillis() - start;
+        LOGGER.info("look up {} keys: {} ms", found[0], timeToLookUpKeys);
+        assertEquals(numberOfMutants, found[0]);
+
+        // the look up in the list is quadratic: it is measured on a sample, and extrapolated
+        final int sampleSize = 1_000;
+        final List<PitXMLResult> baseline = new ArrayList<>(results);
+        start = System.currentTimeMillis();
+        for (int i = 0; i < sampleSize; i++) {
+            baseline.contains(results.get(results.size() - 1 - i));
+        }
+        final long timeToLookUpList = System.currentTimeMillis() - start;
+        LOGGER.info("look up {} results in a list: {} ms (~{} ms for {})",
+                sampleSize, timeToLookUpList, timeToLookUpList * (numberOfMutants / sampleSize), numberOfMutants);
+    }
+}
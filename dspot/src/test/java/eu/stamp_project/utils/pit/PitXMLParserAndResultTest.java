@@ -2,8 +2,13 @@ package eu.stamp_project.utils.pit;
 
 import org.junit.Test;
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by Andrew Bwogi
@@ -24,4 +29,33 @@ public class PitXMLParserAndResultTest {
         assertEquals(15, pitXMLResults.stream().filter(pitResult -> pitResult.getStateOfMutant() == AbstractPitResult.State.KILLED).count(), nbErrors);
         assertEquals(4, pitXMLResults.stream().filter(pitResult -> pitResult.getStateOfMutant() == AbstractPitResult.State.NO_COVERAGE).count(), nbErrors);
     }
+
+    @Test
+    public void testStreamingIntoMutantKeys() throws Exception {
+
+        /*
+            The parser gives the results one by one to the consumer, and the identity of a mutant does not depend on its state
+         */
+
+        final Set<MutantKey> killedMutants = new HashSet<>();
+        final int numberOfResults = new PitXMLResultParser().parse(new File("src/test/resources/mutations_test-projects.xml"), result -> {
+            if (result.getStateOfMutant() == AbstractPitResult.State.KILLED) {
+                killedMutants.add(result.getKey());
+            }
+        });
+        final List<PitXMLResult> pitXMLResults = new PitXMLResultParser().parse(new File("src/test/resources/mutations_test-projects.xml"));
+        assertEquals(pitXMLResults.size(), numberOfResults);
+        assertEquals(15, killedMutants.size());
+        assertEquals(pitXMLResults.size(), pitXMLResults.stream().map(AbstractPitResult::getKey).collect(Collectors.toSet()).size());
+
+        final PitXMLResult killedMutant = pitXMLResults.stream()
+                .filter(result -> result.getStateOfMutant() == AbstractPitResult.State.KILLED)
+                .findFirst()
+                .get();
+        final PitXMLResult sameMutantThatSurvived = new PitXMLResult("example.Example", AbstractPitResult.State.SURVIVED,
+                killedMutant.getFullQualifiedNameMutantOperator(), "none", "none", killedMutant.getLineNumber(),
+                killedMutant.getNameOfMutatedMethod(), killedMutant.getmethodDescription(), killedMutant.getMutationDescription(),
+                killedMutant.getIndex(), killedMutant.getBlock(), 12, false);
+        assertTrue(killedMutants.contains(sameMutantThatSurvived.getKey()));
+    }
 }
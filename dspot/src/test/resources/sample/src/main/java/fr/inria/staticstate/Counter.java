@@ -0,0 +1,15 @@
+package fr.inria.staticstate;
+
+public class Counter {
+
+    private static int count = 0;
+
+    public static int increment() {
+        return ++count;
+    }
+
+    public static int incrementBy(Integer step) {
+        count += step;
+        return count;
+    }
+}
@@ -0,0 +1,16 @@
+package fr.inria.staticstate;
+
+import org.junit.Test;
+
+public class CounterTest {
+
+    @Test
+    public void testIncrement() throws Exception {
+        Counter.increment();
+    }
+
+    @Test
+    public void testIncrementByNull() throws Exception {
+        Counter.incrementBy(null);
+    }
+}